@@ -0,0 +1,281 @@
+package com.example.zooseeker;
+
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+
+import java.util.Arrays;
+
+/**
+ * Distance oracle which answers each query with a fresh point-to-point search, for graphs too
+ *  large for all-pairs tables. Searches are A*, guided by the straight-line distance to the
+ *  destination: vertex coordinates are projected onto a local plane (equirectangular, in meters,
+ *  around the graph's mean latitude), and scaled by the smallest weight per meter of any edge.
+ *  No path can then be shorter than its estimate, so the heuristic is admissible and consistent
+ *  and every vertex is settled at most once.
+ *
+ * If edge weights are not geometric (a vertex has no coordinates, or some edge is shorter than
+ *  the distance between its endpoints' coordinates allows, e.g. weight 0) the heuristic is
+ *  dropped and searches are plain Dijkstra. The last search is kept, so asking for the weight
+ *  and then the path of the same query searches once.
+ */
+public class AStarDistanceOracle implements DistanceOracle {
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    // Guards against rounding making estimates exceed the true distance
+    private static final double HEURISTIC_SLACK = 1.0 - 1e-9;
+
+    private final ZooGraphIndex graphIndex;
+
+    // Projected vertex coordinates, and path weight per meter of straight line that no edge beats
+    // (0 if weights are not geometric)
+    private final double[] xs;
+    private final double[] ys;
+    private final double heuristicScale;
+
+    // Search state, reused between queries. Entries are only valid if their stamp is the search's
+    private final double[] distances;
+    private final int[] predecessorEdges;
+    private final int[] reachedStamps;
+    private final boolean[] settled;
+    private final double[] heapKeys;
+    private final int[] heapVertices;
+    private int stamp = 0;
+    private int lastStart = -1;
+    private int lastEnd = -1;
+    private int lastSettledCount = 0;
+
+    /**
+     * Ctor for the oracle over a graph without vertex or edge info, searching with Dijkstra
+     * @param zooGraph - undirected weighted graph to compute paths on
+     */
+    public AStarDistanceOracle(Graph<String, IdentifiedWeightedEdge> zooGraph) {
+        this(new ZooGraphIndex(zooGraph));
+    }
+
+    /**
+     * Ctor for the oracle, projecting vertex coordinates for the heuristic
+     * @param graphIndex - index of the undirected weighted graph to compute paths on
+     */
+    public AStarDistanceOracle(ZooGraphIndex graphIndex) {
+        this(graphIndex, true);
+    }
+
+    /**
+     * Ctor for the oracle
+     * @param graphIndex - index of the undirected weighted graph to compute paths on
+     * @param useHeuristic - false to always search with Dijkstra, e.g. if weights are known not
+     *  to follow the map
+     */
+    public AStarDistanceOracle(ZooGraphIndex graphIndex, boolean useHeuristic) {
+        this.graphIndex = graphIndex;
+        int vertexCount = graphIndex.getVertexCount();
+        this.xs = new double[vertexCount];
+        this.ys = new double[vertexCount];
+        this.heuristicScale = useHeuristic ? projectVertices() : 0.0;
+
+        this.distances = new double[vertexCount];
+        this.predecessorEdges = new int[vertexCount];
+        this.reachedStamps = new int[vertexCount];
+        this.settled = new boolean[vertexCount];
+        int heapCapacity = graphIndex.getAdjacencyStart(vertexCount) + 1;
+        this.heapKeys = new double[heapCapacity];
+        this.heapVertices = new int[heapCapacity];
+    }
+
+    /**
+     * Projects vertex coordinates onto the plane, and finds the heuristic's scale
+     * @return smallest edge weight per meter between endpoints, 0 if weights are not geometric
+     */
+    private double projectVertices() {
+        int vertexCount = graphIndex.getVertexCount();
+        double latSum = 0.0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (Double.isNaN(graphIndex.getVertexLat(v))) return 0.0;
+            latSum += graphIndex.getVertexLat(v);
+        }
+        double metersPerDegreeLat = Math.toRadians(EARTH_RADIUS_METERS);
+        double metersPerDegreeLng = metersPerDegreeLat * Math.cos(Math.toRadians(latSum / Math.max(1, vertexCount)));
+        for (int v = 0; v < vertexCount; v++) {
+            xs[v] = graphIndex.getVertexLng(v) * metersPerDegreeLng;
+            ys[v] = graphIndex.getVertexLat(v) * metersPerDegreeLat;
+        }
+
+        // Edges between coinciding vertices do not bound the scale
+        double scale = Double.POSITIVE_INFINITY;
+        for (int e = 0; e < graphIndex.getEdgeCount(); e++) {
+            double meters = straightLine(graphIndex.getEdgeSource(e), graphIndex.getEdgeTarget(e));
+            if (meters > 0) scale = Math.min(scale, graphIndex.getEdgeWeight(e) / meters);
+        }
+        return (scale > 0 && scale != Double.POSITIVE_INFINITY) ? scale * HEURISTIC_SLACK : 0.0;
+    }
+
+    private double straightLine(int vertexA, int vertexB) {
+        return Math.hypot(xs[vertexA] - xs[vertexB], ys[vertexA] - ys[vertexB]);
+    }
+
+    /**
+     * Returns whether searches are guided by the straight-line heuristic
+     * @return true for A*, false if edge weights are not geometric and searches are Dijkstra
+     */
+    public boolean isGeometric() {
+        return heuristicScale > 0;
+    }
+
+    /**
+     * Returns the number of vertices settled by the latest search, to compare search effort
+     * @return settled vertex count
+     */
+    public synchronized int getLastSettledCount() {
+        return lastSettledCount;
+    }
+
+    /**
+     * Searches from start until end is settled, or every reachable vertex if end is -1. Skipped if
+     *  the previous search was the same query
+     * @param start - ordinal of starting vertex
+     * @param end - ordinal of destination vertex, -1 to search the whole graph
+     */
+    private void search(int start, int end) {
+        if (end >= 0 && start == lastStart && end == lastEnd) return;
+        lastStart = start;
+        lastEnd = end;
+        if (++stamp == 0) {
+            Arrays.fill(reachedStamps, 0);
+            stamp = 1;
+        }
+        boolean guided = end >= 0 && heuristicScale > 0;
+        int settledCount = 0;
+
+        reach(start, 0.0, -1);
+        int heapSize = siftUp(0, guided ? heuristicScale * straightLine(start, end) : 0.0, start);
+        while (heapSize > 0) {
+            int vertex = heapVertices[0];
+            heapSize--;
+            siftDown(heapSize, heapKeys[heapSize], heapVertices[heapSize]);
+            if (settled[vertex]) continue;
+            settled[vertex] = true;
+            settledCount++;
+            if (vertex == end) break;
+
+            double distance = distances[vertex];
+            int adjacencyEnd = graphIndex.getAdjacencyEnd(vertex);
+            for (int i = graphIndex.getAdjacencyStart(vertex); i < adjacencyEnd; i++) {
+                int next = graphIndex.getAdjacentVertex(i);
+                int e = graphIndex.getAdjacentEdge(i);
+                double candidate = distance + graphIndex.getEdgeWeight(e);
+                if (reachedStamps[next] == stamp && (settled[next] || candidate >= distances[next])) continue;
+
+                reach(next, candidate, e);
+                double key = guided ? candidate + heuristicScale * straightLine(next, end) : candidate;
+                heapSize = siftUp(heapSize, key, next);
+            }
+        }
+        lastSettledCount = settledCount;
+    }
+
+    /**
+     * Records a (shorter) distance to a vertex for the current search
+     */
+    private void reach(int vertex, double distance, int predecessorEdge) {
+        if (reachedStamps[vertex] != stamp) {
+            reachedStamps[vertex] = stamp;
+            settled[vertex] = false;
+        }
+        distances[vertex] = distance;
+        predecessorEdges[vertex] = predecessorEdge;
+    }
+
+    private double distanceTo(int vertex) {
+        return (reachedStamps[vertex] == stamp) ? distances[vertex] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Inserts an entry into the binary heap
+     * @return new heap size
+     */
+    private int siftUp(int size, double key, int vertex) {
+        int i = size;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= key) break;
+            heapKeys[i] = heapKeys[parent];
+            heapVertices[i] = heapVertices[parent];
+            i = parent;
+        }
+        heapKeys[i] = key;
+        heapVertices[i] = vertex;
+        return size + 1;
+    }
+
+    /**
+     * Places an entry at the root of the binary heap and restores heap order
+     */
+    private void siftDown(int size, double key, int vertex) {
+        if (size == 0) return;
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heapKeys[child + 1] < heapKeys[child]) child++;
+            if (heapKeys[child] >= key) break;
+            heapKeys[i] = heapKeys[child];
+            heapVertices[i] = heapVertices[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapVertices[i] = vertex;
+    }
+
+    @Override
+    public ZooGraphIndex getGraphIndex() {
+        return graphIndex;
+    }
+
+    @Override
+    public synchronized double getPathWeight(int start, int end) {
+        search(start, end);
+        return distanceTo(end);
+    }
+
+    @Override
+    public synchronized int[] getPathEdges(int start, int end) {
+        search(start, end);
+        if (distanceTo(end) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        // Walk predecessor edges back from the destination, filling in travel order from the back
+        int length = 0;
+        for (int vertex = end; vertex != start; length++) {
+            vertex = graphIndex.getOtherEndpoint(predecessorEdges[vertex], vertex);
+        }
+        int[] pathEdges = new int[length];
+        int vertex = end;
+        for (int i = length - 1; i >= 0; i--) {
+            int e = predecessorEdges[vertex];
+            pathEdges[i] = e;
+            vertex = graphIndex.getOtherEndpoint(e, vertex);
+        }
+        return pathEdges;
+    }
+
+    @Override
+    public synchronized void getPathWeights(int start, double[] weights) {
+        search(start, -1);
+        for (int v = 0; v < weights.length; v++) {
+            weights[v] = distanceTo(v);
+        }
+    }
+
+    @Override
+    public double getPathWeight(String startId, String endId) {
+        return getPathWeight(graphIndex.getOrdinal(startId), graphIndex.getOrdinal(endId));
+    }
+
+    @Override
+    public GraphPath<String, IdentifiedWeightedEdge> getPath(String startId, String endId) {
+        int start = graphIndex.getOrdinal(startId);
+        int[] pathEdges = getPathEdges(start, graphIndex.getOrdinal(endId));
+        return (pathEdges == null) ? null : graphIndex.toGraphPath(start, pathEdges);
+    }
+}
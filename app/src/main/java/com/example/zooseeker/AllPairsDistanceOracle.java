@@ -0,0 +1,192 @@
+package com.example.zooseeker;
+
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+
+import java.util.Arrays;
+
+/**
+ * Distance oracle which precomputes the shortest path weights and predecessor edges between
+ *  every pair of vertices of the zoo graph. Tables are dense primitive arrays indexed by the
+ *  graph index's vertex ordinals (row = source, column = destination), so weight queries are
+ *  O(1) and path queries are O(path length).
+ */
+public class AllPairsDistanceOracle implements DistanceOracle {
+    private final ZooGraphIndex graphIndex;
+    private final int vertexCount;
+
+    // All-pairs tables, entry [source * vertexCount + destination]
+    private final double[] distances;
+    private final int[] predecessorEdges; // Last edge on shortest path, -1 if none
+
+    /**
+     * Ctor for the oracle over a graph without vertex or edge info
+     * @param zooGraph - undirected weighted graph to compute paths on
+     */
+    public AllPairsDistanceOracle(Graph<String, IdentifiedWeightedEdge> zooGraph) {
+        this(new ZooGraphIndex(zooGraph));
+    }
+
+    /**
+     * Ctor for the oracle, runs one Dijkstra search per vertex of the graph
+     * @param graphIndex - index of the undirected weighted graph to compute paths on
+     */
+    public AllPairsDistanceOracle(ZooGraphIndex graphIndex) {
+        this.graphIndex = graphIndex;
+        int vertexCount = graphIndex.getVertexCount();
+        this.vertexCount = vertexCount;
+
+        // Fill the tables with one search per source vertex
+        this.distances = new double[vertexCount * vertexCount];
+        this.predecessorEdges = new int[vertexCount * vertexCount];
+        int heapCapacity = graphIndex.getAdjacencyStart(vertexCount) + 1;
+        double[] heapKeys = new double[heapCapacity];
+        int[] heapVertices = new int[heapCapacity];
+        for (int source = 0; source < vertexCount; source++) {
+            int rowOffset = source * vertexCount;
+            Arrays.fill(distances, rowOffset, rowOffset + vertexCount, Double.POSITIVE_INFINITY);
+            Arrays.fill(predecessorEdges, rowOffset, rowOffset + vertexCount, -1);
+            distances[rowOffset + source] = 0.0;
+
+            // Lazy-deletion binary heap: stale entries are skipped when popped
+            int heapSize = 1;
+            heapKeys[0] = 0.0;
+            heapVertices[0] = source;
+            while (heapSize > 0) {
+                double key = heapKeys[0];
+                int vertex = heapVertices[0];
+                heapSize--;
+                siftDown(heapKeys, heapVertices, heapSize, heapKeys[heapSize], heapVertices[heapSize]);
+                if (key > distances[rowOffset + vertex]) continue;
+
+                int end = graphIndex.getAdjacencyEnd(vertex);
+                for (int i = graphIndex.getAdjacencyStart(vertex); i < end; i++) {
+                    int e = graphIndex.getAdjacentEdge(i);
+                    int next = graphIndex.getAdjacentVertex(i);
+                    double candidate = key + graphIndex.getEdgeWeight(e);
+                    if (candidate < distances[rowOffset + next]) {
+                        distances[rowOffset + next] = candidate;
+                        predecessorEdges[rowOffset + next] = e;
+                        heapSize = siftUp(heapKeys, heapVertices, heapSize, candidate, next);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts an entry into the binary heap
+     * @return new heap size
+     */
+    private static int siftUp(double[] keys, int[] vertices, int size, double key, int vertex) {
+        int i = size;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            keys[i] = keys[parent];
+            vertices[i] = vertices[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        vertices[i] = vertex;
+        return size + 1;
+    }
+
+    /**
+     * Places an entry at the root of the binary heap and restores heap order
+     */
+    private static void siftDown(double[] keys, int[] vertices, int size, double key, int vertex) {
+        if (size == 0) return;
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (keys[child] >= key) break;
+            keys[i] = keys[child];
+            vertices[i] = vertices[child];
+            i = child;
+        }
+        keys[i] = key;
+        vertices[i] = vertex;
+    }
+
+    /**
+     * Returns the ordinal of a vertex, as used to index the oracle's tables
+     * @param vertexId - id of vertex in graph
+     * @return ordinal of vertex
+     */
+    public int getOrdinal(String vertexId) {
+        return graphIndex.getOrdinal(vertexId);
+    }
+
+    /**
+     * Returns the number of vertices in the oracle's graph
+     * @return vertex count
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public ZooGraphIndex getGraphIndex() {
+        return graphIndex;
+    }
+
+    @Override
+    public double getPathWeight(int start, int end) {
+        return distances[start * vertexCount + end];
+    }
+
+    @Override
+    public int[] getPathEdges(int start, int end) {
+        int rowOffset = start * vertexCount;
+        if (distances[rowOffset + end] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        // Walk predecessor edges back from the destination, filling in travel order from the back
+        int length = 0;
+        for (int vertex = end; vertex != start; length++) {
+            vertex = graphIndex.getOtherEndpoint(predecessorEdges[rowOffset + vertex], vertex);
+        }
+        int[] pathEdges = new int[length];
+        int vertex = end;
+        for (int i = length - 1; i >= 0; i--) {
+            int e = predecessorEdges[rowOffset + vertex];
+            pathEdges[i] = e;
+            vertex = graphIndex.getOtherEndpoint(e, vertex);
+        }
+        return pathEdges;
+    }
+
+    @Override
+    public void getPathWeights(int start, double[] weights) {
+        System.arraycopy(distances, start * vertexCount, weights, 0, vertexCount);
+    }
+
+    @Override
+    public DistanceTable getDistanceTable(int[] sources, int[] targets) {
+        // Already tabulated, copy the entries rather than whole rows
+        DistanceTable table = new DistanceTable(sources.length, targets.length);
+        for (int i = 0; i < sources.length; i++) {
+            int rowOffset = sources[i] * vertexCount;
+            for (int j = 0; j < targets.length; j++) {
+                table.set(i, j, distances[rowOffset + targets[j]]);
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public double getPathWeight(String startId, String endId) {
+        return getPathWeight(getOrdinal(startId), getOrdinal(endId));
+    }
+
+    @Override
+    public GraphPath<String, IdentifiedWeightedEdge> getPath(String startId, String endId) {
+        int start = getOrdinal(startId);
+        int[] pathEdges = getPathEdges(start, getOrdinal(endId));
+        return (pathEdges == null) ? null : graphIndex.toGraphPath(start, pathEdges);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.zooseeker;
+
+import java.util.Arrays;
+
+/**
+ * Burkhard-Keller tree over a fixed list of words, for finding every word within a small edit
+ *  (Levenshtein) distance of a query without comparing against every word. Each child hangs off
+ *  its parent by their distance, and the triangle inequality means only children whose distance
+ *  is within maxDistance of the query's distance to the parent can hold matches.
+ */
+public class BkTree {
+    /**
+     * Receives words found by a search
+     */
+    public interface Visitor {
+        void visit(int wordId, int distance);
+    }
+
+    private final String[] words;
+
+    // Children of each node as a linked list, with each child's distance to its parent
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] parentDistance;
+
+    // Scratch space for searches
+    private final int[] stack;
+    private int[] previousRow = new int[16];
+    private int[] currentRow = new int[16];
+
+    /**
+     * Ctor for a tree over a list of words, which should be distinct
+     * @param words - words to search, identified by index
+     */
+    public BkTree(String[] words) {
+        this.words = words;
+        this.firstChild = new int[words.length];
+        this.nextSibling = new int[words.length];
+        this.parentDistance = new int[words.length];
+        this.stack = new int[words.length];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+
+        for (int wordId = 1; wordId < words.length; wordId++) {
+            int node = 0;
+            while (true) {
+                int distance = distance(words[wordId], words[node]);
+                int child = firstChild[node];
+                while (child >= 0 && parentDistance[child] != distance) {
+                    child = nextSibling[child];
+                }
+                if (child < 0) {
+                    parentDistance[wordId] = distance;
+                    nextSibling[wordId] = firstChild[node];
+                    firstChild[node] = wordId;
+                    break;
+                }
+                node = child;
+            }
+        }
+    }
+
+    /**
+     * Finds every word within a distance of a query
+     * @param query - word to search for
+     * @param maxDistance - largest edit distance to accept
+     * @param visitor - receives each word found, with its distance to the query
+     */
+    public synchronized void search(String query, int maxDistance, Visitor visitor) {
+        if (words.length == 0) return;
+        int size = 0;
+        stack[size++] = 0;
+        while (size > 0) {
+            int node = stack[--size];
+            int distance = distance(query, words[node]);
+            if (distance <= maxDistance) {
+                visitor.visit(node, distance);
+            }
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (Math.abs(parentDistance[child] - distance) <= maxDistance) {
+                    stack[size++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Levenshtein distance between two strings, with two reused rows of the dynamic program
+     */
+    private int distance(String a, String b) {
+        if (previousRow.length <= b.length()) {
+            previousRow = new int[b.length() + 1];
+            currentRow = new int[b.length() + 1];
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            currentRow[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previousRow[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                currentRow[j] = Math.min(substitution, Math.min(previousRow[j], currentRow[j - 1]) + 1);
+            }
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+        return previousRow[b.length()];
+    }
+}
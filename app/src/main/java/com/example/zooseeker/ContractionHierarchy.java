@@ -0,0 +1,532 @@
+package com.example.zooseeker;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Contraction hierarchy over the zoo graph, for answering shortest-path queries on graphs with
+ *  tens of thousands of vertices by searching only a few hundred. Vertices are contracted one by
+ *  one, least important first (fewest shortcuts added, fewest neighbors already contracted),
+ *  adding a shortcut between two neighbors whenever the path through the contracted vertex is
+ *  the only shortest one. Each vertex's rank is its contraction order.
+ *
+ * The hierarchy is stored as arcs between graph index ordinals: an arc is either an original
+ *  edge, or a shortcut made of two arcs through a middle vertex, so shortest paths can be unpacked
+ *  back into the original edges. Arcs are also grouped in CSR arrays by their lower-ranked end,
+ *  pointing upwards, which is all ContractionHierarchyOracle searches.
+ *
+ * File layout (big-endian, version 1):
+ *  header  int magic, version, long graph fingerprint, int vertexCount, arcCount
+ *  ranks   int rank[vertexCount]
+ *  arcs    int a[arcCount], b[arcCount], edge[arcCount], middle[arcCount], firstChild[arcCount],
+ *          secondChild[arcCount], double weight[arcCount]
+ *
+ *  Original edges have middle and children -1, shortcuts have edge -1. The first child joins
+ *  a to the middle vertex, the second the middle vertex to b.
+ */
+public class ContractionHierarchy {
+    public static final int MAGIC = 0x5A4F4348; // "ZOCH"
+    public static final int VERSION = 1;
+
+    // Witness searches give up after settling this many vertices, adding a shortcut which may not
+    // be needed. Higher limits find more witnesses, but preprocess slower
+    private static final int WITNESS_SETTLE_LIMIT = 128;
+
+    private final long fingerprint;
+    private final int vertexCount;
+    private final int[] ranks;
+    private final int[] verticesByRank;
+
+    // Arcs, indexed by arc id
+    private final int arcCount;
+    private final int[] arcA;
+    private final int[] arcB;
+    private final int[] arcEdges;
+    private final int[] arcMiddles;
+    private final int[] arcFirstChildren;
+    private final int[] arcSecondChildren;
+    private final double[] arcWeights;
+
+    // Upward arcs of vertex v are [upStarts[v], upStarts[v + 1]), leading to higher ranked vertices
+    private final int[] upStarts;
+    private final int[] upVertices;
+    private final int[] upArcs;
+    private final double[] upWeights;
+
+    private ContractionHierarchy(long fingerprint, int[] ranks, int arcCount, int[] arcA, int[] arcB,
+                                 int[] arcEdges, int[] arcMiddles, int[] arcFirstChildren,
+                                 int[] arcSecondChildren, double[] arcWeights) {
+        this.fingerprint = fingerprint;
+        this.vertexCount = ranks.length;
+        this.ranks = ranks;
+        this.arcCount = arcCount;
+        this.arcA = arcA;
+        this.arcB = arcB;
+        this.arcEdges = arcEdges;
+        this.arcMiddles = arcMiddles;
+        this.arcFirstChildren = arcFirstChildren;
+        this.arcSecondChildren = arcSecondChildren;
+        this.arcWeights = arcWeights;
+
+        this.verticesByRank = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            verticesByRank[ranks[v]] = v;
+        }
+
+        // Group arcs by lower ranked end
+        this.upStarts = new int[vertexCount + 1];
+        for (int arc = 0; arc < arcCount; arc++) {
+            upStarts[lowerEnd(arc) + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            upStarts[v + 1] += upStarts[v];
+        }
+        this.upVertices = new int[arcCount];
+        this.upArcs = new int[arcCount];
+        this.upWeights = new double[arcCount];
+        int[] fill = Arrays.copyOf(upStarts, vertexCount);
+        for (int arc = 0; arc < arcCount; arc++) {
+            int lower = lowerEnd(arc);
+            int i = fill[lower]++;
+            upVertices[i] = (lower == arcA[arc]) ? arcB[arc] : arcA[arc];
+            upArcs[i] = arc;
+            upWeights[i] = arcWeights[arc];
+        }
+    }
+
+    private int lowerEnd(int arc) {
+        return (ranks[arcA[arc]] < ranks[arcB[arc]]) ? arcA[arc] : arcB[arc];
+    }
+
+    /**
+     * Returns a fingerprint of a graph's vertices, edges and weights, to tell whether a saved
+     *  hierarchy was built for it
+     * @param graphIndex - index of graph
+     * @return 64-bit fingerprint
+     */
+    public static long fingerprint(ZooGraphIndex graphIndex) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, graphIndex.getVertexCount());
+        for (int v = 0; v < graphIndex.getVertexCount(); v++) {
+            hash = mix(hash, graphIndex.getVertexId(v).hashCode());
+        }
+        hash = mix(hash, graphIndex.getEdgeCount());
+        for (int e = 0; e < graphIndex.getEdgeCount(); e++) {
+            hash = mix(hash, graphIndex.getEdgeSource(e));
+            hash = mix(hash, graphIndex.getEdgeTarget(e));
+            hash = mix(hash, Double.doubleToLongBits(graphIndex.getEdgeWeight(e)));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    /**
+     * Builds the hierarchy for a graph
+     * @param graphIndex - index of the undirected weighted graph
+     * @return contracted hierarchy
+     */
+    public static ContractionHierarchy build(ZooGraphIndex graphIndex) {
+        return new Builder(graphIndex).build();
+    }
+
+    /**
+     * Reads a hierarchy written by write()
+     * @param in - stream positioned at the start of the hierarchy
+     * @param graphIndex - index of the graph the hierarchy is for
+     * @return hierarchy, or null if it was built for a different graph or version
+     */
+    public static ContractionHierarchy read(DataInputStream in, ZooGraphIndex graphIndex) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+        long fingerprint = in.readLong();
+        int vertexCount = in.readInt();
+        int arcCount = in.readInt();
+        if (fingerprint != fingerprint(graphIndex) || vertexCount != graphIndex.getVertexCount() || arcCount < 0) {
+            return null;
+        }
+
+        int[] ranks = readInts(in, vertexCount);
+        int[] arcA = readInts(in, arcCount);
+        int[] arcB = readInts(in, arcCount);
+        int[] arcEdges = readInts(in, arcCount);
+        int[] arcMiddles = readInts(in, arcCount);
+        int[] arcFirstChildren = readInts(in, arcCount);
+        int[] arcSecondChildren = readInts(in, arcCount);
+        double[] arcWeights = new double[arcCount];
+        for (int arc = 0; arc < arcCount; arc++) {
+            arcWeights[arc] = in.readDouble();
+        }
+        return new ContractionHierarchy(fingerprint, ranks, arcCount, arcA, arcB, arcEdges, arcMiddles,
+                arcFirstChildren, arcSecondChildren, arcWeights);
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Writes the hierarchy, to be read back with read()
+     * @param out - stream to write to
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(fingerprint);
+        out.writeInt(vertexCount);
+        out.writeInt(arcCount);
+        writeInts(out, ranks, vertexCount);
+        writeInts(out, arcA, arcCount);
+        writeInts(out, arcB, arcCount);
+        writeInts(out, arcEdges, arcCount);
+        writeInts(out, arcMiddles, arcCount);
+        writeInts(out, arcFirstChildren, arcCount);
+        writeInts(out, arcSecondChildren, arcCount);
+        for (int arc = 0; arc < arcCount; arc++) {
+            out.writeDouble(arcWeights[arc]);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    // Vertex getters
+    public int getVertexCount() {return vertexCount;}
+    public int getRank(int vertex) {return ranks[vertex];}
+    public int getVertexByRank(int rank) {return verticesByRank[rank];}
+
+    // Arc getters, by arc id
+    public int getArcCount() {return arcCount;}
+    public int getArcA(int arc) {return arcA[arc];}
+    public int getArcB(int arc) {return arcB[arc];}
+    public int getArcEdge(int arc) {return arcEdges[arc];}
+    public int getArcMiddle(int arc) {return arcMiddles[arc];}
+    public int getArcFirstChild(int arc) {return arcFirstChildren[arc];}
+    public int getArcSecondChild(int arc) {return arcSecondChildren[arc];}
+
+    // Upward adjacency getters: arcs to higher ranked vertices are at indices [start, end)
+    public int getUpStart(int vertex) {return upStarts[vertex];}
+    public int getUpEnd(int vertex) {return upStarts[vertex + 1];}
+    public int getUpVertex(int index) {return upVertices[index];}
+    public int getUpArc(int index) {return upArcs[index];}
+    public double getUpWeight(int index) {return upWeights[index];}
+
+    /**
+     * Contracts a graph, growing the arc arrays as shortcuts are added
+     */
+    private static class Builder {
+        private final ZooGraphIndex graphIndex;
+        private final int vertexCount;
+
+        // Arcs
+        private int arcCount = 0;
+        private int[] arcA = new int[16];
+        private int[] arcB = new int[16];
+        private int[] arcEdges = new int[16];
+        private int[] arcMiddles = new int[16];
+        private int[] arcFirstChildren = new int[16];
+        private int[] arcSecondChildren = new int[16];
+        private double[] arcWeights = new double[16];
+
+        // Arcs at each vertex, including those to contracted vertices
+        private final int[][] vertexArcs;
+        private final int[] vertexArcCounts;
+
+        // Contraction state
+        private final int[] ranks;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] depths;
+        private final int[] priorityVersions;
+
+        // Neighbors of the vertex being contracted, with the lightest arc to each
+        private final int[] neighborStamps;
+        private final int[] neighborArcs;
+        private int[] neighbors;
+        private int neighborCount;
+        private int neighborStamp = 0;
+
+        // Witness search state, valid where the stamp is the search's
+        private final double[] witnessDistances;
+        private final int[] witnessStamps;
+        private int witnessStamp = 0;
+        private double[] heapKeys = new double[64];
+        private int[] heapVertices = new int[64];
+
+        Builder(ZooGraphIndex graphIndex) {
+            this.graphIndex = graphIndex;
+            this.vertexCount = graphIndex.getVertexCount();
+            this.vertexArcs = new int[vertexCount][];
+            this.vertexArcCounts = new int[vertexCount];
+            this.ranks = new int[vertexCount];
+            this.contracted = new boolean[vertexCount];
+            this.contractedNeighbors = new int[vertexCount];
+            this.depths = new int[vertexCount];
+            this.priorityVersions = new int[vertexCount];
+            this.neighborStamps = new int[vertexCount];
+            this.neighborArcs = new int[vertexCount];
+            this.neighbors = new int[16];
+            this.witnessDistances = new double[vertexCount];
+            this.witnessStamps = new int[vertexCount];
+
+            for (int v = 0; v < vertexCount; v++) {
+                vertexArcs[v] = new int[Math.max(4, graphIndex.getAdjacencyEnd(v) - graphIndex.getAdjacencyStart(v))];
+            }
+            for (int e = 0; e < graphIndex.getEdgeCount(); e++) {
+                int source = graphIndex.getEdgeSource(e);
+                int target = graphIndex.getEdgeTarget(e);
+                if (source != target) addArc(source, target, graphIndex.getEdgeWeight(e), e, -1, -1, -1);
+            }
+        }
+
+        ContractionHierarchy build() {
+            // Queue entries are {priority, vertex, version}, stale once the vertex's version moves on
+            PriorityQueue<int[]> queue = new PriorityQueue<>(Math.max(1, vertexCount),
+                    (x, y) -> (x[0] != y[0]) ? Integer.compare(x[0], y[0]) : Integer.compare(x[1], y[1]));
+            for (int v = 0; v < vertexCount; v++) {
+                queue.add(new int[]{priority(v), v, 0});
+            }
+
+            int rank = 0;
+            while (!queue.isEmpty()) {
+                int[] entry = queue.poll();
+                int v = entry[1];
+                if (contracted[v] || entry[2] != priorityVersions[v]) continue;
+
+                // Priorities go stale as the graph changes, re-check before contracting
+                int current = priority(v);
+                int[] next = queue.peek();
+                if (next != null && current > next[0]) {
+                    queue.add(new int[]{current, v, ++priorityVersions[v]});
+                    continue;
+                }
+
+                contract(v, true);
+                contracted[v] = true;
+                ranks[v] = rank++;
+
+                // Recomputing priorities reuses the neighbor list, so work from a copy
+                int[] updated = Arrays.copyOf(neighbors, neighborCount);
+                for (int u : updated) {
+                    removeArcsTo(u, v);
+                    contractedNeighbors[u]++;
+                    depths[u] = Math.max(depths[u], depths[v] + 1);
+                    queue.add(new int[]{priority(u), u, ++priorityVersions[u]});
+                }
+            }
+
+            return new ContractionHierarchy(fingerprint(graphIndex), ranks, arcCount, arcA, arcB, arcEdges,
+                    arcMiddles, arcFirstChildren, arcSecondChildren, arcWeights);
+        }
+
+        /**
+         * Priority of contracting a vertex next, lower first: shortcuts it adds less arcs it
+         *  removes, plus neighbors already contracted and depth in the hierarchy so far, which
+         *  spread contraction evenly across the graph
+         */
+        private int priority(int v) {
+            int shortcuts = contract(v, false);
+            return 2 * (shortcuts - neighborCount) + contractedNeighbors[v] + depths[v];
+        }
+
+        /**
+         * Drops a vertex's arcs to a contracted neighbor, so later searches skip them
+         */
+        private void removeArcsTo(int vertex, int contractedVertex) {
+            int[] arcs = vertexArcs[vertex];
+            int kept = 0;
+            for (int i = 0; i < vertexArcCounts[vertex]; i++) {
+                int arc = arcs[i];
+                if (arcA[arc] != contractedVertex && arcB[arc] != contractedVertex) arcs[kept++] = arc;
+            }
+            vertexArcCounts[vertex] = kept;
+        }
+
+        /**
+         * Finds the shortcuts contracting a vertex needs, leaving its uncontracted neighbors in
+         *  neighbors[0, neighborCount)
+         * @param v - vertex to contract
+         * @param addShortcuts - true to add the shortcuts, false to only count them
+         * @return number of shortcuts needed
+         */
+        private int contract(int v, boolean addShortcuts) {
+            collectNeighbors(v);
+            int shortcuts = 0;
+            for (int i = 0; i < neighborCount; i++) {
+                int u = neighbors[i];
+                double toU = arcWeights[neighborArcs[u]];
+
+                // Last neighbor, every pair with it was checked from the other end
+                if (i + 1 == neighborCount) continue;
+
+                // Longest path through v from u that a witness would have to beat (may be 0 if
+                // edges weigh nothing, which still needs a shortcut)
+                double maxDistance = 0.0;
+                for (int j = i + 1; j < neighborCount; j++) {
+                    maxDistance = Math.max(maxDistance, toU + arcWeights[neighborArcs[neighbors[j]]]);
+                }
+                witnessSearch(u, v, maxDistance);
+
+                for (int j = i + 1; j < neighborCount; j++) {
+                    int x = neighbors[j];
+                    double throughV = toU + arcWeights[neighborArcs[x]];
+                    if (witnessDistance(x) <= throughV) continue;
+                    shortcuts++;
+                    if (addShortcuts) {
+                        addArc(u, x, throughV, -1, v, neighborArcs[u], neighborArcs[x]);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Collects the uncontracted neighbors of a vertex, with the lightest arc to each
+         */
+        private void collectNeighbors(int v) {
+            neighborStamp++;
+            neighborCount = 0;
+            for (int i = 0; i < vertexArcCounts[v]; i++) {
+                int arc = vertexArcs[v][i];
+                int u = (arcA[arc] == v) ? arcB[arc] : arcA[arc];
+                if (contracted[u]) continue;
+                if (neighborStamps[u] != neighborStamp) {
+                    neighborStamps[u] = neighborStamp;
+                    neighborArcs[u] = arc;
+                    if (neighborCount == neighbors.length) neighbors = Arrays.copyOf(neighbors, 2 * neighborCount);
+                    neighbors[neighborCount++] = u;
+                } else if (arcWeights[arc] < arcWeights[neighborArcs[u]]) {
+                    neighborArcs[u] = arc;
+                }
+            }
+        }
+
+        /**
+         * Dijkstra from a vertex over uncontracted vertices other than one being contracted, up to
+         *  a distance or a number of settled vertices
+         */
+        private void witnessSearch(int start, int excluded, double maxDistance) {
+            witnessStamp++;
+            witnessStamps[start] = witnessStamp;
+            witnessDistances[start] = 0.0;
+            int heapSize = push(0, 0.0, start);
+            int settledCount = 0;
+            while (heapSize > 0 && settledCount < WITNESS_SETTLE_LIMIT) {
+                double key = heapKeys[0];
+                int vertex = heapVertices[0];
+                heapSize = pop(heapSize);
+                if (key > witnessDistances[vertex]) continue;
+                if (key > maxDistance) break;
+                settledCount++;
+
+                for (int i = 0; i < vertexArcCounts[vertex]; i++) {
+                    int arc = vertexArcs[vertex][i];
+                    int next = (arcA[arc] == vertex) ? arcB[arc] : arcA[arc];
+                    if (next == excluded || contracted[next]) continue;
+                    double candidate = key + arcWeights[arc];
+                    if (candidate > maxDistance) continue;
+                    if (witnessStamps[next] != witnessStamp || candidate < witnessDistances[next]) {
+                        witnessStamps[next] = witnessStamp;
+                        witnessDistances[next] = candidate;
+                        heapSize = push(heapSize, candidate, next);
+                    }
+                }
+            }
+        }
+
+        private double witnessDistance(int vertex) {
+            return (witnessStamps[vertex] == witnessStamp) ? witnessDistances[vertex] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Inserts an entry into the witness search's binary heap, growing it if needed
+         * @return new heap size
+         */
+        private int push(int size, double key, int vertex) {
+            if (size == heapKeys.length) {
+                heapKeys = Arrays.copyOf(heapKeys, 2 * size);
+                heapVertices = Arrays.copyOf(heapVertices, 2 * size);
+            }
+            int i = size;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapKeys[parent] <= key) break;
+                heapKeys[i] = heapKeys[parent];
+                heapVertices[i] = heapVertices[parent];
+                i = parent;
+            }
+            heapKeys[i] = key;
+            heapVertices[i] = vertex;
+            return size + 1;
+        }
+
+        /**
+         * Removes the root of the witness search's binary heap
+         * @return new heap size
+         */
+        private int pop(int size) {
+            size--;
+            double key = heapKeys[size];
+            int vertex = heapVertices[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && heapKeys[child + 1] < heapKeys[child]) child++;
+                if (heapKeys[child] >= key) break;
+                heapKeys[i] = heapKeys[child];
+                heapVertices[i] = heapVertices[child];
+                i = child;
+            }
+            if (size > 0) {
+                heapKeys[i] = key;
+                heapVertices[i] = vertex;
+            }
+            return size;
+        }
+
+        /**
+         * Adds an arc between two vertices
+         */
+        private void addArc(int a, int b, double weight, int edge, int middle, int firstChild, int secondChild) {
+            if (arcCount == arcA.length) {
+                int capacity = 2 * arcCount;
+                arcA = Arrays.copyOf(arcA, capacity);
+                arcB = Arrays.copyOf(arcB, capacity);
+                arcEdges = Arrays.copyOf(arcEdges, capacity);
+                arcMiddles = Arrays.copyOf(arcMiddles, capacity);
+                arcFirstChildren = Arrays.copyOf(arcFirstChildren, capacity);
+                arcSecondChildren = Arrays.copyOf(arcSecondChildren, capacity);
+                arcWeights = Arrays.copyOf(arcWeights, capacity);
+            }
+            int arc = arcCount++;
+            arcA[arc] = a;
+            arcB[arc] = b;
+            arcEdges[arc] = edge;
+            arcMiddles[arc] = middle;
+            arcFirstChildren[arc] = firstChild;
+            arcSecondChildren[arc] = secondChild;
+            arcWeights[arc] = weight;
+            addVertexArc(a, arc);
+            addVertexArc(b, arc);
+        }
+
+        private void addVertexArc(int vertex, int arc) {
+            if (vertexArcCounts[vertex] == vertexArcs[vertex].length) {
+                vertexArcs[vertex] = Arrays.copyOf(vertexArcs[vertex], 2 * vertexArcCounts[vertex]);
+            }
+            vertexArcs[vertex][vertexArcCounts[vertex]++] = arc;
+        }
+    }
+}
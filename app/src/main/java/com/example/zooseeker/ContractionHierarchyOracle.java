@@ -0,0 +1,408 @@
+package com.example.zooseeker;
+
+import org.jgrapht.GraphPath;
+
+import java.util.Arrays;
+
+/**
+ * Distance oracle answering queries from a contraction hierarchy. A query searches upwards from
+ *  both ends at once, each side only following arcs to higher ranked vertices, and stops once
+ *  neither side can still improve the best meeting point. Shortcuts on the path found are then
+ *  unpacked into the original edges.
+ *
+ * One-to-all queries search upwards from the start, then sweep every vertex from highest rank
+ *  down, taking the best distance through its upward arcs (PHAST), which is exact since every
+ *  higher ranked vertex is final by the time it is read. Many-to-many tables search upwards once
+ *  from each target, leaving the distance in a bucket at every vertex reached, then once from
+ *  each source, combining with the buckets it finds.
+ */
+public class ContractionHierarchyOracle implements DistanceOracle {
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+
+    private final ZooGraphIndex graphIndex;
+    private final ContractionHierarchy hierarchy;
+
+    // Search state per direction, reused between queries. Entries are only valid if their stamp
+    // is the search's
+    private final double[][] distances;
+    private final int[][] predecessorArcs;
+    private final int[][] reachedStamps;
+    private final double[][] heapKeys;
+    private final int[][] heapVertices;
+    private final int[] heapSizes = new int[2];
+    private int stamp = 0;
+    private int lastStart = -1;
+    private int lastEnd = -1;
+    private int meetingVertex = -1;
+    private double meetingDistance = Double.POSITIVE_INFINITY;
+
+    // Vertices settled by the latest upward search, for one-to-all and many-to-many queries
+    private int[] settledVertices = new int[64];
+
+    // Unpacking stack of {arc, vertex the arc is walked from}, and the edges unpacked so far
+    private int[] unpackArcs = new int[16];
+    private int[] unpackFrom = new int[16];
+    private int[] unpackedEdges = new int[16];
+
+    /**
+     * Ctor for the oracle over a graph, contracting it first
+     * @param graphIndex - index of the undirected weighted graph to compute paths on
+     */
+    public ContractionHierarchyOracle(ZooGraphIndex graphIndex) {
+        this(graphIndex, ContractionHierarchy.build(graphIndex));
+    }
+
+    /**
+     * Ctor for the oracle from a hierarchy already built or loaded for the graph
+     * @param graphIndex - index of the undirected weighted graph to compute paths on
+     * @param hierarchy - contraction hierarchy of the same graph
+     */
+    public ContractionHierarchyOracle(ZooGraphIndex graphIndex, ContractionHierarchy hierarchy) {
+        if (hierarchy.getVertexCount() != graphIndex.getVertexCount()) {
+            throw new IllegalArgumentException("Contraction hierarchy was built for a different graph");
+        }
+        this.graphIndex = graphIndex;
+        this.hierarchy = hierarchy;
+
+        int vertexCount = graphIndex.getVertexCount();
+        int heapCapacity = hierarchy.getArcCount() + 1;
+        this.distances = new double[2][vertexCount];
+        this.predecessorArcs = new int[2][vertexCount];
+        this.reachedStamps = new int[2][vertexCount];
+        this.heapKeys = new double[2][heapCapacity];
+        this.heapVertices = new int[2][heapCapacity];
+    }
+
+    /**
+     * Returns the hierarchy queries are answered from, e.g. to save it
+     * @return contraction hierarchy
+     */
+    public ContractionHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * Searches upwards from both ends, leaving the meeting vertex and path weight. Skipped if the
+     *  previous search was the same query
+     * @param start - ordinal of starting vertex
+     * @param end - ordinal of destination vertex
+     */
+    private void search(int start, int end) {
+        if (start == lastStart && end == lastEnd) return;
+        lastStart = start;
+        lastEnd = end;
+        nextStamp();
+        meetingVertex = -1;
+        meetingDistance = Double.POSITIVE_INFINITY;
+
+        heapSizes[FORWARD] = 0;
+        heapSizes[BACKWARD] = 0;
+        reach(FORWARD, start, 0.0, -1);
+        reach(BACKWARD, end, 0.0, -1);
+
+        // Expand whichever side has the nearer vertex, until neither can beat the best meeting
+        while (true) {
+            double forwardKey = (heapSizes[FORWARD] > 0) ? heapKeys[FORWARD][0] : Double.POSITIVE_INFINITY;
+            double backwardKey = (heapSizes[BACKWARD] > 0) ? heapKeys[BACKWARD][0] : Double.POSITIVE_INFINITY;
+            if (Math.min(forwardKey, backwardKey) >= meetingDistance) break;
+            settleNext((forwardKey <= backwardKey) ? FORWARD : BACKWARD);
+        }
+    }
+
+    private void nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(reachedStamps[FORWARD], 0);
+            Arrays.fill(reachedStamps[BACKWARD], 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Pops the nearest vertex of one side and relaxes its upward arcs
+     * @param side - FORWARD or BACKWARD
+     * @return vertex settled, or -1 if the popped entry was stale
+     */
+    private int settleNext(int side) {
+        double key = heapKeys[side][0];
+        int vertex = heapVertices[side][0];
+        int size = --heapSizes[side];
+        siftDown(side, size, heapKeys[side][size], heapVertices[side][size]);
+        if (key > distances[side][vertex]) return -1;
+
+        int upEnd = hierarchy.getUpEnd(vertex);
+        for (int i = hierarchy.getUpStart(vertex); i < upEnd; i++) {
+            int next = hierarchy.getUpVertex(i);
+            double candidate = key + hierarchy.getUpWeight(i);
+            if (candidate < distanceTo(side, next)) {
+                reach(side, next, candidate, hierarchy.getUpArc(i));
+            }
+        }
+        return vertex;
+    }
+
+    /**
+     * Records a (shorter) distance to a vertex on one side, and whether it makes a better meeting
+     */
+    private void reach(int side, int vertex, double distance, int predecessorArc) {
+        reachedStamps[side][vertex] = stamp;
+        distances[side][vertex] = distance;
+        predecessorArcs[side][vertex] = predecessorArc;
+        heapSizes[side] = siftUp(side, heapSizes[side], distance, vertex);
+
+        double total = distance + distanceTo(1 - side, vertex);
+        if (total < meetingDistance) {
+            meetingDistance = total;
+            meetingVertex = vertex;
+        }
+    }
+
+    private double distanceTo(int side, int vertex) {
+        return (reachedStamps[side][vertex] == stamp) ? distances[side][vertex] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Inserts an entry into one side's binary heap
+     * @return new heap size
+     */
+    private int siftUp(int side, int size, double key, int vertex) {
+        double[] keys = heapKeys[side];
+        int[] vertices = heapVertices[side];
+        int i = size;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            keys[i] = keys[parent];
+            vertices[i] = vertices[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        vertices[i] = vertex;
+        return size + 1;
+    }
+
+    /**
+     * Places an entry at the root of one side's binary heap and restores heap order
+     */
+    private void siftDown(int side, int size, double key, int vertex) {
+        if (size == 0) return;
+        double[] keys = heapKeys[side];
+        int[] vertices = heapVertices[side];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (keys[child] >= key) break;
+            keys[i] = keys[child];
+            vertices[i] = vertices[child];
+            i = child;
+        }
+        keys[i] = key;
+        vertices[i] = vertex;
+    }
+
+    /**
+     * Unpacks an arc into original edge ordinals, appended in the order they are walked
+     * @param arc - arc to unpack
+     * @param from - endpoint the arc is walked from
+     * @param count - number of edges unpacked so far
+     * @return new number of edges unpacked
+     */
+    private int unpack(int arc, int from, int count) {
+        int stackSize = 0;
+        unpackArcs[stackSize] = arc;
+        unpackFrom[stackSize++] = from;
+        while (stackSize > 0) {
+            stackSize--;
+            int current = unpackArcs[stackSize];
+            int vertex = unpackFrom[stackSize];
+
+            int e = hierarchy.getArcEdge(current);
+            if (e >= 0) {
+                if (count == unpackedEdges.length) unpackedEdges = Arrays.copyOf(unpackedEdges, 2 * count);
+                unpackedEdges[count++] = e;
+                continue;
+            }
+
+            // Push the half walked second first, so the half starting at vertex pops first
+            int middle = hierarchy.getArcMiddle(current);
+            boolean fromA = hierarchy.getArcA(current) == vertex;
+            int first = fromA ? hierarchy.getArcFirstChild(current) : hierarchy.getArcSecondChild(current);
+            int second = fromA ? hierarchy.getArcSecondChild(current) : hierarchy.getArcFirstChild(current);
+            if (stackSize + 2 > unpackArcs.length) {
+                unpackArcs = Arrays.copyOf(unpackArcs, 2 * unpackArcs.length);
+                unpackFrom = Arrays.copyOf(unpackFrom, 2 * unpackFrom.length);
+            }
+            unpackArcs[stackSize] = second;
+            unpackFrom[stackSize++] = middle;
+            unpackArcs[stackSize] = first;
+            unpackFrom[stackSize++] = vertex;
+        }
+        return count;
+    }
+
+    private int otherEnd(int arc, int vertex) {
+        return (hierarchy.getArcA(arc) == vertex) ? hierarchy.getArcB(arc) : hierarchy.getArcA(arc);
+    }
+
+    @Override
+    public ZooGraphIndex getGraphIndex() {
+        return graphIndex;
+    }
+
+    @Override
+    public synchronized double getPathWeight(int start, int end) {
+        search(start, end);
+        return meetingDistance;
+    }
+
+    @Override
+    public synchronized int[] getPathEdges(int start, int end) {
+        search(start, end);
+        if (meetingVertex < 0) {
+            return null;
+        }
+
+        // Forward arcs are found from the meeting vertex back to the start, so walk them reversed
+        int forwardArcs = 0;
+        for (int vertex = meetingVertex; vertex != start; forwardArcs++) {
+            vertex = otherEnd(predecessorArcs[FORWARD][vertex], vertex);
+        }
+        int[] arcs = new int[forwardArcs];
+        int vertex = meetingVertex;
+        for (int i = forwardArcs - 1; i >= 0; i--) {
+            arcs[i] = predecessorArcs[FORWARD][vertex];
+            vertex = otherEnd(arcs[i], vertex);
+        }
+
+        int count = 0;
+        for (int arc : arcs) {
+            count = unpack(arc, vertex, count);
+            vertex = otherEnd(arc, vertex);
+        }
+        while (vertex != end) {
+            int arc = predecessorArcs[BACKWARD][vertex];
+            count = unpack(arc, vertex, count);
+            vertex = otherEnd(arc, vertex);
+        }
+        return Arrays.copyOf(unpackedEdges, count);
+    }
+
+    @Override
+    public synchronized void getPathWeights(int start, double[] weights) {
+        int settledCount = upwardSearch(start);
+
+        // Sweep downwards: each vertex's upward neighbors are final before it is reached
+        Arrays.fill(weights, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < settledCount; i++) {
+            weights[settledVertices[i]] = distances[FORWARD][settledVertices[i]];
+        }
+        for (int rank = hierarchy.getVertexCount() - 1; rank >= 0; rank--) {
+            int v = hierarchy.getVertexByRank(rank);
+            double best = weights[v];
+            int upEnd = hierarchy.getUpEnd(v);
+            for (int i = hierarchy.getUpStart(v); i < upEnd; i++) {
+                best = Math.min(best, weights[hierarchy.getUpVertex(i)] + hierarchy.getUpWeight(i));
+            }
+            weights[v] = best;
+        }
+    }
+
+    @Override
+    public synchronized DistanceTable getDistanceTable(int[] sources, int[] targets) {
+        // Search upwards from every target, leaving {target, weight} in a bucket at each vertex
+        // reached. Buckets are grouped by vertex once all entries are in
+        int entryCount = 0;
+        int[] entryVertices = new int[16];
+        int[] entryTargets = new int[16];
+        double[] entryWeights = new double[16];
+        for (int j = 0; j < targets.length; j++) {
+            int settledCount = upwardSearch(targets[j]);
+            if (entryCount + settledCount > entryVertices.length) {
+                int capacity = Math.max(2 * entryVertices.length, entryCount + settledCount);
+                entryVertices = Arrays.copyOf(entryVertices, capacity);
+                entryTargets = Arrays.copyOf(entryTargets, capacity);
+                entryWeights = Arrays.copyOf(entryWeights, capacity);
+            }
+            for (int i = 0; i < settledCount; i++) {
+                int vertex = settledVertices[i];
+                entryVertices[entryCount] = vertex;
+                entryTargets[entryCount] = j;
+                entryWeights[entryCount++] = distances[FORWARD][vertex];
+            }
+        }
+        int[] bucketStarts = new int[graphIndex.getVertexCount() + 1];
+        for (int i = 0; i < entryCount; i++) {
+            bucketStarts[entryVertices[i] + 1]++;
+        }
+        for (int v = 0; v < graphIndex.getVertexCount(); v++) {
+            bucketStarts[v + 1] += bucketStarts[v];
+        }
+        int[] bucketTargets = new int[entryCount];
+        double[] bucketWeights = new double[entryCount];
+        int[] fill = Arrays.copyOf(bucketStarts, graphIndex.getVertexCount());
+        for (int i = 0; i < entryCount; i++) {
+            int k = fill[entryVertices[i]]++;
+            bucketTargets[k] = entryTargets[i];
+            bucketWeights[k] = entryWeights[i];
+        }
+
+        // Search upwards from every source, meeting each target in the buckets of vertices reached
+        DistanceTable table = new DistanceTable(sources.length, targets.length);
+        double[] row = new double[targets.length];
+        for (int i = 0; i < sources.length; i++) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+            int settledCount = upwardSearch(sources[i]);
+            for (int s = 0; s < settledCount; s++) {
+                int vertex = settledVertices[s];
+                double weight = distances[FORWARD][vertex];
+                for (int k = bucketStarts[vertex]; k < bucketStarts[vertex + 1]; k++) {
+                    row[bucketTargets[k]] = Math.min(row[bucketTargets[k]], weight + bucketWeights[k]);
+                }
+            }
+            for (int j = 0; j < targets.length; j++) {
+                table.set(i, j, row[j]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Searches upwards from a vertex until every vertex above it is settled
+     * @param start - ordinal of starting vertex
+     * @return number of vertices settled, listed in settledVertices[0, count)
+     */
+    private int upwardSearch(int start) {
+        lastStart = -1;
+        lastEnd = -1;
+        nextStamp();
+        meetingVertex = -1;
+        meetingDistance = Double.POSITIVE_INFINITY;
+        heapSizes[FORWARD] = 0;
+        reach(FORWARD, start, 0.0, -1);
+
+        int settledCount = 0;
+        while (heapSizes[FORWARD] > 0) {
+            int vertex = settleNext(FORWARD);
+            if (vertex < 0) continue;
+            if (settledCount == settledVertices.length) {
+                settledVertices = Arrays.copyOf(settledVertices, 2 * settledCount);
+            }
+            settledVertices[settledCount++] = vertex;
+        }
+        return settledCount;
+    }
+
+    @Override
+    public double getPathWeight(String startId, String endId) {
+        return getPathWeight(graphIndex.getOrdinal(startId), graphIndex.getOrdinal(endId));
+    }
+
+    @Override
+    public GraphPath<String, IdentifiedWeightedEdge> getPath(String startId, String endId) {
+        int start = graphIndex.getOrdinal(startId);
+        int[] pathEdges = getPathEdges(start, graphIndex.getOrdinal(endId));
+        return (pathEdges == null) ? null : graphIndex.toGraphPath(start, pathEdges);
+    }
+}
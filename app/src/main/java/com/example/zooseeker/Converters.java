@@ -0,0 +1,28 @@
+package com.example.zooseeker;
+
+import androidx.room.TypeConverter;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Room type converters for the locations database, storing lists of strings as json arrays so
+ *  strings may contain any character
+ */
+public class Converters {
+    private static final Gson GSON = new Gson();
+    private static final Type STRING_LIST_TYPE = new TypeToken<List<String>>(){}.getType();
+
+    @TypeConverter
+    public static String fromStringList(List<String> strings) {
+        return GSON.toJson(strings);
+    }
+
+    @TypeConverter
+    public static List<String> toStringList(String json) {
+        return GSON.fromJson(json, STRING_LIST_TYPE);
+    }
+}
@@ -3,24 +3,18 @@ package com.example.zooseeker;
 import android.content.Context;
 
 import org.jgrapht.Graph;
-import org.json.JSONException;
-import org.json.JSONObject;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Map;
 
 /**
  * This class implements a DataFilesReader object which handles reading a json file,
  *  containing a list of json files for graph attributes.
- *  Contains methods to return objects representing Graphs, and edge/vertex mappings to info
+ *  Contains methods to return objects representing Graphs, and edge/vertex mappings to info.
+ *  Files are parsed once per process into a shared ZooModel, so readers are cheap to create.
  */
 public class DataFilesReader {
     private Context parentContext;
-    private JSONObject zooGraphFiles;
-    private String graph_file_path;
-    private String node_info_path;
-    private String edge_info_path;
+    private String dataFilesList;
 
     /**
      * Ctor for a reader object which handles reading graph data
@@ -28,40 +22,19 @@ public class DataFilesReader {
      * @param jsonListFile - filename of json path list in Assets folder
      */
     public DataFilesReader (Context context, String jsonListFile) {
-        try {
-            // Creates input stream from file with json asset paths, using args
-            parentContext = context;
-            InputStream is = parentContext.getAssets().open(jsonListFile);
+        this.parentContext = context;
+        this.dataFilesList = jsonListFile;
 
-            // Create JSONObject containing file paths of graph assets
-            this.zooGraphFiles = inputStreamToJSONObject(is);
-
-            // Set individual file paths
-            this.graph_file_path = zooGraphFiles.getString("graph_file");
-            this.node_info_path = zooGraphFiles.getString("vertex_file");
-            this.edge_info_path = zooGraphFiles.getString("edge_file");
-
-        } catch (IOException | JSONException e) {
-            e.printStackTrace();
-        }
+        // Start parsing in the background, if no other reader has already
+        ZooModel.load(context, jsonListFile);
     }
 
     /**
-     * Returns a JSONObject given an input stream of a json file
-     * @param is - input stream representing json file
-     * @return JSONObject of file
+     * Returns the shared model of the zoo, waiting for it to finish loading if needed
+     * @return ZooModel for this reader's json files
      */
-    private static JSONObject inputStreamToJSONObject(InputStream is) {
-        // Read stream by bytes into a string, and return a JSONObject read from that string
-        try {
-            byte[] bytes = new byte[is.available()];
-            is.read(bytes, 0, bytes.length);
-            String json = new String(bytes);
-            JSONObject jObject = new JSONObject(json);
-            return jObject;
-        } catch (IOException | JSONException e) {
-            return null;
-        }
+    public ZooModel getModel() {
+        return ZooModel.get(parentContext, dataFilesList);
     }
 
     /**
@@ -69,7 +42,7 @@ public class DataFilesReader {
      * @return Graph containing vertex and edge information
      */
     public Graph<String, IdentifiedWeightedEdge> getGraph() {
-        return ZooData.loadZooGraphJSON(parentContext, graph_file_path);
+        return getModel().getGraph();
     }
 
     /**
@@ -77,7 +50,7 @@ public class DataFilesReader {
      * @return Mapping from String vertices to info about those vertices
      */
     public Map<String, ZooData.VertexInfo> getVertexInfo () {
-        return ZooData.loadVertexInfoJSON(parentContext, node_info_path);
+        return getModel().getVertexInfo();
     }
 
     /**
@@ -85,7 +58,31 @@ public class DataFilesReader {
      * @return Mapping from String edges to info about those edges
      */
     public Map<String, ZooData.EdgeInfo> getEdgeInfo () {
-        return ZooData.loadEdgeInfoJSON(parentContext, edge_info_path);
+        return getModel().getEdgeInfo();
+    }
+
+    /**
+     * Returns int-numbered index over the zoo's graph
+     * @return ZooGraphIndex shared by all routes on this graph
+     */
+    public ZooGraphIndex getGraphIndex() {
+        return getModel().getGraphIndex();
+    }
+
+    /**
+     * Returns shortest-path oracle over the zoo's graph
+     * @return DistanceOracle shared by all routes on this graph
+     */
+    public DistanceOracle getDistanceOracle() {
+        return getModel().getDistanceOracle();
+    }
+
+    /**
+     * Returns spatial index over the zoo's locations
+     * @return SpatialIndex for nearest-location lookups
+     */
+    public SpatialIndex getSpatialIndex() {
+        return getModel().getSpatialIndex();
     }
 
     /**
@@ -94,12 +91,6 @@ public class DataFilesReader {
      * @return id of zoo gate
      */
     public String getGateId() {
-        Map<String, ZooData.VertexInfo> vertexInfo = this.getVertexInfo();
-        for (String location : vertexInfo.keySet()) {
-            if (vertexInfo.get(location).kind.equals(ZooData.VertexInfo.Kind.GATE)) {
-                return vertexInfo.get(location).id;
-            }
-        }
-        return null;
+        return getModel().getGateId();
     }
 }
@@ -0,0 +1,95 @@
+package com.example.zooseeker;
+
+import android.util.Log;
+
+import org.jgrapht.GraphPath;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Distance oracle which answers from a cheap oracle (e.g. A*) while a faster one that takes long
+ *  to precompute (e.g. a contraction hierarchy) is built in the background, then switches over
+ *  once it is done. Both oracles must be exact and share the same graph index, so answers only
+ *  get faster. If the build fails, the cheap oracle keeps answering.
+ */
+public class DeferredDistanceOracle implements DistanceOracle {
+    private final Future<? extends DistanceOracle> pending;
+    private volatile DistanceOracle oracle;
+    private volatile boolean settled = false; // Pending oracle done, built or failed
+    private volatile boolean ready = false;
+
+    /**
+     * Ctor for the oracle
+     * @param fallback - oracle answering until the pending one is built
+     * @param pending - oracle being built, over the fallback's graph index
+     */
+    public DeferredDistanceOracle(DistanceOracle fallback, Future<? extends DistanceOracle> pending) {
+        this.oracle = fallback;
+        this.pending = pending;
+    }
+
+    /**
+     * Returns whether queries are answered by the pending oracle yet
+     * @return true once the pending oracle is built
+     */
+    public boolean isReady() {
+        current();
+        return ready;
+    }
+
+    /**
+     * Returns the oracle to answer with, switching to the pending one if it has been built
+     * @return current oracle
+     */
+    private DistanceOracle current() {
+        if (!settled && pending.isDone()) {
+            try {
+                oracle = pending.get();
+                ready = true;
+            } catch (ExecutionException e) {
+                Log.e("ZooSeeker", "Could not build distance oracle, keeping fallback", e.getCause());
+            } catch (InterruptedException | CancellationException e) {
+                Log.e("ZooSeeker", "Distance oracle build cancelled, keeping fallback", e);
+            }
+            settled = true;
+        }
+        return oracle;
+    }
+
+    @Override
+    public double getPathWeight(String startId, String endId) {
+        return current().getPathWeight(startId, endId);
+    }
+
+    @Override
+    public GraphPath<String, IdentifiedWeightedEdge> getPath(String startId, String endId) {
+        return current().getPath(startId, endId);
+    }
+
+    @Override
+    public ZooGraphIndex getGraphIndex() {
+        return current().getGraphIndex();
+    }
+
+    @Override
+    public double getPathWeight(int start, int end) {
+        return current().getPathWeight(start, end);
+    }
+
+    @Override
+    public int[] getPathEdges(int start, int end) {
+        return current().getPathEdges(start, end);
+    }
+
+    @Override
+    public void getPathWeights(int start, double[] weights) {
+        current().getPathWeights(start, weights);
+    }
+
+    @Override
+    public DistanceTable getDistanceTable(int[] sources, int[] targets) {
+        return current().getDistanceTable(sources, targets);
+    }
+}
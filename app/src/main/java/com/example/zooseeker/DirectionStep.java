@@ -0,0 +1,120 @@
+package com.example.zooseeker;
+
+import org.jgrapht.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One step of directions: walking a distance along a street towards a location. Steps are kept
+ *  structured, so they can be rendered as text (see DirectionsRenderer) or in any other format
+ */
+public class DirectionStep {
+    public final String street; // null if there is no street to walk, i.e. already at the target
+    public final double distance;
+    public final String targetId;
+    public final String targetName;
+    public final ZooData.VertexInfo.Kind targetKind;
+    public final boolean continuing; // true if on the same street as the step before
+
+    /**
+     * Ctor for a direction step
+     * @param street - name of street to walk, null if already at the target
+     * @param distance - distance to walk
+     * @param targetId - id of location walked towards
+     * @param targetName - name of location walked towards
+     * @param targetKind - kind of location walked towards
+     * @param continuing - true if on the same street as the step before
+     */
+    public DirectionStep(String street, double distance, String targetId, String targetName,
+                         ZooData.VertexInfo.Kind targetKind, boolean continuing) {
+        this.street = street;
+        this.distance = distance;
+        this.targetId = targetId;
+        this.targetName = targetName;
+        this.targetKind = targetKind;
+        this.continuing = continuing;
+    }
+
+    /**
+     * Turns a path into steps, one per edge. Walks the path on ordinals, only looking up names
+     *  for the steps themselves
+     * @param graphIndex - index of graph the path is on
+     * @param start - ordinal of vertex the path is walked from
+     * @param pathEdges - edge ordinals of the path, in travel order
+     * @return steps along the path, empty if the path has no edges
+     */
+    public static ArrayList<DirectionStep> fromPath(ZooGraphIndex graphIndex, int start, int[] pathEdges) {
+        ArrayList<DirectionStep> steps = new ArrayList<>(pathEdges.length);
+        int currLocation = start;
+        int prevStreet = -1;
+        for (int e : pathEdges) {
+            int nextLocation = graphIndex.getOtherEndpoint(e, currLocation);
+            int street = graphIndex.getEdgeStreet(e);
+            steps.add(new DirectionStep(graphIndex.getStreetName(street), graphIndex.getEdgeWeight(e),
+                    graphIndex.getVertexId(nextLocation), graphIndex.getVertexName(nextLocation),
+                    graphIndex.getVertexKind(nextLocation), street >= 0 && street == prevStreet));
+            currLocation = nextLocation;
+            prevStreet = street;
+        }
+        return steps;
+    }
+
+    /**
+     * Turns an edge into a step
+     * @param e - edge walked
+     * @param nextLocationId - destination vertex of edge e
+     * @param prevStreet - street of previous step, null if none
+     * @param zooGraph - graph the edge is in
+     * @param vertexInfo - mapping from vertex ids to vertex info
+     * @param edgeInfo - mapping from edge ids to edge info
+     * @return step walking the edge
+     */
+    public static DirectionStep fromEdge(IdentifiedWeightedEdge e, String nextLocationId, String prevStreet,
+                                         Graph<String, IdentifiedWeightedEdge> zooGraph,
+                                         Map<String, ZooData.VertexInfo> vertexInfo,
+                                         Map<String, ZooData.EdgeInfo> edgeInfo) {
+        String street = edgeInfo.get(e.getId()).street;
+        ZooData.VertexInfo target = vertexInfo.get(nextLocationId);
+        return new DirectionStep(street, zooGraph.getEdgeWeight(e), nextLocationId, target.name,
+                target.kind, street.equals(prevStreet));
+    }
+
+    /**
+     * Merges consecutive steps along the same street, for brief directions
+     * @param steps - steps to merge
+     * @return one step per run of steps on the same street, towards the end of the run
+     */
+    public static ArrayList<DirectionStep> mergeStreets(List<DirectionStep> steps) {
+        ArrayList<DirectionStep> merged = new ArrayList<>();
+        int runStart = 0;
+        while (runStart < steps.size()) {
+            String street = steps.get(runStart).street;
+            double distance = steps.get(runStart).distance;
+            int runEnd = runStart + 1;
+            while (runEnd < steps.size() && steps.get(runEnd).street.equals(street)) {
+                distance += steps.get(runEnd).distance;
+                runEnd++;
+            }
+
+            // Brief directions name the location where the street is left
+            DirectionStep last = steps.get(runEnd - 1);
+            merged.add(new DirectionStep(street, distance, last.targetId, last.targetName, last.targetKind, false));
+            runStart = runEnd;
+        }
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return "DirectionStep{" +
+                "street=" + street +
+                ", distance=" + distance +
+                ", targetId=" + targetId +
+                ", targetName=" + targetName +
+                ", targetKind=" + targetKind +
+                ", continuing=" + continuing +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.zooseeker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used cache of generated directions, keyed by start location,
+ *  destination and style (brief or detailed). Directions only depend on the zoo graph and its
+ *  vertex and edge info, so one cache belongs to each ZooModel and a model built from changed
+ *  data starts empty. Cached lists are immutable and shared between routes.
+ */
+public class DirectionsCache {
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+
+    private final Map<String, List<String>> entries;
+
+    /**
+     * Ctor for an empty cache holding up to DEFAULT_MAX_ENTRIES direction lists
+     */
+    public DirectionsCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Ctor for an empty cache
+     * @param maxEntries - number of direction lists kept, the least recently used are dropped
+     */
+    public DirectionsCache(int maxEntries) {
+        this.entries = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private static String key(String startId, String endId, boolean brief) {
+        return (brief ? "B\n" : "D\n") + startId + "\n" + endId;
+    }
+
+    /**
+     * Looks up directions, marking them as recently used
+     * @param startId - starting location id
+     * @param endId - ending location id
+     * @param brief - true for brief directions, false for detailed
+     * @return immutable list of directions, null if not cached
+     */
+    public synchronized List<String> get(String startId, String endId, boolean brief) {
+        return entries.get(key(startId, endId, brief));
+    }
+
+    /**
+     * Caches directions, dropping the least recently used if full
+     * @param startId - starting location id
+     * @param endId - ending location id
+     * @param brief - true for brief directions, false for detailed
+     * @param directions - directions to cache, copied
+     * @return immutable copy of directions, as cached
+     */
+    public synchronized List<String> put(String startId, String endId, boolean brief, List<String> directions) {
+        List<String> cached = Collections.unmodifiableList(new ArrayList<>(directions));
+        entries.put(key(startId, endId, brief), cached);
+        return cached;
+    }
+
+    /**
+     * Drops every cached direction list, e.g. if the zoo data they were generated from changed
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
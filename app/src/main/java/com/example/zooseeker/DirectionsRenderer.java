@@ -0,0 +1,196 @@
+package com.example.zooseeker;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders direction steps as text through templates, appending into one reused StringBuilder
+ *  rather than concatenating strings. Templates are parsed once into literal text and
+ *  placeholders:
+ *   {street}    street walked
+ *   {distance}  distance walked, as a decimal
+ *   {whole}     distance walked, truncated to a whole number
+ *   {target}    name of the location walked towards
+ *   {exhibit}   EXHIBIT_SUFFIX if the location walked towards is an exhibit, else nothing
+ *  Distances are multiplied by a scale (e.g. to convert feet to meters, with the unit changed in
+ *  the templates), and formatted for a locale if one is given.
+ */
+public class DirectionsRenderer {
+    public static final String EXHIBIT_SUFFIX = " Exhibit";
+
+    // Default templates, in feet
+    public static final String PROCEED_TEMPLATE = "Proceed on {street} {whole} ft towards {target}{exhibit}";
+    public static final String CONTINUE_TEMPLATE = "Continue on {street} {whole} ft towards {target}{exhibit}";
+    public static final String BRIEF_TEMPLATE = "Proceed on {street} {distance} ft towards {target}";
+    public static final String ARRIVED_TEMPLATE = " {distance} ft towards {target}";
+
+    private static final String[] PLACEHOLDERS = {"{street}", "{distance}", "{whole}", "{target}", "{exhibit}"};
+    private static final int STREET = 0;
+    private static final int DISTANCE = 1;
+    private static final int WHOLE = 2;
+    private static final int TARGET = 3;
+    private static final int EXHIBIT = 4;
+
+    private final Template proceedTemplate;
+    private final Template continueTemplate;
+    private final Template briefTemplate;
+    private final Template arrivedTemplate;
+    private final double distanceScale;
+    private final NumberFormat decimalFormat;
+    private final NumberFormat wholeFormat;
+
+    private final StringBuilder builder = new StringBuilder(128);
+
+    /**
+     * Ctor for a renderer with the default templates, in feet, with distances formatted as Java
+     *  does regardless of locale
+     */
+    public DirectionsRenderer() {
+        this(PROCEED_TEMPLATE, CONTINUE_TEMPLATE, BRIEF_TEMPLATE, ARRIVED_TEMPLATE, 1.0, null);
+    }
+
+    /**
+     * Ctor for a renderer with custom templates
+     * @param proceedTemplate - detailed step starting on a new street
+     * @param continueTemplate - detailed step on the same street as the one before
+     * @param briefTemplate - brief step, covering a whole street
+     * @param arrivedTemplate - step with no street to walk, as the target has been reached
+     * @param distanceScale - factor converting graph distances (feet) to the templates' unit
+     * @param locale - locale to format distances for, null to format as Java does by default
+     */
+    public DirectionsRenderer(String proceedTemplate, String continueTemplate, String briefTemplate,
+                              String arrivedTemplate, double distanceScale, Locale locale) {
+        this.proceedTemplate = new Template(proceedTemplate);
+        this.continueTemplate = new Template(continueTemplate);
+        this.briefTemplate = new Template(briefTemplate);
+        this.arrivedTemplate = new Template(arrivedTemplate);
+        this.distanceScale = distanceScale;
+        if (locale == null) {
+            this.decimalFormat = null;
+            this.wholeFormat = null;
+        } else {
+            this.decimalFormat = NumberFormat.getNumberInstance(locale);
+            this.decimalFormat.setMinimumFractionDigits(1);
+            this.decimalFormat.setMaximumFractionDigits(1);
+            this.wholeFormat = NumberFormat.getIntegerInstance(locale);
+        }
+    }
+
+    /**
+     * Renders a step
+     * @param step - step to render
+     * @param brief - true to render as a brief step, false as a detailed one
+     * @return text of step
+     */
+    public synchronized String render(DirectionStep step, boolean brief) {
+        builder.setLength(0);
+        Template template;
+        if (step.street == null) {
+            template = arrivedTemplate;
+        } else if (brief) {
+            template = briefTemplate;
+        } else {
+            template = step.continuing ? continueTemplate : proceedTemplate;
+        }
+        template.appendTo(builder, step);
+        return builder.toString();
+    }
+
+    /**
+     * Renders steps, one string each
+     * @param steps - steps to render
+     * @param brief - true to render as brief steps, false as detailed ones
+     * @return text of steps, in order
+     */
+    public ArrayList<String> renderAll(List<DirectionStep> steps, boolean brief) {
+        ArrayList<String> directions = new ArrayList<>(steps.size());
+        for (DirectionStep step : steps) {
+            directions.add(render(step, brief));
+        }
+        return directions;
+    }
+
+    /**
+     * Joins rendered directions into one text, each followed by a separator
+     * @param directions - directions to join
+     * @param separator - text following each direction
+     * @return joined directions
+     */
+    public static String condense(List<String> directions, String separator) {
+        int length = 0;
+        for (String direction : directions) {
+            length += direction.length() + separator.length();
+        }
+        StringBuilder condensed = new StringBuilder(length);
+        for (String direction : directions) {
+            condensed.append(direction).append(separator);
+        }
+        return condensed.toString();
+    }
+
+    /**
+     * Template parsed into alternating literal text and placeholders
+     */
+    private class Template {
+        private final String[] literals; // literals[i] comes before placeholders[i]
+        private final int[] placeholders;
+
+        Template(String template) {
+            List<String> literalList = new ArrayList<>();
+            List<Integer> placeholderList = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                // Find the next placeholder
+                int next = -1;
+                int placeholder = -1;
+                for (int i = 0; i < PLACEHOLDERS.length; i++) {
+                    int index = template.indexOf(PLACEHOLDERS[i], position);
+                    if (index >= 0 && (next < 0 || index < next)) {
+                        next = index;
+                        placeholder = i;
+                    }
+                }
+                if (next < 0) break;
+                literalList.add(template.substring(position, next));
+                placeholderList.add(placeholder);
+                position = next + PLACEHOLDERS[placeholder].length();
+            }
+            literalList.add(template.substring(position));
+
+            this.literals = literalList.toArray(new String[0]);
+            this.placeholders = new int[placeholderList.size()];
+            for (int i = 0; i < placeholders.length; i++) {
+                placeholders[i] = placeholderList.get(i);
+            }
+        }
+
+        void appendTo(StringBuilder builder, DirectionStep step) {
+            double distance = step.distance * distanceScale;
+            for (int i = 0; i < placeholders.length; i++) {
+                builder.append(literals[i]);
+                switch (placeholders[i]) {
+                    case STREET:
+                        builder.append(step.street);
+                        break;
+                    case DISTANCE:
+                        if (decimalFormat == null) builder.append(distance);
+                        else builder.append(decimalFormat.format(distance));
+                        break;
+                    case WHOLE:
+                        if (wholeFormat == null) builder.append((int) distance);
+                        else builder.append(wholeFormat.format((long) distance));
+                        break;
+                    case TARGET:
+                        builder.append(step.targetName);
+                        break;
+                    case EXHIBIT:
+                        if (step.targetKind == ZooData.VertexInfo.Kind.EXHIBIT) builder.append(EXHIBIT_SUFFIX);
+                        break;
+                }
+            }
+            builder.append(literals[literals.length - 1]);
+        }
+    }
+}
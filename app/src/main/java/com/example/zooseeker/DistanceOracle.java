@@ -0,0 +1,77 @@
+package com.example.zooseeker;
+
+import org.jgrapht.GraphPath;
+
+/**
+ * Answers shortest-path queries between locations of the zoo graph.
+ *  Implementations may precompute as much as they like, but queries are expected to be cheap
+ *  enough to be called on every route planning step and every GPS update
+ */
+public interface DistanceOracle {
+    /**
+     * Returns the weight of the shortest path between two vertices
+     * @param startId - id of starting vertex
+     * @param endId - id of destination vertex
+     * @return path weight, or Double.POSITIVE_INFINITY if endId is unreachable
+     */
+    double getPathWeight(String startId, String endId);
+
+    /**
+     * Returns the shortest path between two vertices
+     * @param startId - id of starting vertex
+     * @param endId - id of destination vertex
+     * @return GraphPath from startId to endId, or null if endId is unreachable
+     */
+    GraphPath<String, IdentifiedWeightedEdge> getPath(String startId, String endId);
+
+    /**
+     * Returns the graph index whose vertex and edge ordinals the int queries use
+     * @return graph index
+     */
+    ZooGraphIndex getGraphIndex();
+
+    /**
+     * Returns the weight of the shortest path between two vertex ordinals
+     * @param start - ordinal of starting vertex
+     * @param end - ordinal of destination vertex
+     * @return path weight, or Double.POSITIVE_INFINITY if end is unreachable
+     */
+    double getPathWeight(int start, int end);
+
+    /**
+     * Returns the edges of the shortest path between two vertex ordinals
+     * @param start - ordinal of starting vertex
+     * @param end - ordinal of destination vertex
+     * @return edge ordinals in travel order (empty if start == end), or null if end is unreachable
+     */
+    int[] getPathEdges(int start, int end);
+
+    /**
+     * Fills in the weights of the shortest paths from one vertex ordinal to every vertex, as
+     *  needed when many paths share a start (the graph is undirected, so also to that vertex)
+     * @param start - ordinal of starting vertex
+     * @param weights - array of the graph index's vertex count, filled in by vertex ordinal with
+     *  path weights (Double.POSITIVE_INFINITY if unreachable)
+     */
+    void getPathWeights(int start, double[] weights);
+
+    /**
+     * Returns the weights of the shortest paths from each of a set of vertex ordinals to each of
+     *  another, as needed to plan or measure a route. By default runs one getPathWeights search
+     *  per source, implementations may do better
+     * @param sources - ordinals of source vertices, one per table row
+     * @param targets - ordinals of target vertices, one per table column
+     * @return table of path weights (Double.POSITIVE_INFINITY if unreachable)
+     */
+    default DistanceTable getDistanceTable(int[] sources, int[] targets) {
+        DistanceTable table = new DistanceTable(sources.length, targets.length);
+        double[] weights = new double[getGraphIndex().getVertexCount()];
+        for (int i = 0; i < sources.length; i++) {
+            getPathWeights(sources[i], weights);
+            for (int j = 0; j < targets.length; j++) {
+                table.set(i, j, weights[targets[j]]);
+            }
+        }
+        return table;
+    }
+}
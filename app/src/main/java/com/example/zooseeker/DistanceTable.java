@@ -0,0 +1,56 @@
+package com.example.zooseeker;
+
+/**
+ * Dense matrix of path weights between a list of source locations and a list of target
+ *  locations, stored row-major in a primitive array
+ */
+public class DistanceTable {
+    private final int rowCount;
+    private final int columnCount;
+    private final double[] distances;
+
+    /**
+     * Ctor for an empty table, with every entry 0
+     * @param rowCount - number of source locations
+     * @param columnCount - number of target locations
+     */
+    public DistanceTable(int rowCount, int columnCount) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.distances = new double[rowCount * columnCount];
+    }
+
+    /**
+     * Copy ctor, for a table which can be edited independently of the original
+     * @param other - table to copy
+     */
+    public DistanceTable(DistanceTable other) {
+        this.rowCount = other.rowCount;
+        this.columnCount = other.columnCount;
+        this.distances = other.distances.clone();
+    }
+
+    // Getters
+    public int getRowCount() {return rowCount;}
+    public int getColumnCount() {return columnCount;}
+
+    /**
+     * Returns path weight from a source to a target
+     * @param row - index of source
+     * @param column - index of target
+     * @return path weight
+     */
+    public double get(int row, int column) {
+        return distances[row * columnCount + column];
+    }
+
+    /**
+     * Sets path weight from a source to a target
+     * @param row - index of source
+     * @param column - index of target
+     * @param distance - path weight
+     */
+    public void set(int row, int column, double distance) {
+        distances[row * columnCount + column] = distance;
+    }
+}
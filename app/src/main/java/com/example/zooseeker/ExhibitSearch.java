@@ -0,0 +1,374 @@
+package com.example.zooseeker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search over exhibits by name and tag, kept free of Android views so it can be tested and
+ *  benchmarked on its own. An exhibit matches if its name or any of its tags contains the query,
+ *  ignoring case.
+ *
+ * Names and tags are lowercased once into a dictionary of distinct terms, and every 1, 2 and 3
+ *  character substring (gram) of every term is indexed. Queries of up to 3 characters are a single
+ *  lookup; longer queries intersect the lists of their trigrams and check the few terms left, so
+ *  the cost of a keystroke depends on how many terms match rather than on the catalog size.
+ *
+ * While typing, each query usually extends the previous one ("ele", "elep", "eleph"), and every
+ *  term containing the new query contains the old one, so only the previous query's matching
+ *  terms need checking. The index is only used again after deletions or edits (or for queries
+ *  short enough to be a single gram lookup).
+ *
+ * Misspelled queries ("gorila") contain no term, so exhibits are also matched by edit distance.
+ *  Every term and every word of a term is a key in a BK-tree, which only compares the query
+ *  against the few keys that can be within the allowed distance of it; those matches are ranked
+ *  after all substring matches.
+ */
+public class ExhibitSearch {
+    private static final int MAX_GRAM_LENGTH = 3;
+    private static final int TERMS_PER_CANCEL_CHECK = 256;
+
+    // Match ranks, best first
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_WORD_PREFIX = 2;
+    private static final int RANK_SUBSTRING = 3;
+    private static final int RANK_FUZZY = 4; // Plus the edit distance
+
+    // Typo tolerance: queries need this many characters to be matched by edit distance, and may
+    // be off by one edit, or two once they reach LONG_FUZZY_QUERY_LENGTH
+    private static final int MIN_FUZZY_QUERY_LENGTH = 4;
+    private static final int LONG_FUZZY_QUERY_LENGTH = 8;
+    private static final int MAX_POSITION = 0xFFFF;
+
+    private final Exhibit[] exhibits;
+    private final String[] terms;
+    private final int[][] termExhibits;
+    private final Map<String, int[]> gramTerms = new HashMap<>();
+    private final int[] allTerms;
+
+    // Fuzzy keys (terms and their words), each with its exhibits and the position of the key's
+    // word in the exhibit's name/tag
+    private final BkTree fuzzyKeys;
+    private final int[][] keyExhibits;
+    private final int[][] keyPositions;
+
+    // Scratch space for ranking, reused by every search
+    private final int[] exhibitRanks;
+    private final int[] matchedExhibits;
+    private final int[] matchedTerms;
+    private final int[] fuzzyHitKeys;
+    private final int[] fuzzyHitDistances;
+    private int fuzzyHitCount;
+    private final BkTree.Visitor fuzzyVisitor = this::addFuzzyHit;
+
+    // Latest completed query and the terms containing it, narrowed by queries extending it
+    private String lastQuery;
+    private int[] lastMatchedTerms;
+
+    // Latest query typed, searches for other queries give up once it changes
+    private volatile String latestQuery;
+
+    /**
+     * Ctor for a search over a list of exhibits, building the index
+     * @param exhibits - List of exhibits to use as search domain
+     */
+    public ExhibitSearch(List<Exhibit> exhibits) {
+        this.exhibits = exhibits.toArray(new Exhibit[0]);
+
+        // Distinct lowercased terms, each with the exhibits having it (in search domain order)
+        Map<String, Integer> termIds = new LinkedHashMap<>();
+        List<IntList> termExhibitLists = new ArrayList<>();
+        for (int exhibit = 0; exhibit < this.exhibits.length; exhibit++) {
+            List<String> exhibitTerms = new ArrayList<>();
+            if (this.exhibits[exhibit].tags != null) exhibitTerms.addAll(this.exhibits[exhibit].tags);
+            exhibitTerms.add(this.exhibits[exhibit].name);
+            for (String term : exhibitTerms) {
+                if (term == null) continue;
+                term = term.toLowerCase();
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    termId = termIds.size();
+                    termIds.put(term, termId);
+                    termExhibitLists.add(new IntList());
+                }
+                termExhibitLists.get(termId).addIfNotLast(exhibit);
+            }
+        }
+        this.terms = termIds.keySet().toArray(new String[0]);
+        this.termExhibits = new int[terms.length][];
+        for (int termId = 0; termId < terms.length; termId++) {
+            termExhibits[termId] = termExhibitLists.get(termId).toArray();
+        }
+
+        // Terms containing each gram, in increasing term id order
+        Map<String, IntList> gramTermLists = new HashMap<>();
+        for (int termId = 0; termId < terms.length; termId++) {
+            String term = terms[termId];
+            for (int length = 1; length <= MAX_GRAM_LENGTH; length++) {
+                for (int start = 0; start + length <= term.length(); start++) {
+                    String gram = term.substring(start, start + length);
+                    IntList gramList = gramTermLists.get(gram);
+                    if (gramList == null) {
+                        gramList = new IntList();
+                        gramTermLists.put(gram, gramList);
+                    }
+                    gramList.addIfNotLast(termId);
+                }
+            }
+        }
+        for (Map.Entry<String, IntList> entry : gramTermLists.entrySet()) {
+            gramTerms.put(entry.getKey(), entry.getValue().toArray());
+        }
+
+        // Fuzzy keys, with the exhibits having them and the word position of the key in the term
+        Map<String, Integer> keyIds = new LinkedHashMap<>();
+        List<IntList> keyExhibitLists = new ArrayList<>();
+        List<IntList> keyPositionLists = new ArrayList<>();
+        for (int termId = 0; termId < terms.length; termId++) {
+            String[] words = terms[termId].split("[^\\p{L}\\p{N}]+");
+            List<String> keys = new ArrayList<>();
+            keys.add(terms[termId]);
+            if (words.length > 1) keys.addAll(Arrays.asList(words));
+            for (int i = 0; i < keys.size(); i++) {
+                String key = keys.get(i);
+                if (key.isEmpty()) continue;
+                int position = Math.min(Math.max(0, i - 1), MAX_POSITION); // Whole term is at word 0
+                Integer keyId = keyIds.get(key);
+                if (keyId == null) {
+                    keyId = keyIds.size();
+                    keyIds.put(key, keyId);
+                    keyExhibitLists.add(new IntList());
+                    keyPositionLists.add(new IntList());
+                }
+                for (int exhibit : termExhibits[termId]) {
+                    keyExhibitLists.get(keyId).add(exhibit);
+                    keyPositionLists.get(keyId).add(position);
+                }
+            }
+        }
+        this.fuzzyKeys = new BkTree(keyIds.keySet().toArray(new String[0]));
+        this.keyExhibits = new int[keyIds.size()][];
+        this.keyPositions = new int[keyIds.size()][];
+        for (int keyId = 0; keyId < keyIds.size(); keyId++) {
+            keyExhibits[keyId] = keyExhibitLists.get(keyId).toArray();
+            keyPositions[keyId] = keyPositionLists.get(keyId).toArray();
+        }
+
+        this.allTerms = new int[terms.length];
+        for (int termId = 0; termId < terms.length; termId++) {
+            allTerms[termId] = termId;
+        }
+        this.exhibitRanks = new int[this.exhibits.length];
+        Arrays.fill(exhibitRanks, Integer.MAX_VALUE);
+        this.matchedExhibits = new int[this.exhibits.length];
+        this.matchedTerms = new int[terms.length];
+        this.fuzzyHitKeys = new int[keyIds.size()];
+        this.fuzzyHitDistances = new int[keyIds.size()];
+    }
+
+    /**
+     * Notes the query the user has just typed, so that searches still running for earlier queries
+     *  are cancelled. Called on the main thread as the text changes, while searches run on a
+     *  background thread
+     * @param query - text typed into the search bar
+     */
+    public void setLatestQuery(CharSequence query) {
+        this.latestQuery = (query == null) ? null : query.toString().toLowerCase();
+    }
+
+    /**
+     * Finds exhibits with a name or tag matching the query, ranked by how well they match: exact
+     *  matches first, then names/tags starting with the query, then ones with a word starting with
+     *  it, then any other match, then misspellings by edit distance. Equal matches are ordered by
+     *  where in the name/tag they matched, then stay in search domain order
+     * @param query - text typed into the search bar
+     * @return matching exhibits, best first, or null if a different query was typed meanwhile
+     */
+    public synchronized ArrayList<Exhibit> search(CharSequence query) {
+        String lowerQuery = query.toString().toLowerCase();
+        String latestAtStart = latestQuery;
+
+        // Narrow the previous query's matches if this query extends it, else use the index.
+        // Queries short enough to be a single gram are always looked up, which is exact
+        boolean extendsLast = lastQuery != null && !lastQuery.isEmpty() && lowerQuery.contains(lastQuery);
+        int[] candidates = (extendsLast && lowerQuery.length() > MAX_GRAM_LENGTH)
+                ? lastMatchedTerms : findCandidateTerms(lowerQuery);
+
+        // Rank each exhibit by its best matching term
+        int matchCount = 0;
+        int matchedTermCount = 0;
+        boolean cancelled = false;
+        for (int i = 0; i < candidates.length; i++) {
+            if (i % TERMS_PER_CANCEL_CHECK == TERMS_PER_CANCEL_CHECK - 1
+                    && isSuperseded(lowerQuery, latestAtStart)) {
+                cancelled = true;
+                break;
+            }
+
+            int termId = candidates[i];
+            int rank = rank(terms[termId], lowerQuery);
+            if (rank < 0) continue;
+            matchedTerms[matchedTermCount++] = termId;
+            for (int exhibit : termExhibits[termId]) {
+                matchCount = addMatch(exhibit, rank, matchCount);
+            }
+        }
+
+        // Rank exhibits with a key close to the query, substring matches keep their better rank
+        String trimmedQuery = lowerQuery.trim();
+        if (!cancelled && trimmedQuery.length() >= MIN_FUZZY_QUERY_LENGTH) {
+            int maxDistance = (trimmedQuery.length() >= LONG_FUZZY_QUERY_LENGTH) ? 2 : 1;
+            fuzzyHitCount = 0;
+            fuzzyKeys.search(trimmedQuery, maxDistance, fuzzyVisitor);
+            for (int i = 0; i < fuzzyHitCount; i++) {
+                int key = fuzzyHitKeys[i];
+                int rank = RANK_FUZZY + fuzzyHitDistances[i];
+                for (int j = 0; j < keyExhibits[key].length; j++) {
+                    matchCount = addMatch(keyExhibits[key][j], (rank << 16) | keyPositions[key][j], matchCount);
+                }
+            }
+        }
+
+        // Order by rank and position, then search domain order (packed into one sort key),
+        // clearing the ranks for the next search
+        long[] keys = new long[matchCount];
+        for (int i = 0; i < matchCount; i++) {
+            int exhibit = matchedExhibits[i];
+            keys[i] = ((long) exhibitRanks[exhibit] << 32) | exhibit;
+            exhibitRanks[exhibit] = Integer.MAX_VALUE;
+        }
+        if (cancelled) return null;
+        Arrays.sort(keys);
+
+        this.lastQuery = lowerQuery;
+        this.lastMatchedTerms = Arrays.copyOf(matchedTerms, matchedTermCount);
+
+        ArrayList<Exhibit> suggestions = new ArrayList<Exhibit>(matchCount);
+        for (long key : keys) {
+            suggestions.add(exhibits[(int) key]);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Collects a key found by the fuzzy search
+     */
+    private void addFuzzyHit(int key, int distance) {
+        fuzzyHitKeys[fuzzyHitCount] = key;
+        fuzzyHitDistances[fuzzyHitCount] = distance;
+        fuzzyHitCount++;
+    }
+
+    /**
+     * Records a match for an exhibit, keeping its best
+     * @param exhibit - ordinal of matched exhibit
+     * @param rank - rank and position of match, as returned by rank()
+     * @param matchCount - number of exhibits matched so far
+     * @return number of exhibits matched including this one
+     */
+    private int addMatch(int exhibit, int rank, int matchCount) {
+        if (exhibitRanks[exhibit] == Integer.MAX_VALUE) {
+            matchedExhibits[matchCount++] = exhibit;
+        }
+        exhibitRanks[exhibit] = Math.min(exhibitRanks[exhibit], rank);
+        return matchCount;
+    }
+
+    /**
+     * Checks whether a query was replaced by a newer one while being searched for
+     * @param lowerQuery - lowercased query being searched for
+     * @param latestAtStart - latest typed query when the search started
+     * @return true if a different query has been typed since the search started
+     */
+    private boolean isSuperseded(String lowerQuery, String latestAtStart) {
+        String latest = latestQuery;
+        return latest != null && !latest.equals(latestAtStart) && !latest.equals(lowerQuery);
+    }
+
+    /**
+     * Finds terms which may contain the query, using the gram index
+     * @param lowerQuery - lowercased query
+     * @return ids of candidate terms, a superset of the terms containing the query
+     */
+    private int[] findCandidateTerms(String lowerQuery) {
+        if (lowerQuery.isEmpty()) return allTerms;
+        if (lowerQuery.length() <= MAX_GRAM_LENGTH) {
+            int[] gramList = gramTerms.get(lowerQuery);
+            return (gramList == null) ? new int[0] : gramList;
+        }
+
+        // Terms containing every trigram of the query, starting from the rarest trigram
+        int[][] trigramLists = new int[lowerQuery.length() - MAX_GRAM_LENGTH + 1][];
+        for (int start = 0; start < trigramLists.length; start++) {
+            trigramLists[start] = gramTerms.get(lowerQuery.substring(start, start + MAX_GRAM_LENGTH));
+            if (trigramLists[start] == null) return new int[0];
+        }
+        Arrays.sort(trigramLists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = trigramLists[0];
+        for (int i = 1; i < trigramLists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, trigramLists[i]);
+        }
+        return candidates;
+    }
+
+    /**
+     * Ranks how well a term matches a query
+     * @return rank of match in the high bits and position of match in the low 16, -1 if the term
+     *  does not contain the query
+     */
+    private static int rank(String term, String lowerQuery) {
+        int position = term.indexOf(lowerQuery);
+        if (position < 0) return -1;
+        if (position == 0) return (term.length() == lowerQuery.length()) ? RANK_EXACT << 16 : RANK_PREFIX << 16;
+        int rank = Character.isLetterOrDigit(term.charAt(position - 1)) ? RANK_SUBSTRING : RANK_WORD_PREFIX;
+        return (rank << 16) | Math.min(position, MAX_POSITION);
+    }
+
+    /**
+     * Intersects two sorted arrays of ids
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Growable list of ints, used while building the indexes
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        // Ids are added in increasing order, so a duplicate can only be the last value
+        void addIfNotLast(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
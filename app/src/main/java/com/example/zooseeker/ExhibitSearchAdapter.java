@@ -18,6 +18,14 @@ import java.util.Locale;
 public class ExhibitSearchAdapter extends ArrayAdapter<Exhibit> {
     private LayoutInflater layoutInflater;
     List<Exhibit> mExhibits;
+    private ExhibitSearch search;
+
+    // Result values marking a filtering which was cancelled for a newer query
+    private static final Object CANCELLED = new Object();
+
+    // Number of suggestions currently shown, reported for cancelled filterings so the dropdown
+    // stays as it is (a count of 0 or less would dismiss it)
+    private volatile int shownCount = 0;
 
     /**
      * Filter object for searching, adds appropriate exhibits to suggestions list
@@ -33,20 +41,13 @@ public class ExhibitSearchAdapter extends ArrayAdapter<Exhibit> {
             FilterResults results = new FilterResults();
 
             if (constraint != null) {
-                ArrayList<Exhibit> suggestions = new ArrayList<Exhibit>();
-
-                // Scans each exhibit in Exhibit search domain list
-                for (Exhibit exhibit : mExhibits) {
-                    // Adds exhibit to suggestions if tags match
-                    for (String tag : exhibit.tags) {
-                        tag = tag.toLowerCase();
-                        if (tag.contains(constraint.toString().toLowerCase())) {
-                            suggestions.add(exhibit);
-                            break;
-                        }
-                    }
+                ArrayList<Exhibit> suggestions = search.search(constraint);
+                if (suggestions == null) {
+                    // Superseded by a newer query, whose results will follow
+                    results.values = CANCELLED;
+                    results.count = shownCount;
+                    return results;
                 }
-
                 results.values = suggestions;
                 results.count = suggestions.size();
             }
@@ -56,11 +57,13 @@ public class ExhibitSearchAdapter extends ArrayAdapter<Exhibit> {
 
         @Override
         protected void publishResults(CharSequence constraint, FilterResults results) {
+            if (results != null && results.values == CANCELLED) return;
             clear();
             if (results != null && results.count > 0) {
                 // we have filtered results
                 addAll((ArrayList<Exhibit>) results.values);
             }
+            shownCount = getCount();
             notifyDataSetChanged();
         }
     };
@@ -76,6 +79,7 @@ public class ExhibitSearchAdapter extends ArrayAdapter<Exhibit> {
         // copy all the customers into a master list
         mExhibits = new ArrayList<Exhibit>(exhibits.size());
         mExhibits.addAll(exhibits);
+        search = new ExhibitSearch(mExhibits);
         layoutInflater = (LayoutInflater) getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
     }
 
@@ -102,6 +106,15 @@ public class ExhibitSearchAdapter extends ArrayAdapter<Exhibit> {
         return view;
     }
 
+    /**
+     * Notifies the adapter that the search text changed, cancelling filtering for older text.
+     *  Must be called on the main thread, e.g. from a TextWatcher on the search bar
+     * @param query - current search text
+     */
+    public void onQueryChanged(CharSequence query) {
+        search.setLatestQuery(query);
+    }
+
     @Override
     public Filter getFilter() {
         return mFilter;
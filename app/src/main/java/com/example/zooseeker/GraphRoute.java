@@ -3,7 +3,6 @@ package com.example.zooseeker;
 import android.content.Context;
 
 import org.jgrapht.*;
-import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
 import org.jgrapht.graph.*;
 
 import java.io.Serializable;
@@ -16,6 +15,8 @@ import java.util.Map;
  * This class represents an exhibit route, plotted using a TSP heuristic
  */
 public class GraphRoute {
+    private static final DirectionsRenderer DIRECTIONS_RENDERER = new DirectionsRenderer();
+
     // Fields for graph properties
     Graph<String, IdentifiedWeightedEdge> zooGraph;
     Map<String, ZooData.VertexInfo> vertexInfo;
@@ -46,6 +47,28 @@ public class GraphRoute {
             Map<String, ZooData.EdgeInfo> edgeInfo,
             ArrayList<String> targets,
             String startVertex) {
+        // Searched once per exhibit, rather than tabling every pair of vertices up front
+        this(zooGraph, vertexInfo, edgeInfo, targets, startVertex, new AStarDistanceOracle(zooGraph));
+    }
+
+    /**
+     * Route constructor over a loaded zoo model, sharing its distance oracle
+     * @param zooModel - parsed zoo data
+     * @param targets - list of exhibits to visit, EXCLUDING startVertex
+     * @param startVertex - starting and ending point
+     */
+    public GraphRoute(ZooModel zooModel, ArrayList<String> targets, String startVertex) {
+        this(zooModel.getGraph(), zooModel.getVertexInfo(), zooModel.getEdgeInfo(), targets, startVertex,
+                zooModel.getDistanceOracle());
+    }
+
+    private GraphRoute(
+            Graph<String, IdentifiedWeightedEdge> zooGraph,
+            Map<String, ZooData.VertexInfo> vertexInfo,
+            Map<String, ZooData.EdgeInfo> edgeInfo,
+            ArrayList<String> targets,
+            String startVertex,
+            DistanceOracle distanceOracle) {
 
         // Set route's graph fields and start vertex
         this.zooGraph = zooGraph;
@@ -56,9 +79,9 @@ public class GraphRoute {
         // Unvisited targets array keeps track of which vertices to find a path to
         ArrayList<String> unvisitedTargets = new ArrayList<String>(targets);
 
-        // Create DSP object to compute path costs
-        DijkstraShortestPath<String, IdentifiedWeightedEdge> dijkstraShortestPath
-                = new DijkstraShortestPath<String, IdentifiedWeightedEdge>(zooGraph);
+        // Distances from the current vertex to every vertex, one search per exhibit visited
+        ZooGraphIndex graphIndex = distanceOracle.getGraphIndex();
+        double[] pathWeights = new double[graphIndex.getVertexCount()];
 
         // Add the starting point to exhibit order, and create objects to track route creation
         String currVertex = startVertex;
@@ -75,8 +98,9 @@ public class GraphRoute {
             double tempPathWeight;
 
             // Find the closest vertex
+            distanceOracle.getPathWeights(graphIndex.getOrdinal(currVertex), pathWeights);
             for (String vertex : unvisitedTargets) {
-                tempPathWeight = dijkstraShortestPath.getPathWeight(currVertex, vertex);
+                tempPathWeight = pathWeights[graphIndex.getOrdinal(vertex)];
                 if (tempPathWeight < closestPathWeight) {
                     closestVertex = vertex;
                     closestPathWeight = tempPathWeight;
@@ -84,7 +108,7 @@ public class GraphRoute {
             }
 
             // Go to next closest exhibit
-            currPath = dijkstraShortestPath.getPath(currVertex, closestVertex);
+            currPath = distanceOracle.getPath(currVertex, closestVertex);
             // Add path to total path
             for (IdentifiedWeightedEdge edge : currPath.getEdgeList()) {
                 totalEdges.add(edge);
@@ -99,7 +123,7 @@ public class GraphRoute {
         }
 
         // Return to startVertex
-        currPath = dijkstraShortestPath.getPath(currVertex, startVertex);
+        currPath = distanceOracle.getPath(currVertex, startVertex);
         for (IdentifiedWeightedEdge edge : currPath.getEdgeList()) {
             totalEdges.add(edge);
         }
@@ -215,25 +239,8 @@ public class GraphRoute {
      * @return result - string direction for output
      */
     public String edgeToDirection(IdentifiedWeightedEdge e, String nextLocation, String prevStreet) {
-        // Get street name, distance to walk, and destination vertex name
-        String street = edgeInfo.get(e.getId()).street;
-        double distance = zooGraph.getEdgeWeight(e);
-        String destination = (vertexInfo.get(nextLocation).name);
-
-        // Initialize result. If the directions is still on the same street, say "Continue..."
-        String result;
-        if ((prevStreet != null) && (prevStreet.equals(street))) {
-            result = "Continue on ";
-        }
-        else {
-            result = "Proceed on ";
-        }
-        // Add street name, distance, and destination vertex to direction result
-        result = result + street + " " + (int) distance + " ft towards " + destination;
-        if (vertexInfo.get(nextLocation).kind.toString() == "EXHIBIT") {
-            result = result + " Exhibit";
-        }
-        return result;
+        return DIRECTIONS_RENDERER.render(
+                DirectionStep.fromEdge(e, nextLocation, prevStreet, zooGraph, vertexInfo, edgeInfo), false);
     }
 
     /**
@@ -0,0 +1,40 @@
+package com.example.zooseeker;
+
+/**
+ * Nearest-neighbor planner: repeatedly walks to the closest exhibit not yet visited.
+ *  Ties go to the exhibit listed first.
+ */
+public class GreedyPlanner implements RoutePlanner {
+    @Override
+    public Strategy getStrategy(int exhibitCount) {
+        return Strategy.GREEDY;
+    }
+
+    @Override
+    public int[] plan(DistanceTable table) {
+        int exhibitCount = table.getRowCount() - 2;
+        int[] order = new int[exhibitCount];
+        boolean[] visited = new boolean[exhibitCount + 1];
+
+        int currStop = 0;
+        for (int i = 0; i < exhibitCount; i++) {
+            // Find the closest unvisited exhibit to the current stop
+            int closestStop = -1;
+            double closestWeight = Double.MAX_VALUE;
+            for (int stop = 1; stop <= exhibitCount; stop++) {
+                if (visited[stop]) continue;
+                if (closestStop < 0) closestStop = stop;
+                if (table.get(currStop, stop) < closestWeight) {
+                    closestStop = stop;
+                    closestWeight = table.get(currStop, stop);
+                }
+            }
+
+            // Advance to that exhibit
+            order[i] = closestStop;
+            visited[closestStop] = true;
+            currStop = closestStop;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.zooseeker;
+
+import java.util.Arrays;
+
+/**
+ * Exact planner using Held-Karp dynamic programming over subsets of exhibits. Finds a shortest
+ *  route from the start through every exhibit to the fixed end, in O(n^2 * 2^n) time and
+ *  O(n * 2^n) memory, so is only usable for small plans (see MAX_EXHIBITS).
+ */
+public class HeldKarpPlanner implements RoutePlanner {
+    public static final int MAX_EXHIBITS = 15;
+
+    @Override
+    public Strategy getStrategy(int exhibitCount) {
+        return Strategy.EXACT;
+    }
+
+    /**
+     * Estimates the number of DP transitions needed to plan a route, for callers choosing a planner
+     * @param exhibitCount - number of exhibits in plan
+     * @return approximate number of inner loop iterations
+     */
+    public static long estimateOperations(int exhibitCount) {
+        return (long) exhibitCount * exhibitCount << exhibitCount;
+    }
+
+    @Override
+    public int[] plan(DistanceTable table) {
+        int exhibitCount = table.getRowCount() - 2;
+        if (exhibitCount > MAX_EXHIBITS) {
+            throw new IllegalArgumentException("Too many exhibits for exact planning: " + exhibitCount);
+        }
+        if (exhibitCount == 0) return new int[0];
+
+        // costs[mask * n + last] is the length of the shortest walk from the start visiting exactly
+        // the exhibits in mask and ending at exhibit last (bit i of mask is stop i + 1)
+        int subsetCount = 1 << exhibitCount;
+        double[] costs = new double[subsetCount * exhibitCount];
+        byte[] previous = new byte[subsetCount * exhibitCount];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        for (int last = 0; last < exhibitCount; last++) {
+            costs[(1 << last) * exhibitCount + last] = table.get(0, last + 1);
+            previous[(1 << last) * exhibitCount + last] = -1;
+        }
+
+        // Subsets are visited in increasing order, so every subset of mask is done before mask
+        for (int mask = 1; mask < subsetCount; mask++) {
+            for (int last = 0; last < exhibitCount; last++) {
+                if ((mask & (1 << last)) == 0) continue;
+                double cost = costs[mask * exhibitCount + last];
+                if (cost == Double.POSITIVE_INFINITY) continue;
+
+                // Extend the walk to every exhibit not yet in it
+                for (int next = 0; next < exhibitCount; next++) {
+                    if ((mask & (1 << next)) != 0) continue;
+                    int index = (mask | (1 << next)) * exhibitCount + next;
+                    double nextCost = cost + table.get(last + 1, next + 1);
+                    if (nextCost < costs[index]) {
+                        costs[index] = nextCost;
+                        previous[index] = (byte) last;
+                    }
+                }
+            }
+        }
+
+        // Close every full walk at the fixed end, keeping the shortest
+        int fullMask = subsetCount - 1;
+        int endStop = exhibitCount + 1;
+        int bestLast = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int last = 0; last < exhibitCount; last++) {
+            double cost = costs[fullMask * exhibitCount + last] + table.get(last + 1, endStop);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestLast = last;
+            }
+        }
+
+        // Some exhibit cannot be reached (or the end cannot be reached from it), so no full walk
+        // exists and the previous links are incomplete. Order the exhibits greedily instead
+        if (bestCost == Double.POSITIVE_INFINITY) {
+            return new GreedyPlanner().plan(table);
+        }
+
+        // Walk back through the previous exhibits to recover the order
+        int[] order = new int[exhibitCount];
+        int mask = fullMask;
+        int last = bestLast;
+        for (int i = exhibitCount - 1; i >= 0; i--) {
+            order[i] = last + 1;
+            int prev = previous[mask * exhibitCount + last];
+            mask &= ~(1 << last);
+            last = prev;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.zooseeker;
+
+/**
+ * Planner which starts from another planner's order (greedy by default) and improves it with
+ *  2-opt (reversing a run of exhibits) and Or-opt (moving a run of up to three exhibits, possibly
+ *  reversed, elsewhere) until no move shortens the route or the budget runs out. The start and
+ *  end of the route stay fixed.
+ */
+public class LocalSearchPlanner implements RoutePlanner {
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_SEGMENT_LENGTH = 3;
+    private static final int EVALUATIONS_PER_CLOCK_CHECK = 64;
+
+    private final RoutePlanner initialPlanner;
+    private final long maxNanos;
+    private final long maxEvaluations;
+
+    // Search state for a single call
+    private DistanceTable table;
+    private int[] tour;
+    private int[] buffer;
+    private long evaluations;
+    private long deadline;
+
+    /**
+     * Ctor for a local search planner improving on greedy routes
+     * @param maxMillis - wall-clock budget per call, in milliseconds
+     * @param maxEvaluations - number of candidate moves that may be evaluated per call
+     */
+    public LocalSearchPlanner(long maxMillis, long maxEvaluations) {
+        this(new GreedyPlanner(), maxMillis, maxEvaluations);
+    }
+
+    /**
+     * Ctor for a local search planner
+     * @param initialPlanner - planner producing the order to improve on
+     * @param maxMillis - wall-clock budget per call, in milliseconds
+     * @param maxEvaluations - number of candidate moves that may be evaluated per call
+     */
+    public LocalSearchPlanner(RoutePlanner initialPlanner, long maxMillis, long maxEvaluations) {
+        this.initialPlanner = initialPlanner;
+        this.maxNanos = maxMillis * 1_000_000;
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    @Override
+    public Strategy getStrategy(int exhibitCount) {
+        return Strategy.LOCAL_SEARCH;
+    }
+
+    @Override
+    public synchronized int[] plan(DistanceTable table) {
+        return improve(table, initialPlanner.plan(table));
+    }
+
+    /**
+     * Improves a given order of exhibits, which may cover only some of the table's exhibits
+     *  (e.g. those not yet visited). Only distances between the start, the end and the stops in
+     *  the order are read
+     * @param table - (n+2) x (n+2) table of distances between stops
+     * @param order - distinct stops from 1..n to improve on
+     * @return improved order of the same stops
+     */
+    public synchronized int[] improve(DistanceTable table, int[] order) {
+        int exhibitCount = order.length;
+        this.table = table;
+        this.tour = new int[exhibitCount + 2];
+        this.buffer = new int[exhibitCount + 2];
+        this.evaluations = 0;
+        this.deadline = System.nanoTime() + maxNanos;
+
+        // Tour holds the fixed start and end around the exhibits
+        tour[0] = 0;
+        System.arraycopy(order, 0, tour, 1, exhibitCount);
+        tour[exhibitCount + 1] = table.getRowCount() - 1;
+
+        boolean improved = true;
+        while (improved && !budgetExhausted()) {
+            improved = twoOptPass() | orOptPass();
+        }
+
+        int[] result = new int[exhibitCount];
+        System.arraycopy(tour, 1, result, 0, exhibitCount);
+        this.table = null;
+        return result;
+    }
+
+    /**
+     * Counts a move evaluation, checking the clock every so often
+     * @return true if no more moves may be evaluated
+     */
+    private boolean budgetExhausted() {
+        if (evaluations >= maxEvaluations) return true;
+        return evaluations % EVALUATIONS_PER_CLOCK_CHECK == 0 && System.nanoTime() > deadline;
+    }
+
+    private double distance(int fromPosition, int toPosition) {
+        return table.get(tour[fromPosition], tour[toPosition]);
+    }
+
+    /**
+     * Tries reversing every run tour[i..j] of exhibits, applying improving reversals
+     * @return true if the tour was shortened
+     */
+    private boolean twoOptPass() {
+        int last = tour.length - 2;
+        boolean improved = false;
+        for (int i = 1; i < last; i++) {
+            for (int j = i + 1; j <= last; j++) {
+                if (budgetExhausted()) return improved;
+                evaluations++;
+
+                double delta = distance(i - 1, j) + distance(i, j + 1)
+                        - distance(i - 1, i) - distance(j, j + 1);
+                if (delta < -EPSILON) {
+                    reverse(i, j);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Tries moving every run of up to MAX_SEGMENT_LENGTH exhibits between two other stops,
+     *  forwards or reversed, applying improving moves
+     * @return true if the tour was shortened
+     */
+    private boolean orOptPass() {
+        int last = tour.length - 2;
+        boolean improved = false;
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+            for (int i = 1; i + length - 1 <= last; i++) {
+                int j = i + length - 1; // Segment is tour[i..j]
+                double removalGain = distance(i - 1, i) + distance(j, j + 1) - distance(i - 1, j + 1);
+                if (removalGain <= EPSILON) continue;
+
+                // Insert between tour[k] and tour[k + 1], outside of the segment
+                for (int k = 0; k <= last; k++) {
+                    if (k >= i - 1 && k <= j) continue;
+                    if (budgetExhausted()) return improved;
+                    evaluations++;
+
+                    double gap = distance(k, k + 1);
+                    double forward = distance(k, i) + distance(j, k + 1) - gap;
+                    double reversed = distance(k, j) + distance(i, k + 1) - gap;
+                    if (Math.min(forward, reversed) - removalGain < -EPSILON) {
+                        move(i, j, k, reversed < forward);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Reverses tour[i..j] in place
+     */
+    private void reverse(int i, int j) {
+        while (i < j) {
+            int swap = tour[i];
+            tour[i] = tour[j];
+            tour[j] = swap;
+            i++;
+            j--;
+        }
+    }
+
+    /**
+     * Moves tour[i..j] to between tour[k] and tour[k + 1]
+     */
+    private void move(int i, int j, int k, boolean reversed) {
+        int length = j - i + 1;
+        int size = 0;
+        for (int position = 0; position < tour.length; position++) {
+            if (position >= i && position <= j) continue;
+            buffer[size++] = tour[position];
+            if (position == k) {
+                for (int s = 0; s < length; s++) {
+                    buffer[size++] = reversed ? tour[j - s] : tour[i + s];
+                }
+            }
+        }
+        int[] swap = tour;
+        tour = buffer;
+        buffer = swap;
+    }
+}
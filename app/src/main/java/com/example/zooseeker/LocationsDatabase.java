@@ -7,17 +7,47 @@ import androidx.annotation.VisibleForTesting;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
-@Database(entities={LocationsListItem.class}, version = 3)
+@Database(entities={LocationsListItem.class, RouteWaypointItem.class}, version = 5)
+@TypeConverters({Converters.class})
 public abstract class LocationsDatabase extends RoomDatabase {
     private static LocationsDatabase singleton = null;
 
+    // Version 4 indexes locations by textId (unique) and order. Duplicate locations saved before
+    // the constraint existed are dropped, keeping the first added
+    @VisibleForTesting
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("DELETE FROM `locations_list_items` WHERE `textId` IS NOT NULL AND `id` NOT IN "
+                    + "(SELECT MIN(`id`) FROM `locations_list_items` WHERE `textId` IS NOT NULL GROUP BY `textId`)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_locations_list_items_textId` "
+                    + "ON `locations_list_items` (`textId`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_locations_list_items_order` "
+                    + "ON `locations_list_items` (`order`)");
+        }
+    };
+
+    // Version 5 saves the active route, each leg's path as a json array of vertex ids
+    @VisibleForTesting
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `route_waypoints` (`position` INTEGER NOT NULL, "
+                    + "`waypointId` TEXT NOT NULL, `legStartId` TEXT NOT NULL, `visited` INTEGER NOT NULL, "
+                    + "`legDistance` REAL NOT NULL, `legPath` TEXT NOT NULL, PRIMARY KEY(`position`))");
+        }
+    };
+
     public abstract LocationsListItemDao locationsListItemDao();
+    public abstract RouteWaypointDao routeWaypointDao();
 
     public synchronized static LocationsDatabase getSingleton(Context context) {
         if (singleton == null) {
@@ -35,8 +65,9 @@ public abstract class LocationsDatabase extends RoomDatabase {
     }
 
     private static LocationsDatabase makeDatabase(Context context) {
+        // Queries run in the background through LocationsRepository, never on the main thread
         return Room.databaseBuilder(context, LocationsDatabase.class, "locations_app.db")
-                .allowMainThreadQueries()
+                .addMigrations(MIGRATION_3_4, MIGRATION_4_5)
                 .build();
     }
 }
@@ -25,12 +25,15 @@ import java.util.Map;
 /**
  * Activity for the list of locations to visit, called from MainActivity
  */
-public class LocationsListActivity extends AppCompatActivity implements OnAdapterItemClickListener{
+public class LocationsListActivity extends AppCompatActivity {
+    // Time route planning may take before falling back from exact to heuristic ordering
+    private static final long PLAN_LATENCY_MILLIS = 50;
+
     public RecyclerView recyclerView;
     private LocationsListViewModel viewModel;
-    private LocationsListItemDao locationsListItemDao;
+    private LocationsRepository repository;
     private String asset_file;
-    private DataFilesReader graphReader;
+    private ZooModel zooModel; // Null until loaded
     private UserLocationTracker tracker;
 
     // Map containing zoo location info
@@ -47,9 +50,10 @@ public class LocationsListActivity extends AppCompatActivity implements OnAdapte
         // Initialize view model for plan list
         LocationsListViewModel viewModel = new ViewModelProvider(this).get(LocationsListViewModel.class);
         this.viewModel = viewModel;
+        this.repository = new LocationsRepository(this);
 
         // Set up adapter connection between recyclerView and database of locations
-        LocationsListAdapter adapter = new LocationsListAdapter(this);
+        LocationsListAdapter adapter = new LocationsListAdapter();
         adapter.setHasStableIds(true);
         adapter.setOnDeleteClickedHandler(viewModel::deleteLocation);
         viewModel.getLocationsListItems().observe(this, adapter::setLocationsListItems);
@@ -72,17 +76,23 @@ public class LocationsListActivity extends AppCompatActivity implements OnAdapte
         // Create user location tracker
         this.tracker = UserLocationTrackerSingleton.getTracker();
 
-        // Get zoo graph objects
+        // Load zoo graph objects in the background, the list is planned once they are loaded
         this.asset_file = intent.getExtras().getString("assets_list_file");
-        this.graphReader = new DataFilesReader(this, asset_file);
-        this.vertexInfo = graphReader.getVertexInfo();
+        ZooModel.getAsync(this, asset_file, this::onModelLoaded,
+                e -> WarningUtilities.showError(this, "Could not load zoo data!"));
+    }
 
-        // Pull user location and find nearest zoo location
-        Location userLocation = tracker.getUserLocation();
-        this.nearestLocationId = (userLocation == null)
-                ? graphReader.getGateId() : Route.getNearestLocationId(vertexInfo, userLocation);
+    /**
+     * Plans the listed exhibits once the zoo data is loaded
+     * @param zooModel - loaded zoo model
+     */
+    private void onModelLoaded(ZooModel zooModel) {
+        if (isFinishing()) return;
+        this.zooModel = zooModel;
+        this.vertexInfo = zooModel.getVertexInfo();
+        this.nearestLocationId = getNearestLocationId();
 
-        createRoute();
+        createRoute(() -> {});
     }
 
     /**
@@ -93,64 +103,101 @@ public class LocationsListActivity extends AppCompatActivity implements OnAdapte
         // Pull user location and find nearest zoo location
         Location userLocation = tracker.getUserLocation();
         return (userLocation == null)
-                ? graphReader.getGateId() : Route.getNearestLocationId(vertexInfo, userLocation);
+                ? zooModel.getGateId() : Route.getNearestLocationId(zooModel.getSpatialIndex(), userLocation);
     }
 
     /**
-     * This methods creates a route based on database exhibit entries
+     * This methods creates a route based on database exhibit entries. Reading the entries and
+     *  planning run in the background, the list is updated once the route is ready
+     * @param onCreated - run on the main thread once the route is planned and published
      */
-    private void createRoute() {
-        // Get database instance
-        LocationsDatabase db = LocationsDatabase.getSingleton(this);
-        locationsListItemDao = db.locationsListItemDao();
-
-        // Get exhibits to visit
-        List<LocationsListItem> exhibitsToVisit = locationsListItemDao.getAll();
-        ArrayList<String> exhibitIds = new ArrayList<>();
-        for (LocationsListItem element : exhibitsToVisit) {
-            exhibitIds.add(element.textId);
-        }
+    private void createRoute(Runnable onCreated) {
+        repository.getAll(exhibitsToVisit -> {
+            // Get exhibits to visit
+            ArrayList<String> exhibitIds = new ArrayList<>();
+            for (LocationsListItem element : exhibitsToVisit) {
+                exhibitIds.add(element.textId);
+            }
+            planRoute(exhibitIds, onCreated);
+        });
+    }
 
-        // Construct route (TSP heuristic), and retrieve major vertices in route planned
-        this.route = new Route(this.graphReader, exhibitIds, getNearestLocationId());
+    /**
+     * Plans a route visiting exhibits, then re-orders the list to match
+     * @param exhibitIds - exhibits to visit
+     * @param onCreated - run on the main thread once the route is planned and published
+     */
+    private void planRoute(ArrayList<String> exhibitIds, Runnable onCreated) {
+        // Construct route (exact for small plans, TSP heuristic otherwise), and retrieve major
+        // vertices in route planned
+        RoutePlanningService.planRoute(this.zooModel, exhibitIds, getNearestLocationId(),
+                new PlannerSelector(PLAN_LATENCY_MILLIS), true, new RoutePlanningService.Callback() {
+            @Override
+            public void onRoutePlanned(Route route) {
+                showPlannedRoute(route, onCreated);
+            }
+
+            @Override
+            public void onPlanningFailed(RuntimeException e) {
+                if (isFinishing()) return;
+                WarningUtilities.showError(LocationsListActivity.this, "Could not plan a route, try again.");
+            }
+
+            // Superseded by a newer plan, whose outcome follows
+        });
+    }
+
+    /**
+     * Re-orders the list to match a planned route, and saves the route
+     * @param route - route planned and published
+     * @param onCreated - run once the list is updated
+     */
+    private void showPlannedRoute(Route route, Runnable onCreated) {
+        this.route = route;
 
         // Retrieve all exhibits but last exit gate
         List<String> exhibitIdsToVisit = route.getExhibitsInOrder().subList(0, route.getExhibitsInOrder().size() - 1);
 
-        // We want to delete all locations and re-add them in proper order to the database
-        locationsListItemDao.deleteAll();
-
-        // Re-adds locations in order visited in plan, with proper distances calculated by route.
+        // Replace the locations in the database with the locations in order visited in plan,
+        // with distances along the route (computed in one pass), in one write
+        double[] distances = route.getCumulativeDistances(nearestLocationId);
+        List<LocationsListItem> plan = new ArrayList<>(exhibitIdsToVisit.size());
         for (String exhibitId : exhibitIdsToVisit) {
             String exhibitName = vertexInfo.get(exhibitId).name;
-            double exhibitDistance = route.getTotalDistance(exhibitId, nearestLocationId);
-            viewModel.createLocation(exhibitName, exhibitId, exhibitDistance);
+            plan.add(new LocationsListItem(exhibitName, exhibitId, distances[plan.size()], plan.size()));
         }
+        viewModel.replacePlan(plan);
 
-        // Set singleton route object to this route
-        RouteSingleton.setRoute(route);
+        // Route was published to the route singleton by the planning service, save it in
+        // case the app is killed while following it
+        repository.saveRoute(route);
+        onCreated.run();
     }
 
     /**
      * Launches directions activity, passing serialized array of directions through intent.putExtra
      */
     public void launchRoutePlan(View view) {
-        if (locationsListItemDao.getDataCount() == 0){
-            Utilities.showAlert(this, "Add at least one exhibit to your route!");
-        }else {
-            createRoute();
-            Intent intent = new Intent(this, RouteActivity.class);
-            intent.putExtra("assets_list_file", asset_file); // Pass assets file paths
-            startActivity(intent);
+        if (zooModel == null) {
+            Utilities.showAlert(this, "Zoo data is still loading, try again in a moment.");
+            return;
         }
+        repository.getCount(count -> {
+            if (isFinishing()) return;
+            if (count == 0){
+                Utilities.showAlert(this, "Add at least one exhibit to your route!");
+            }else {
+                createRoute(() -> {
+                    if (isFinishing()) return;
+                    Intent intent = new Intent(this, RouteActivity.class);
+                    intent.putExtra("assets_list_file", asset_file); // Pass assets file paths
+                    startActivity(intent);
+                });
+            }
+        });
     }
 
     public void onClosedClicked(View view) {
         finish();
     }
-
-    @Override
-    public void onAdapterItemClickListener() {
-
-    }
 }
\ No newline at end of file
@@ -7,30 +7,47 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.function.Consumer;
 
 /**
- * Adapter for RecyclerView to interact with the database of locations
+ * Adapter for RecyclerView to interact with the database of locations. New lists from the
+ *  database are diffed against the shown one on a background thread, so only rows that were
+ *  inserted, removed, moved or changed are rebound
  */
 public class LocationsListAdapter extends RecyclerView.Adapter<LocationsListAdapter.ViewHolder>{
-    private List<LocationsListItem> locationItems = Collections.emptyList();
+    // Rows are the same location if they have the same database id
+    private static final DiffUtil.ItemCallback<LocationsListItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<LocationsListItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull LocationsListItem oldItem, @NonNull LocationsListItem newItem) {
+                    return oldItem.id == newItem.id;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull LocationsListItem oldItem, @NonNull LocationsListItem newItem) {
+                    return oldItem.text.equals(newItem.text)
+                            && Objects.equals(oldItem.textId, newItem.textId)
+                            && oldItem.order == newItem.order
+                            && Double.compare(oldItem.distance, newItem.distance) == 0;
+                }
+            };
+
+    private final AsyncListDiffer<LocationsListItem> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private Consumer<LocationsListItem> onDeleteClicked;
 
-    private OnAdapterItemClickListener onAdapterItemClickListener = null;
-
-    public LocationsListAdapter(OnAdapterItemClickListener listener) {
-        this.onAdapterItemClickListener = listener;
-    }
-
+    /**
+     * Shows a new list of locations, notifying the changes from the current list once diffed
+     * @param newLocationsItems - locations to show, in order; not modified afterwards
+     */
     public void setLocationsListItems(List<LocationsListItem> newLocationsItems) {
-        this.locationItems.clear();
-        this.locationItems = newLocationsItems;
-        notifyDataSetChanged();
+        differ.submitList(newLocationsItems);
     }
 
     public void setOnDeleteClickedHandler(Consumer<LocationsListItem> onDeleteClicked) {
@@ -49,17 +66,17 @@ public class LocationsListAdapter extends RecyclerView.Adapter<LocationsListAdap
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        holder.setLocationItem(locationItems.get(position) );
+        holder.setLocationItem(differ.getCurrentList().get(position));
     }
 
     @Override
     public int getItemCount() {
-        return locationItems.size();
+        return differ.getCurrentList().size();
     }
 
     @Override
     public long getItemId(int position) {
-        return locationItems.get(position).id;
+        return differ.getCurrentList().get(position).id;
     }
 
     /**
@@ -84,7 +101,6 @@ public class LocationsListAdapter extends RecyclerView.Adapter<LocationsListAdap
             this.delete.setOnClickListener(view -> {
                 if (onDeleteClicked == null) return;
                 onDeleteClicked.accept(locationItem);
-                onAdapterItemClickListener.onAdapterItemClickListener();
             });
         }
 
@@ -5,6 +5,7 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import com.google.gson.Gson;
@@ -25,7 +26,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-@Entity(tableName = "locations_list_items")
+// Locations are looked up by textId, which is unique, and listed by order
+@Entity(tableName = "locations_list_items",
+        indices = {@Index(value = "textId", unique = true), @Index("order")})
 public class LocationsListItem {
     @PrimaryKey(autoGenerate = true)
     public long id = 0;
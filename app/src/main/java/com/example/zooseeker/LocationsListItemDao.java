@@ -5,9 +5,12 @@ import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Dao
 public interface LocationsListItemDao {
@@ -43,4 +46,39 @@ public interface LocationsListItemDao {
 
     @Query("SELECT COUNT(*) FROM `locations_list_items`")
     int getDataCount();
+
+    @Query("SELECT COUNT(*) FROM `locations_list_items`")
+    LiveData<Integer> getDataCountLive();
+
+    /**
+     * Appends a location to the end of the list in one statement, unless it is already in the
+     *  list (by the unique textId)
+     * @param text - Proper name of location (e.g. "Arctic Foxes")
+     * @param textId - ID of location (e.g. "arctic_foxes")
+     * @param distance - Distance to store of location
+     * @return row id of the added location, -1 if it was already in the list
+     */
+    @Query("INSERT OR IGNORE INTO `locations_list_items` (`text`, `textId`, `distance`, `order`) "
+            + "SELECT :text, :textId, :distance, COALESCE(MAX(`order`) + 1, 0) FROM `locations_list_items`")
+    long insertIfAbsent(String text, String textId, double distance);
+
+    /**
+     * Replaces the whole list with a planned one in a single transaction, so observers see one
+     *  change. Items for locations already in the list keep their id's, so the list's stable id's
+     *  survive re-ordering
+     * @param plan - items in plan order, with orders and distances already set
+     */
+    @Transaction
+    default void replacePlan(List<LocationsListItem> plan) {
+        Map<String, Long> existingIds = new HashMap<>();
+        for (LocationsListItem item : getAll()) {
+            existingIds.put(item.textId, item.id);
+        }
+        for (LocationsListItem item : plan) {
+            Long id = existingIds.remove(item.textId);
+            item.id = (id == null) ? 0 : id;
+        }
+        deleteAll();
+        insertAll(plan);
+    }
 }
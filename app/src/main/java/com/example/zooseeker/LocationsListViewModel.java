@@ -19,22 +19,21 @@ import java.util.List;
  */
 public class LocationsListViewModel extends AndroidViewModel {
     private LiveData<List<LocationsListItem>> locationsListItems;
-    private final LocationsListItemDao locationsListItemDao;
+    private final LocationsRepository repository;
 
     /**
-     * Ctor for LocationsListViewModel: creates database and DAO
+     * Ctor for LocationsListViewModel: creates repository over database
      * @param application
      */
     public LocationsListViewModel(@NonNull Application application) {
         super(application);
         Context context = getApplication().getApplicationContext();
-        LocationsDatabase db = LocationsDatabase.getSingleton(context);
-        locationsListItemDao = db.locationsListItemDao();
+        repository = new LocationsRepository(context);
     }
 
     /**
      * Gets live list of database contents
-     * @return
+     * @return LiveData of the locations in the list, in order, updated as the list changes
      */
     public LiveData<List<LocationsListItem>> getLocationsListItems() {
         if (locationsListItems == null) {
@@ -44,22 +43,37 @@ public class LocationsListViewModel extends AndroidViewModel {
     }
 
     private void loadUsers() {
-        locationsListItems = locationsListItemDao.getAllLive();
+        locationsListItems = repository.getAllLive();
     }
 
     /**
-     * Creates new entry in database
+     * Gets live number of entries in database
+     * @return LiveData of the number of locations in the list, updated as locations are added or
+     *  deleted
+     */
+    public LiveData<Integer> getLocationsCount() {
+        return repository.getCountLive();
+    }
+
+    /**
+     * Creates new entry in database at the end of the list, if not already in database
      * @param text - Proper name of location (e.g. "Arctic Foxes")
      * @param textId - ID of location (e.g. "arctic_foxes")
      * @param distance - Distance to store of location
      */
     public void createLocation(String text, String textId, double distance) {
-        int endOfListOrder = locationsListItemDao.getOrderForAppend();
-        LocationsListItem newItem = new LocationsListItem(text, textId, distance, endOfListOrder);
-        locationsListItemDao.insert(newItem);
+        repository.addLocation(text, textId, distance);
+    }
+
+    /**
+     * Replaces every entry in database with a planned list, written in one transaction
+     * @param plan - entries in plan order, with orders and distances set
+     */
+    public void replacePlan(List<LocationsListItem> plan) {
+        repository.replacePlan(plan);
     }
 
     public void deleteLocation(LocationsListItem locationsListItem) {
-        locationsListItemDao.delete(locationsListItem);
+        repository.deleteLocation(locationsListItem);
     }
 }
@@ -0,0 +1,133 @@
+package com.example.zooseeker;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Access to the database of locations to visit and of the saved route for UI code, which never
+ *  queries on the main thread. Observable data is read through LiveData queries; one-off reads
+ *  and all writes run on a single database thread, in the order they are requested, with results
+ *  delivered on the main thread.
+ */
+public class LocationsRepository {
+    private static final Executor DATABASE_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final LocationsListItemDao locationsListItemDao;
+    private final RouteWaypointDao routeWaypointDao;
+    private final Executor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Ctor for a repository over the app's database
+     * @param context - context to open the database with
+     */
+    public LocationsRepository(Context context) {
+        this(LocationsDatabase.getSingleton(context), DATABASE_EXECUTOR);
+    }
+
+    /**
+     * Ctor for a repository over a given database
+     * @param database - database to read and write
+     * @param executor - executor to run queries and writes on, which should run them in order
+     */
+    public LocationsRepository(LocationsDatabase database, Executor executor) {
+        this.locationsListItemDao = database.locationsListItemDao();
+        this.routeWaypointDao = database.routeWaypointDao();
+        this.executor = executor;
+    }
+
+    /**
+     * Gets live list of locations, in list order
+     * @return LiveData updated whenever the list changes
+     */
+    public LiveData<List<LocationsListItem>> getAllLive() {
+        return locationsListItemDao.getAllLive();
+    }
+
+    /**
+     * Gets live number of locations in the list
+     * @return LiveData updated whenever the list changes
+     */
+    public LiveData<Integer> getCountLive() {
+        return locationsListItemDao.getDataCountLive();
+    }
+
+    /**
+     * Reads the list of locations once
+     * @param onLoaded - receives the locations in list order, on the main thread
+     */
+    public void getAll(Consumer<List<LocationsListItem>> onLoaded) {
+        executor.execute(() -> {
+            List<LocationsListItem> items = locationsListItemDao.getAll();
+            mainHandler.post(() -> onLoaded.accept(items));
+        });
+    }
+
+    /**
+     * Reads the number of locations in the list once
+     * @param onLoaded - receives the count, on the main thread
+     */
+    public void getCount(Consumer<Integer> onLoaded) {
+        executor.execute(() -> {
+            int count = locationsListItemDao.getDataCount();
+            mainHandler.post(() -> onLoaded.accept(count));
+        });
+    }
+
+    /**
+     * Appends a location to the end of the list, unless it is already in the list
+     * @param text - Proper name of location (e.g. "Arctic Foxes")
+     * @param textId - ID of location (e.g. "arctic_foxes")
+     * @param distance - Distance to store of location
+     */
+    public void addLocation(String text, String textId, double distance) {
+        executor.execute(() -> locationsListItemDao.insertIfAbsent(text, textId, distance));
+    }
+
+    /**
+     * Replaces the whole list with a planned one, in one transaction
+     * @param plan - entries in plan order, with orders and distances set
+     */
+    public void replacePlan(List<LocationsListItem> plan) {
+        executor.execute(() -> locationsListItemDao.replacePlan(plan));
+    }
+
+    /**
+     * Removes a location from the list
+     * @param locationsListItem - entry to remove
+     */
+    public void deleteLocation(LocationsListItem locationsListItem) {
+        executor.execute(() -> locationsListItemDao.delete(locationsListItem));
+    }
+
+    /**
+     * Saves a route as the active route, replacing any saved before. The route is copied, so it
+     *  may keep changing on the main thread while its legs are found and written
+     * @param route - route to save, read on the calling thread
+     */
+    public void saveRoute(Route route) {
+        Route snapshot = new Route(route);
+        executor.execute(() -> routeWaypointDao.replaceRoute(snapshot.toWaypointItems()));
+    }
+
+    /**
+     * Restores the saved active route, without planning or searching for paths again
+     * @param zooModel - parsed zoo data the route was planned on
+     * @param onLoaded - receives the route on the main thread, null if none was saved
+     */
+    public void loadRoute(ZooModel zooModel, Consumer<Route> onLoaded) {
+        executor.execute(() -> {
+            List<RouteWaypointItem> items = routeWaypointDao.getAll();
+            Route route = items.isEmpty() ? null : new Route(zooModel, items);
+            mainHandler.post(() -> onLoaded.accept(route));
+        });
+    }
+}
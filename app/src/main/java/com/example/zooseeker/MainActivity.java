@@ -6,27 +6,25 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.AutoCompleteTextView;
 import android.widget.Button;
-import android.widget.ArrayAdapter;
 
 import java.util.List;
-import java.util.Map;
 
-public class MainActivity extends AppCompatActivity implements OnAdapterItemClickListener {
+public class MainActivity extends AppCompatActivity {
 
     // Path to json file containing assets to load
     public final String ASSETS_LIST_FILE = "zoo_data_files.json";
 
-    // Databasing objects
-    private LocationsDatabase db;
-    private LocationsListItemDao locationsListItemDao;
+    // View model for selected exhibits list, backed by the database
+    private LocationsListViewModel viewModel;
 
     @RequiresApi(api = Build.VERSION_CODES.O)
     @Override
@@ -34,25 +32,14 @@ public class MainActivity extends AppCompatActivity implements OnAdapterItemClic
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // Get graph vertices
-        DataFilesReader graphReader = new DataFilesReader(this, ASSETS_LIST_FILE);
-        Map<String, ZooData.VertexInfo> vertexSet = graphReader.getVertexInfo();
-        Map<String, ZooData.VertexInfo> vertexInfo = vertexSet;
-
-        // Get exhibits list for searching
-        List<Exhibit> exhibitList = Exhibit.returnExhibits(vertexInfo);
+        // Initialize view model for selected exhibits list (unordered)
+        this.viewModel = new ViewModelProvider(this).get(LocationsListViewModel.class);
 
-        // Instantiate AutoCompleteTextView using custom exhibit adapter
-        ArrayAdapter<Exhibit> exhibitSearchAdapter = new ExhibitSearchAdapter(
-                this, android.R.layout.select_dialog_item, exhibitList);
+        // Parse zoo data in the background, search is hooked up once exhibits are known
         AutoCompleteTextView searchView = (AutoCompleteTextView) findViewById(R.id.search_field);
         searchView.setThreshold(1);
-        searchView.setAdapter(exhibitSearchAdapter);
-
-        // Instantiate database objects
-        Context context = getApplication().getApplicationContext();
-        this.db = LocationsDatabase.getSingleton(context);
-        this.locationsListItemDao = db.locationsListItemDao();
+        ZooModel.getAsync(this, ASSETS_LIST_FILE, zooModel -> setupSearch(searchView, zooModel),
+                e -> Utilities.showAlert(this, "Could not load zoo data, search is unavailable."));
 
         // Instantiate and set global singleton tracker
         UserLocationTracker tracker = new UserLocationTracker(this);
@@ -71,38 +58,13 @@ public class MainActivity extends AppCompatActivity implements OnAdapterItemClic
             tracker.useGPSLocations = willUseGPS;
         });
 
-        // Instantiate button to view planning list
+        // Instantiate button to view planning list, showing the size of the list as it changes
         Button planningListButton = findViewById(R.id.view_list_btn);
-        updateListCount();
-
-        // Triggered upon selecting suggested item from search list
-        searchView.setOnItemClickListener(
-                new AdapterView.OnItemClickListener() {
-                    @Override
-                    public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                        // Extract necessary exhibit info to construct database item
-                        String queryId = exhibitSearchAdapter.getItem(position).id;
-                        String queryName = exhibitSearchAdapter.getItem(position).name;
-
-                        // Add database entry for added exhibit, if not already in database
-                        if (locationsListItemDao.get(queryId) == null) {
-                            int endOfListOrder = locationsListItemDao.getOrderForAppend();
-                            LocationsListItem newItem = new LocationsListItem(queryName, queryId, 0, endOfListOrder);
-                            locationsListItemDao.insert(newItem);
-                        }
-
-                        // Update UI elements
-                        updateListCount();
-                        searchView.setText("");
-                    }
-                }
-        );
-
-        // Initialize view model for selected exhibits list (unordered)
-        LocationsListViewModel viewModel = new ViewModelProvider(this).get(LocationsListViewModel.class);
+        viewModel.getLocationsCount().observe(this,
+                count -> planningListButton.setText("Plan (" + count + ")"));
 
         // Set up adapter connection between recyclerView and database of locations
-        LocationsListAdapter adapter = new LocationsListAdapter(this);
+        LocationsListAdapter adapter = new LocationsListAdapter();
         adapter.setHasStableIds(true);
         adapter.setOnDeleteClickedHandler(
                 viewModel::deleteLocation
@@ -126,11 +88,51 @@ public class MainActivity extends AppCompatActivity implements OnAdapterItemClic
     }
 
     /**
-     * Updates the list size count when item is deleted in the RecyclerView
+     * Instantiates the search bar's suggestions and selection handling
+     * @param searchView - search bar view
+     * @param zooModel - loaded zoo model to take exhibits from
      */
-    @Override
-    public void onAdapterItemClickListener() {
-        updateListCount();
+    private void setupSearch(AutoCompleteTextView searchView, ZooModel zooModel) {
+        // Get exhibits list for searching
+        List<Exhibit> exhibitList = Exhibit.returnExhibits(zooModel.getVertexInfo());
+
+        // Instantiate AutoCompleteTextView using custom exhibit adapter
+        ExhibitSearchAdapter exhibitSearchAdapter = new ExhibitSearchAdapter(
+                this, android.R.layout.select_dialog_item, exhibitList);
+        searchView.setAdapter(exhibitSearchAdapter);
+
+        // Let filtering for outdated text stop early as the user keeps typing
+        searchView.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                exhibitSearchAdapter.onQueryChanged(s);
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {}
+        });
+
+        // Triggered upon selecting suggested item from search list
+        searchView.setOnItemClickListener(
+                new AdapterView.OnItemClickListener() {
+                    @Override
+                    public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+                        // Extract necessary exhibit info to construct database item
+                        String queryId = exhibitSearchAdapter.getItem(position).id;
+                        String queryName = exhibitSearchAdapter.getItem(position).name;
+
+                        // Add database entry for added exhibit, if not already in database. The
+                        // list count is updated once it is written
+                        viewModel.createLocation(queryName, queryId, 0);
+
+                        // Update UI elements
+                        searchView.setText("");
+                    }
+                }
+        );
     }
 
     /**
@@ -142,21 +144,4 @@ public class MainActivity extends AppCompatActivity implements OnAdapterItemClic
         intent.putExtra("assets_list_file", ASSETS_LIST_FILE); // Pass assets file paths
         startActivity(intent);
     }
-
-    public void onResume() {
-        super.onResume();
-        updateListCount();
-    }
-
-    /**
-     * Updates the list displayed on the planning list button
-     */
-    public void updateListCount(){
-        Context context = getApplication().getApplicationContext();
-        db = LocationsDatabase.getSingleton(context);
-        locationsListItemDao = db.locationsListItemDao();
-
-        Button planningListButton = findViewById(R.id.view_list_btn);
-        planningListButton.setText("Plan (" + locationsListItemDao.getDataCount() + ")");
-    }
 }
\ No newline at end of file
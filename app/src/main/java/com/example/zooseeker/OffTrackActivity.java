@@ -16,14 +16,36 @@ public class OffTrackActivity extends AppCompatActivity {
         Intent intent = getIntent();
 
         Button yesButton = findViewById(R.id.yes_btn);
-        yesButton.setOnClickListener(v -> {
-            RouteSingleton.getRoute().reroute(intent.getExtras().getString("new_start_id"));
-            finish();
-        });
-
         Button noButton = findViewById(R.id.no_btn);
         noButton.setOnClickListener(v -> {
             finish();
         });
+
+        // Reroute in the background, returning to directions once the new route is published,
+        // and letting the user choose again if it never is
+        yesButton.setOnClickListener(v -> {
+            yesButton.setEnabled(false);
+            noButton.setEnabled(false);
+            RoutePlanningService.reroute(intent.getExtras().getString("new_start_id"),
+                    new RoutePlanningService.Callback() {
+                @Override
+                public void onRoutePlanned(Route route) {
+                    new LocationsRepository(OffTrackActivity.this).saveRoute(route);
+                    finish();
+                }
+
+                @Override
+                public void onPlanningFailed(RuntimeException e) {
+                    Utilities.showAlert(OffTrackActivity.this, "Could not replan your route, try again.");
+                    onPlanningCancelled();
+                }
+
+                @Override
+                public void onPlanningCancelled() {
+                    yesButton.setEnabled(true);
+                    noButton.setEnabled(true);
+                }
+            });
+        });
     }
 }
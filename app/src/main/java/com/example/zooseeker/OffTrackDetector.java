@@ -0,0 +1,143 @@
+package com.example.zooseeker;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects when the user has gone off track, i.e. another remaining exhibit is closer than the next
+ *  one, with the same rule as Route.isOffTrack but without path queries per GPS fix. Whenever the
+ *  route changes, a slack per graph vertex is precomputed: the distance to the closest other
+ *  remaining exhibit minus the distance to the next exhibit (negative means off track). Distances
+ *  from each waypoint to every vertex are cached, so advancing along a route only re-takes minima.
+ *
+ * To avoid flip-flopping when the user is near a decision boundary, the state only changes once
+ *  the slack is past a margin in the new state's favor, for a number of consecutive fixes.
+ */
+public class OffTrackDetector {
+    public static final double DEFAULT_MARGIN = 50.0;
+    public static final int DEFAULT_CONFIRM_FIXES = 2;
+
+    private final double margin;
+    private final int confirmFixes;
+
+    // Graph vertices by ordinal, and distances from every vertex to waypoints by waypoint id
+    private final ZooGraphIndex graphIndex;
+    private final Map<String, double[]> waypointDistances = new HashMap<>();
+
+    // Route the slacks were computed for
+    private Route route;
+    private int routeRevision;
+    private double[] slacks;
+
+    // Hysteresis state
+    private boolean offTrack = false;
+    private int pendingFixes = 0;
+
+    /**
+     * Ctor for an off-track detector with default margin and confirmation
+     * @param graphIndex - index of the zoo graph routes are planned on
+     */
+    public OffTrackDetector(ZooGraphIndex graphIndex) {
+        this(graphIndex, DEFAULT_MARGIN, DEFAULT_CONFIRM_FIXES);
+    }
+
+    /**
+     * Ctor for an off-track detector
+     * @param graphIndex - index of the zoo graph routes are planned on, i.e. their model's index
+     * @param margin - path weight another exhibit must be closer by to go off track, and the next
+     *  exhibit closer by to come back on track
+     * @param confirmFixes - number of consecutive fixes past the margin needed to change state
+     */
+    public OffTrackDetector(ZooGraphIndex graphIndex, double margin, int confirmFixes) {
+        this.margin = margin;
+        this.confirmFixes = Math.max(1, confirmFixes);
+        this.graphIndex = graphIndex;
+    }
+
+    /**
+     * Feeds a new location fix to the detector
+     * @param route - route being followed
+     * @param nearestLocationId - id of zoo location closest to user
+     * @return true if the user is off track after this fix
+     */
+    public boolean update(Route route, String nearestLocationId) {
+        if (route != this.route || route.getRevision() != routeRevision) {
+            computeSlacks(route);
+        }
+
+        // Locations outside the graph (e.g. exhibits within a group) use the route's own check
+        int vertex = graphIndex.findOrdinal(nearestLocationId);
+        double slack;
+        if (vertex >= 0) {
+            slack = slacks[vertex];
+        } else {
+            slack = route.isOffTrack(nearestLocationId) ? -Double.MAX_VALUE : Double.MAX_VALUE;
+        }
+
+        // Count fixes clearly in favor of the other state, resetting when the streak breaks
+        boolean favorsChange = offTrack ? slack > margin : slack < -margin;
+        pendingFixes = favorsChange ? pendingFixes + 1 : 0;
+        if (pendingFixes >= confirmFixes) {
+            offTrack = !offTrack;
+            pendingFixes = 0;
+        }
+        return offTrack;
+    }
+
+    /**
+     * Returns whether the user was off track as of the latest fix
+     * @return true if off track
+     */
+    public boolean isOffTrack() {return offTrack;}
+
+    /**
+     * Recomputes the slack of every vertex for the remaining exhibits of a route, and starts the
+     *  route on track
+     * @param route - route being followed
+     */
+    private void computeSlacks(Route route) {
+        if (route.getGraphIndex() != graphIndex) {
+            throw new IllegalArgumentException("Route must be planned on the detector's graph index");
+        }
+        this.route = route;
+        this.routeRevision = route.getRevision();
+        this.offTrack = false;
+        this.pendingFixes = 0;
+        if (slacks == null) slacks = new double[graphIndex.getVertexCount()];
+
+        // Remaining exhibits, excluding the exit gate
+        int nextExhibitIndex = route.getNextExhibitIndex();
+        List<Route.Waypoint> remaining = route.routeOrder.subList(nextExhibitIndex, route.routeOrder.size() - 1);
+        if (remaining.isEmpty()) {
+            Arrays.fill(slacks, Double.MAX_VALUE);
+            return;
+        }
+
+        double[] toNext = getDistances(route, remaining.get(0).id);
+        Arrays.fill(slacks, Double.MAX_VALUE);
+        for (Route.Waypoint other : remaining.subList(1, remaining.size())) {
+            double[] toOther = getDistances(route, other.id);
+            for (int v = 0; v < slacks.length; v++) {
+                slacks[v] = Math.min(slacks[v], toOther[v] - toNext[v]);
+            }
+        }
+    }
+
+    /**
+     * Returns distances from every vertex to a waypoint, computing them on first use
+     * @param route - route giving group-aware path weights
+     * @param waypointId - id of waypoint
+     * @return path weights indexed by vertex ordinal
+     */
+    private double[] getDistances(Route route, String waypointId) {
+        double[] distances = waypointDistances.get(waypointId);
+        if (distances == null) {
+            distances = new double[graphIndex.getVertexCount()];
+            route.getPathWeights(waypointId, distances);
+            waypointDistances.put(waypointId, distances);
+        }
+        return distances;
+    }
+}
@@ -1,8 +0,0 @@
-package com.example.zooseeker;
-
-/**
- * Interface for callback to activities when the exhibit list has deleted an item
- */
-public interface OnAdapterItemClickListener {
-    void onAdapterItemClickListener();
-}
@@ -0,0 +1,49 @@
+package com.example.zooseeker;
+
+/**
+ * Planner choosing a strategy per plan from its size and a latency budget: exact (Held-Karp)
+ *  when it is expected to finish within the budget, local search bounded by the budget for
+ *  larger plans, and greedy when there is no budget to spend.
+ */
+public class PlannerSelector implements RoutePlanner {
+    // Rough cost of one Held-Karp transition on a phone, used to estimate exact planning time
+    private static final double NANOS_PER_EXACT_OPERATION = 5.0;
+
+    private final long latencyBudgetMillis;
+    private final RoutePlanner greedyPlanner = new GreedyPlanner();
+    private final RoutePlanner exactPlanner = new HeldKarpPlanner();
+    private final RoutePlanner localSearchPlanner;
+
+    /**
+     * Ctor for a planner selector
+     * @param latencyBudgetMillis - time planning may take, in milliseconds, 0 to always use greedy
+     */
+    public PlannerSelector(long latencyBudgetMillis) {
+        this.latencyBudgetMillis = latencyBudgetMillis;
+        this.localSearchPlanner = new LocalSearchPlanner(latencyBudgetMillis, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Strategy getStrategy(int exhibitCount) {
+        if (latencyBudgetMillis <= 0 || exhibitCount <= 1) {
+            return Strategy.GREEDY;
+        }
+        double exactNanos = HeldKarpPlanner.estimateOperations(exhibitCount) * NANOS_PER_EXACT_OPERATION;
+        if (exhibitCount <= HeldKarpPlanner.MAX_EXHIBITS && exactNanos <= latencyBudgetMillis * 1e6) {
+            return Strategy.EXACT;
+        }
+        return Strategy.LOCAL_SEARCH;
+    }
+
+    @Override
+    public int[] plan(DistanceTable table) {
+        switch (getStrategy(table.getRowCount() - 2)) {
+            case EXACT:
+                return exactPlanner.plan(table);
+            case LOCAL_SEARCH:
+                return localSearchPlanner.plan(table);
+            default:
+                return greedyPlanner.plan(table);
+        }
+    }
+}
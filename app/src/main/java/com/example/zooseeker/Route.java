@@ -1,14 +1,15 @@
 package com.example.zooseeker;
 
 import android.location.Location;
+import android.util.Log;
 
-import org.jgrapht.Graph;
 import org.jgrapht.GraphPath;
-import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * This class represents a zoo route, using a array
@@ -56,12 +57,47 @@ public class Route {
 
     // Fields for routing
     public ArrayList<Waypoint> routeOrder = new ArrayList<>();
-    private DijkstraShortestPath dijkstraShortestPath;
+    private DistanceOracle distanceOracle;
+    private RoutePlanner planner;
+    private RoutePlanner.Strategy planStrategy;
 
-    // Zoo data objects
-    private Graph<String, IdentifiedWeightedEdge> zooGraph;
+    // Incremented whenever the order or visited waypoints change, so dependents know to refresh
+    private int revision = 0;
+
+    // Index of the next waypoint to visit: waypoints before it are visited, the rest are not
+    private int cursor = 0;
+
+    // Path weight of the leg to each waypoint, and along the route up to each waypoint, indexed
+    // like routeOrder. Kept up to date whenever the order changes
+    private double[] legDistances = new double[0];
+    private double[] cumulativeDistances = new double[0];
+
+    // Walking pace for time estimates, as distances are in feet (about 3 mph)
+    public static final double WALKING_FEET_PER_MINUTE = 264.0;
+
+    // Incremental replanning repairs the current order on reroutes instead of planning anew
+    private static final int REPAIR_EVALUATIONS_PER_EXHIBIT = 8;
+    private static final long REPAIR_MILLIS = 5;
+    private boolean incrementalReplanning = false;
+
+    // Turns direction steps into text, shared as the default templates never change
+    private static final DirectionsRenderer DIRECTIONS_RENDERER = new DirectionsRenderer();
+
+    // Stops and distances of the latest full plan, reused by incremental replanning
+    private Map<String, Integer> plannedStops;
+    private DistanceTable plannedTable;
+
+    // Where the first leg starts, and edge ordinals of legs between waypoints found so far (keyed
+    // by legKey), which are saved with the route and restored with it
+    private String startId;
+    private final Map<Long, int[]> legPaths = new HashMap<>();
+
+    // Zoo data objects. The graph and trail info are only fetched from the model when an edge is
+    // described, as models read from binary build them on first use
+    private ZooModel zooModel;
     private Map<String, ZooData.VertexInfo> exhibitInfo;
-    private Map<String, ZooData.EdgeInfo> trailInfo;
+    private ZooGraphIndex graphIndex;
+    private DirectionsCache directionsCache;
 
     /**
      * Constructs a Route based on a zoo graph reader with access to zoo .json files,
@@ -71,32 +107,271 @@ public class Route {
      * @param startId - Starting location of user
      */
     public Route(DataFilesReader graphReader, ArrayList<String> exhibitIds, String startId) {
+        this(graphReader.getModel(), exhibitIds, startId);
+    }
+
+    /**
+     * Constructs a Route based on a loaded zoo model, a list of exhibits to visit,
+     *  and a starting location
+     * @param zooModel - parsed zoo data, shared with every other route on the same zoo
+     * @param exhibitIds - List of exhibits to visit
+     * @param startId - Starting location of user
+     */
+    public Route(ZooModel zooModel, ArrayList<String> exhibitIds, String startId) {
+        this(zooModel, exhibitIds, startId, new GreedyPlanner());
+    }
+
+    /**
+     * Constructs a Route based on a loaded zoo model, a list of exhibits to visit,
+     *  a starting location, and the strategy used to order exhibits
+     * @param zooModel - parsed zoo data, shared with every other route on the same zoo
+     * @param exhibitIds - List of exhibits to visit
+     * @param startId - Starting location of user
+     * @param planner - strategy ordering exhibits, used for this route and its reroutes
+     */
+    public Route(ZooModel zooModel, ArrayList<String> exhibitIds, String startId, RoutePlanner planner) {
         // Get graph objects
-        this.zooGraph = graphReader.getGraph();
-        this.exhibitInfo = graphReader.getVertexInfo();
-        this.trailInfo = graphReader.getEdgeInfo();
+        this.zooModel = zooModel;
+        this.exhibitInfo = zooModel.getVertexInfo();
+        this.distanceOracle = zooModel.getDistanceOracle();
+        this.graphIndex = distanceOracle.getGraphIndex();
+        this.directionsCache = zooModel.getDirectionsCache();
+        this.planner = planner;
+        this.startId = startId;
+
+        // Order exhibits to visit, then add exit gate waypoint to end of route order
+        this.routeOrder.addAll(planWaypoints(startId, exhibitIds));
+        this.routeOrder.add(getWaypoint("entrance_exit_gate"));
+        updateLegDistances(0);
+    }
 
-        // Unvisited exhibits array keeps track of which exhibits to find a path to
-        ArrayList<String> unvisitedExhibitIds = new ArrayList<>(exhibitIds);
+    /**
+     * Copy ctor, for replanning a route off the main thread while the original stays in use.
+     *  Waypoints are copied, so the copy can be advanced and reordered independently
+     * @param other - route to copy
+     */
+    public Route(Route other) {
+        this.zooModel = other.zooModel;
+        this.exhibitInfo = other.exhibitInfo;
+        this.distanceOracle = other.distanceOracle;
+        this.graphIndex = other.graphIndex;
+        this.directionsCache = other.directionsCache;
+        this.planner = other.planner;
+        this.planStrategy = other.planStrategy;
+        this.incrementalReplanning = other.incrementalReplanning;
+        this.revision = other.revision;
+        this.plannedStops = other.plannedStops;
+        this.plannedTable = (other.plannedTable == null) ? null : new DistanceTable(other.plannedTable);
+        this.startId = other.startId;
+        this.legPaths.putAll(other.legPaths);
+        this.cursor = other.cursor;
+        this.legDistances = other.legDistances.clone();
+        this.cumulativeDistances = other.cumulativeDistances.clone();
+
+        for (Waypoint waypoint : other.routeOrder) {
+            Waypoint copy = new Waypoint(waypoint.id, waypoint.name, waypoint.groupName, waypoint.location);
+            copy.setVisited(waypoint.visited);
+            this.routeOrder.add(copy);
+        }
+    }
 
-        // Create DSP object to compute path costs
-        this.dijkstraShortestPath =  new DijkstraShortestPath<>(zooGraph);
+    /**
+     * Restores a saved route, with the waypoints' order, visited flags, leg paths and leg
+     *  distances as saved. Nothing is planned or searched for; the first reroute replans the
+     *  remaining exhibits in full, as the distance table of the original plan is not saved
+     * @param zooModel - parsed zoo data the route was planned on
+     * @param savedWaypoints - waypoints of the route in order, as made by toWaypointItems()
+     */
+    public Route(ZooModel zooModel, List<RouteWaypointItem> savedWaypoints) {
+        this.zooModel = zooModel;
+        this.exhibitInfo = zooModel.getVertexInfo();
+        this.distanceOracle = zooModel.getDistanceOracle();
+        this.graphIndex = distanceOracle.getGraphIndex();
+        this.directionsCache = zooModel.getDirectionsCache();
+        this.planner = new GreedyPlanner();
+
+        for (RouteWaypointItem saved : savedWaypoints) {
+            Waypoint waypoint = getWaypoint(saved.waypointId);
+            waypoint.setVisited(saved.visited);
+            this.routeOrder.add(waypoint);
+            if (saved.visited && cursor == routeOrder.size() - 1) cursor++;
+
+            // Legs which no longer fit the graph are searched for again when needed
+            if (!saved.legPath.isEmpty()) {
+                int[] pathEdges = graphIndex.findPathEdges(saved.legPath);
+                if (pathEdges != null) {
+                    legPaths.put(legKey(graphIndex.getRoutingOrdinal(saved.legStartId),
+                            graphIndex.getRoutingOrdinal(saved.waypointId)), pathEdges);
+                }
+            }
+        }
+        if (!savedWaypoints.isEmpty()) {
+            this.startId = savedWaypoints.get(0).legStartId;
+        }
+
+        // Leg distances are restored as saved. Legs saved without one are measured along their
+        // restored path, and only legs which did not fit the graph either are searched
+        this.legDistances = new double[routeOrder.size()];
+        this.cumulativeDistances = new double[routeOrder.size()];
+        double total = 0.0;
+        for (int i = 0; i < routeOrder.size(); i++) {
+            double savedDistance = savedWaypoints.get(i).legDistance;
+            if (!Double.isInfinite(savedDistance) && !Double.isNaN(savedDistance)) {
+                legDistances[i] = savedDistance;
+            } else {
+                int legStart = graphIndex.getRoutingOrdinal(getLegStartId(i));
+                int[] pathEdges = legPaths.get(legKey(legStart, graphIndex.getRoutingOrdinal(routeOrder.get(i).id)));
+                legDistances[i] = (pathEdges != null)
+                        ? graphIndex.getPathWeight(pathEdges) : getPathWeight(getLegStartId(i), routeOrder.get(i).id);
+            }
+            total += legDistances[i];
+            cumulativeDistances[i] = total;
+        }
+    }
 
-        // Create starting waypoint based on user location, and add to route ordering
-        String currExhibitId = startId;
+    /**
+     * Saves the route's waypoints in order, each with the leg leading to it, for restoring later
+     *  with Route(ZooModel, List). Finds the path of every leg not found before
+     * @return one item per waypoint, including the exit gate
+     */
+    public List<RouteWaypointItem> toWaypointItems() {
+        List<RouteWaypointItem> items = new ArrayList<>();
+        for (int i = 0; i < routeOrder.size(); i++) {
+            Waypoint waypoint = routeOrder.get(i);
+            int[] pathEdges = getLegEdges(i);
+            List<String> legPath = new ArrayList<>();
+            double legDistance = Double.POSITIVE_INFINITY;
+            if (pathEdges != null) {
+                // Vertices walked through, from the leg's start
+                int vertex = graphIndex.getRoutingOrdinal(getLegStartId(i));
+                legPath.add(graphIndex.getVertexId(vertex));
+                for (int e : pathEdges) {
+                    vertex = graphIndex.getOtherEndpoint(e, vertex);
+                    legPath.add(graphIndex.getVertexId(vertex));
+                }
+                legDistance = graphIndex.getPathWeight(pathEdges);
+            }
+            items.add(new RouteWaypointItem(i, waypoint.id, getLegStartId(i), waypoint.visited,
+                    legDistance, legPath));
+        }
+        return items;
+    }
+
+    /**
+     * Returns where the leg to a waypoint starts: the previous waypoint, or the start of the
+     *  route for the first waypoint
+     * @param index - index of waypoint in route order
+     * @return id of leg's starting location
+     */
+    public String getLegStartId(int index) {
+        return (index == 0) ? startId : routeOrder.get(index - 1).id;
+    }
 
-        // Loop through all exhibits of interest until we visit all of them
-        while(unvisitedExhibitIds.size() > 0) {
-            String nextExhibitId = closestExhibitId(currExhibitId, unvisitedExhibitIds);
-            routeOrder.add(getWaypoint(nextExhibitId));
+    /**
+     * Returns the path of the leg to a waypoint, remembered for the route's lifetime
+     * @param index - index of waypoint in route order
+     * @return shortest path from the leg's start to the waypoint, null if unreachable
+     */
+    public GraphPath<String, IdentifiedWeightedEdge> getLegPath(int index) {
+        int[] pathEdges = getLegEdges(index);
+        return (pathEdges == null)
+                ? null : graphIndex.toGraphPath(graphIndex.getRoutingOrdinal(getLegStartId(index)), pathEdges);
+    }
 
-            // Advance to next exhibit, remove from consideration
-            currExhibitId = nextExhibitId;
-            unvisitedExhibitIds.remove(nextExhibitId);
+    /**
+     * Returns the edges of the leg to a waypoint, remembered for the route's lifetime
+     * @param index - index of waypoint in route order
+     * @return edge ordinals from the leg's start to the waypoint, null if unreachable
+     */
+    private int[] getLegEdges(int index) {
+        int legStart = graphIndex.getRoutingOrdinal(getLegStartId(index));
+        int waypoint = graphIndex.getRoutingOrdinal(routeOrder.get(index).id);
+        long key = legKey(legStart, waypoint);
+        int[] pathEdges = legPaths.get(key);
+        if (pathEdges == null) {
+            pathEdges = distanceOracle.getPathEdges(legStart, waypoint);
+            if (pathEdges != null) legPaths.put(key, pathEdges);
         }
+        return pathEdges;
+    }
 
-        // Add exit gate waypoint to end of route order
-        this.routeOrder.add(getWaypoint("entrance_exit_gate"));
+    /**
+     * Key of a leg in legPaths, between the vertex ordinals of two locations (group members are
+     *  reached at their group's vertex)
+     */
+    private static long legKey(int start, int end) {
+        return ((long) start << 32) | end;
+    }
+
+    /**
+     * Sets the strategy used to order exhibits in future reroutes
+     * @param planner - strategy ordering exhibits
+     */
+    public void setPlanner(RoutePlanner planner) {
+        this.planner = planner;
+    }
+
+    /**
+     * Sets whether reroutes and skips repair the current order (a few distance lookups per
+     *  remaining exhibit) or replan the remaining exhibits from scratch with the route's planner
+     * @param incrementalReplanning - true to repair, false to replan
+     */
+    public void setIncrementalReplanning(boolean incrementalReplanning) {
+        this.incrementalReplanning = incrementalReplanning;
+    }
+
+    /**
+     * Returns the revision of the route, which changes whenever exhibits are visited, unvisited,
+     *  skipped or reordered
+     * @return revision number
+     */
+    public int getRevision() {return revision;}
+
+    /**
+     * Returns the strategy which ordered the exhibits in the latest plan or reroute
+     * @return planning strategy used
+     */
+    public RoutePlanner.Strategy getPlanStrategy() {return planStrategy;}
+
+    /**
+     * Orders exhibits with the route's planner, from a start location to the exit gate
+     * @param startId - location the route starts from
+     * @param exhibitIds - exhibits to visit
+     * @return waypoints of exhibits, in order of visitation (excluding exit gate)
+     */
+    private ArrayList<Waypoint> planWaypoints(String startId, List<String> exhibitIds) {
+        // Stop 0 is the start, then the exhibits, then the exit gate
+        ArrayList<String> stops = new ArrayList<>();
+        stops.add(startId);
+        stops.addAll(exhibitIds);
+        stops.add("entrance_exit_gate");
+
+        // Table of distances between every pair of stops, looking up each stop's vertex once
+        int[] stopVertices = new int[stops.size()];
+        for (int i = 0; i < stops.size(); i++) {
+            stopVertices[i] = graphIndex.getRoutingOrdinal(stops.get(i));
+        }
+        DistanceTable table = distanceOracle.getDistanceTable(stopVertices, stopVertices);
+
+        // Keep distances between stops for later repairs
+        this.plannedStops = new HashMap<>();
+        for (int i = 0; i < stops.size(); i++) {
+            plannedStops.put(stops.get(i), i);
+        }
+        this.plannedTable = table;
+
+        // Record which strategy ordered the exhibits, so it can be tracked
+        long startTime = System.nanoTime();
+        int[] order = planner.plan(table);
+        this.planStrategy = planner.getStrategy(exhibitIds.size());
+        Log.d("ZooSeeker", String.format("Planned %d exhibits (%s) in %d ms", exhibitIds.size(),
+                planStrategy, (System.nanoTime() - startTime) / 1_000_000));
+
+        ArrayList<Waypoint> waypoints = new ArrayList<>();
+        for (int stop : order) {
+            waypoints.add(getWaypoint(stops.get(stop)));
+        }
+        return waypoints;
     }
 
     /**
@@ -138,8 +413,9 @@ public class Route {
         double tempPathWeight;
 
         // Find the closest vertex to startId's location
+        int start = graphIndex.getRoutingOrdinal(startId);
         for (String vertex : exhibitsToConsider) {
-            tempPathWeight = getPathWeight(startId, vertex);
+            tempPathWeight = getPathWeight(start, graphIndex.getRoutingOrdinal(vertex));
 
             if (tempPathWeight < resultPathWeight) {
                 result = vertex;
@@ -156,15 +432,22 @@ public class Route {
      * @return GraphPath from locationA to locationB
      */
     public GraphPath<String, IdentifiedWeightedEdge> getPath(String startId, String endId) {
-        String exhibitGroupIdA = Objects.requireNonNull(exhibitInfo.get(startId)).group_id;
-        String exhibitGroupIdB = exhibitInfo.get(endId).group_id;
-        if (exhibitGroupIdA != null) {
-            startId = exhibitGroupIdA;
-        }
-        if (exhibitGroupIdB != null) {
-            endId = exhibitGroupIdB;
-        }
-        return dijkstraShortestPath.getPath(startId, endId);
+        int start = graphIndex.getRoutingOrdinal(startId);
+        int[] pathEdges = getPathEdges(start, graphIndex.getRoutingOrdinal(endId));
+        return (pathEdges == null) ? null : graphIndex.toGraphPath(start, pathEdges);
+    }
+
+    /**
+     * Returns the edges of the shortest path between two vertices, preferring known legs
+     * @param start - ordinal of starting vertex
+     * @param end - ordinal of destination vertex
+     * @return edge ordinals in travel order, null if unreachable
+     */
+    private int[] getPathEdges(int start, int end) {
+        // Legs of the route may already be known, e.g. restored with a saved route
+        int[] legPath = legPaths.get(legKey(start, end));
+        if (legPath != null) return legPath;
+        return distanceOracle.getPathEdges(start, end);
     }
 
     /**
@@ -174,17 +457,209 @@ public class Route {
      * @return double path weight from locationA to locationB
      */
     public double getPathWeight(String startId, String endId) {
-        String exhibitGroupIdA = exhibitInfo.get(startId).group_id;
-        String exhibitGroupIdB = exhibitInfo.get(endId).group_id;
-        if (exhibitGroupIdA != null) {
-            startId = exhibitGroupIdA;
+        return distanceOracle.getPathWeight(graphIndex.getRoutingOrdinal(startId), graphIndex.getRoutingOrdinal(endId));
+    }
+
+    /**
+     * Returns the path weight between two vertices of the route's graph index
+     * @param start - ordinal of starting vertex
+     * @param end - ordinal of destination vertex
+     * @return double path weight from start to end
+     */
+    public double getPathWeight(int start, int end) {
+        return distanceOracle.getPathWeight(start, end);
+    }
+
+    /**
+     * Fills in path weights between a location and every vertex of the route's graph index, with
+     *  one search
+     * @param locationId - location to find path weights from (and to)
+     * @param weights - array filled in by vertex ordinal, of the graph index's vertex count
+     */
+    public void getPathWeights(String locationId, double[] weights) {
+        distanceOracle.getPathWeights(graphIndex.getRoutingOrdinal(locationId), weights);
+    }
+
+    /**
+     * Returns path weights from each of a list of locations to each of another, with one search
+     *  per source rather than one per pair
+     * @param sourceIds - locations to find path weights from, one per table row
+     * @param targetIds - locations to find path weights to, one per table column
+     * @return table of path weights
+     */
+    public DistanceTable getDistanceTable(List<String> sourceIds, List<String> targetIds) {
+        return distanceOracle.getDistanceTable(getRoutingOrdinals(sourceIds), getRoutingOrdinals(targetIds));
+    }
+
+    private int[] getRoutingOrdinals(List<String> locationIds) {
+        int[] ordinals = new int[locationIds.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = graphIndex.getRoutingOrdinal(locationIds.get(i));
+        }
+        return ordinals;
+    }
+
+    /**
+     * Returns the distance along the route from a start location to each waypoint, as
+     *  getTotalDistance() would for every waypoint. The rest come from the route's cumulative
+     *  distances, so at most the first leg is searched for
+     * @param startId - start of route
+     * @return distances indexed like routeOrder
+     */
+    public double[] getCumulativeDistances(String startId) {
+        double[] cumulative = new double[routeOrder.size()];
+        if (cumulative.length == 0) return cumulative;
+        double firstLeg = getFirstLegDistance(startId);
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] = firstLeg + (cumulativeDistances[i] - legDistances[0]);
+        }
+        return cumulative;
+    }
+
+    /**
+     * Returns the distance from a start location to the route's first waypoint, from the cached
+     *  leg if it is where the route was planned from
+     * @param startId - start of route
+     * @return path weight of first leg
+     */
+    private double getFirstLegDistance(String startId) {
+        if (startId.equals(this.startId)) {
+            return legDistances[0];
         }
-        if (exhibitGroupIdB != null) {
-            endId = exhibitGroupIdB;
+        return getPathWeight(startId, routeOrder.get(0).id);
+    }
+
+    /**
+     * Recomputes the distances of legs from a waypoint onwards, after the order changed there,
+     *  and the distances along the route to each waypoint with a prefix sum over the legs
+     * @param from - index of first waypoint whose leg may have changed
+     */
+    private void updateLegDistances(int from) {
+        int size = routeOrder.size();
+        double[] legs = Arrays.copyOf(legDistances, size);
+        double[] cumulative = Arrays.copyOf(cumulativeDistances, size);
+        from = Math.max(0, Math.min(from, legDistances.length));
+
+        double total = (from == 0) ? 0.0 : cumulative[from - 1];
+        for (int i = from; i < size; i++) {
+            legs[i] = getPlannedDistance(getLegStartId(i), routeOrder.get(i).id);
+            total += legs[i];
+            cumulative[i] = total;
         }
-        return dijkstraShortestPath.getPathWeight(startId, endId);
+        this.legDistances = legs;
+        this.cumulativeDistances = cumulative;
     }
 
+    /**
+     * Returns the path weight between two locations, from the latest plan's distance table if
+     *  both were stops in it, so that legs between planned exhibits need no search
+     * @param startId - starting location id
+     * @param endId - ending location id
+     * @return path weight from start to end
+     */
+    private double getPlannedDistance(String startId, String endId) {
+        if (plannedTable != null) {
+            Integer start = plannedStops.get(startId);
+            Integer end = plannedStops.get(endId);
+
+            // Stop 0's distances are rewritten for every new start by repairs
+            if (start != null && end != null && start != 0 && end != 0) {
+                return plannedTable.get(start, end);
+            }
+        }
+        return getPathWeight(startId, endId);
+    }
+
+    /**
+     * Returns the distance of the leg to a waypoint, from the previous waypoint (or the start)
+     * @param index - index of waypoint in route order
+     * @return leg path weight
+     */
+    public double getLegDistance(int index) {
+        return legDistances[index];
+    }
+
+    /**
+     * Returns the distance along the route from its start to a waypoint
+     * @param index - index of waypoint in route order
+     * @return sum of leg path weights up to and including the waypoint's
+     */
+    public double getCumulativeDistance(int index) {
+        return cumulativeDistances[index];
+    }
+
+    /**
+     * Returns the length of the whole route, from its start back to the exit gate
+     * @return total path weight
+     */
+    public double getRouteDistance() {
+        return cumulativeDistances.length == 0 ? 0.0 : cumulativeDistances[cumulativeDistances.length - 1];
+    }
+
+    /**
+     * Returns the distance along the route up to the last visited waypoint
+     * @return path weight walked so far, 0 at the start
+     */
+    public double getCompletedDistance() {
+        return (cursor == 0) ? 0.0 : cumulativeDistances[cursor - 1];
+    }
+
+    /**
+     * Returns the distance along the route from the last visited waypoint to the exit gate
+     * @return path weight left to walk
+     */
+    public double getRemainingDistance() {
+        return getRouteDistance() - getCompletedDistance();
+    }
+
+    /**
+     * Returns the distance left from a location: to the next waypoint, then along the route to
+     *  the exit gate
+     * @param locationId - location closest to user
+     * @return path weight left to walk
+     */
+    public double getRemainingDistance(String locationId) {
+        if (cursor >= routeOrder.size()) return 0.0;
+        return getPathWeight(locationId, routeOrder.get(cursor).id)
+                + (getRouteDistance() - cumulativeDistances[cursor]);
+    }
+
+    /**
+     * Returns the fraction of the route walked, by distance
+     * @return progress from 0 at the start to 1 once every waypoint is visited
+     */
+    public double getProgress() {
+        double routeDistance = getRouteDistance();
+        if (routeDistance <= 0.0) return (cursor >= routeOrder.size()) ? 1.0 : 0.0;
+        return getCompletedDistance() / routeDistance;
+    }
+
+    /**
+     * Returns an estimate of the walking time left from a location, at WALKING_FEET_PER_MINUTE
+     * @param locationId - location closest to user
+     * @return minutes left to walk
+     */
+    public double getEstimatedMinutesRemaining(String locationId) {
+        return getEstimatedMinutes(getRemainingDistance(locationId));
+    }
+
+    /**
+     * Returns an estimate of the walking time for a distance, at WALKING_FEET_PER_MINUTE, e.g. for
+     *  a remaining distance already looked up
+     * @param distance - distance to walk, in feet
+     * @return minutes to walk
+     */
+    public static double getEstimatedMinutes(double distance) {
+        return distance / WALKING_FEET_PER_MINUTE;
+    }
+
+    /**
+     * Returns the index of the graph the route is planned on, whose ordinals getPathWeight(int, int)
+     *  takes
+     * @return graph index
+     */
+    public ZooGraphIndex getGraphIndex() {return graphIndex;}
+
     /**
      * Returns the total distance from the start of route to exhibitId's exhibit
      * @param exhibitId - exhibit to go to
@@ -192,20 +667,13 @@ public class Route {
      * @return distance from start to exhibit
      */
     public double getTotalDistance(String exhibitId, String startId) {
-        double totalDistance = 0.0;
-        int currExhibitIndex = 0;
-
-        totalDistance += getPathWeight(startId, routeOrder.get(currExhibitIndex).id);
-        // Loop until exhibitId is encountered in route order
-        while (!routeOrder.get(currExhibitIndex).id.equals(exhibitId)) {
-            // Add distance between current waypoint and next waypoint
-            totalDistance += getPathWeight(
-                    routeOrder.get(currExhibitIndex).id,
-                    routeOrder.get(currExhibitIndex + 1).id);
-
-            currExhibitIndex++;
+        int index = 0;
+        while (!routeOrder.get(index).id.equals(exhibitId)) {
+            index++;
         }
-        return totalDistance;
+
+        // Route's own first leg is swapped for the one from startId
+        return getFirstLegDistance(startId) + (cumulativeDistances[index] - legDistances[0]);
     }
 
     /**
@@ -213,7 +681,7 @@ public class Route {
      * @return true if no exhibits have been visited yet
      */
     public boolean atStart() {
-        return !routeOrder.get(0).visited;
+        return cursor == 0;
     }
 
     /**
@@ -221,7 +689,7 @@ public class Route {
      * @return true if route ended
      */
     public boolean reachedEnd() {
-        return routeOrder.get(routeOrder.size() - 2).visited;
+        return cursor >= routeOrder.size() - 1;
     }
 
     /**
@@ -229,13 +697,7 @@ public class Route {
      * @return index of next waypoint in route order array
      */
     public int getNextExhibitIndex() {
-        int currWaypointIndex = 0;
-
-        // Loops until unvisited waypoint, returns index of next exhibit to visit
-        while (routeOrder.get(currWaypointIndex).visited) {
-            currWaypointIndex++;
-        }
-        return currWaypointIndex;
+        return cursor;
     }
 
     /**
@@ -244,12 +706,14 @@ public class Route {
      * @return List of Strings representing directions to next exhibit
      */
     public ArrayList<String> advanceToNextExhibit(String startId) {
-        Waypoint nextWaypoint = routeOrder.get(getNextExhibitIndex());
+        Waypoint nextWaypoint = routeOrder.get(cursor);
 
         ArrayList<String> directionsList = getDetailedDirections(startId, nextWaypoint.id);
 
         // Update current waypoint to be visited already
         nextWaypoint.setVisited(true);
+        cursor++;
+        revision++;
 
         return directionsList;
     }
@@ -259,11 +723,13 @@ public class Route {
      * @return List of Strings representing directions to last exhibit
      */
     public ArrayList<String> returnToPreviousExhibit(String startId) {
-        Waypoint lastVisitedWaypoint = routeOrder.get(getNextExhibitIndex() - 1);
+        Waypoint lastVisitedWaypoint = routeOrder.get(cursor - 1);
 
         ArrayList<String> directionsList = getDetailedDirections(startId, lastVisitedWaypoint.id);
 
         lastVisitedWaypoint.setVisited(false);
+        cursor--;
+        revision++;
 
         return directionsList;
     }
@@ -291,31 +757,44 @@ public class Route {
      * @return ArrayList of directions from start to end locations (detailed)
      */
     public ArrayList<String> getDetailedDirections(String startId, String endId) {
-        ArrayList<String> directionsList = new ArrayList<>();
-
-        // Get path of travel
-        GraphPath<String, IdentifiedWeightedEdge> path = getPath(startId, endId);
-
-        String currLocationId = startId;
-        String nextLocationId;
-        String prevStreet = null;
+        // Redraws ask for the same directions over and over, only generate them once
+        List<String> directions = directionsCache.get(startId, endId, false);
+        if (directions == null) {
+            directions = directionsCache.put(startId, endId, false, generateDetailedDirections(startId, endId));
+        }
+        return new ArrayList<>(directions);
+    }
 
-        // Generate detailed directions for each path
-        for (IdentifiedWeightedEdge e : path.getEdgeList()) {
-            // Disambiguate next location's id (due to undirected graph)
-            if (currLocationId.equals(zooGraph.getEdgeSource(e))) {
-                nextLocationId = zooGraph.getEdgeTarget(e);
-            } else {
-                nextLocationId = zooGraph.getEdgeSource(e);
-            }
+    /**
+     * Generates detailed directions from a starting location to ending location
+     * @param startId - starting location id
+     * @param endId - ending exhibit id
+     * @return ArrayList of directions from start to end locations (detailed)
+     */
+    private ArrayList<String> generateDetailedDirections(String startId, String endId) {
+        return DIRECTIONS_RENDERER.renderAll(getDirectionSteps(startId, endId, false), false);
+    }
 
-            // Get directions and update current location ID
-            directionsList.add(edgeToDirection(e, nextLocationId, prevStreet));
-            currLocationId = nextLocationId;
-            prevStreet = trailInfo.get(e.getId()).street;
+    /**
+     * Returns the structured steps of directions from startId to endId
+     * @param startId - starting id location in zoo
+     * @param endId - ending id location in zoo
+     * @param brief - true to merge steps along the same street
+     * @return ArrayList of steps from start to end locations
+     */
+    public ArrayList<DirectionStep> getDirectionSteps(String startId, String endId, boolean brief) {
+        int start = graphIndex.getRoutingOrdinal(startId);
+        int[] pathEdges = getPathEdges(start, graphIndex.getRoutingOrdinal(endId));
+        ArrayList<DirectionStep> steps = DirectionStep.fromPath(graphIndex, start, pathEdges);
+        if (!brief) return steps;
+
+        steps = DirectionStep.mergeStreets(steps);
+        // Brief directions always have one step, even when already there
+        if (steps.isEmpty()) {
+            ZooData.VertexInfo startInfo = exhibitInfo.get(startId);
+            steps.add(new DirectionStep(null, 0.0, startId, startInfo.name, startInfo.kind, false));
         }
-
-        return directionsList;
+        return steps;
     }
 
     /**
@@ -325,55 +804,21 @@ public class Route {
      * @return ArrayList of directions (brief)
      */
     public ArrayList<String> getBriefDirections(String startId, String endId) {
-        ArrayList<String> directionsList = new ArrayList<>();
-
-        // Get path of travel
-        GraphPath<String, IdentifiedWeightedEdge> path = getPath(startId, endId);
-
-        String currLocationId = startId;
-        String nextLocationId;
-        String prevStreet = null;
-        String currStreet;
-
-        String currentDirections = "";
-        double totalDistance = 0.0;
-
-        for (IdentifiedWeightedEdge e : path.getEdgeList()) {
-            // Find next location ID
-            if (currLocationId.equals(zooGraph.getEdgeSource(e))) {
-                nextLocationId = zooGraph.getEdgeTarget(e);
-            } else {
-                nextLocationId = zooGraph.getEdgeSource(e);
-            }
-
-            currStreet = trailInfo.get(e.getId()).street;
-
-            // If first street, initialize beginning of first direction set
-            if (prevStreet == null) {
-                currentDirections = "Proceed on " + currStreet;
-                totalDistance += zooGraph.getEdgeWeight(e);
-            }
-            // If same street as previous, do not generate new directions
-            else if (prevStreet.equals(currStreet)) {
-                totalDistance += zooGraph.getEdgeWeight(e);
-            }
-            // If new street, finish previous directions with total distance, start new directions
-            else {
-                currentDirections = currentDirections + " " + totalDistance + " ft towards "
-                        + exhibitInfo.get(currLocationId).name;
-                directionsList.add(currentDirections);
-                currentDirections = "Proceed on " + currStreet;
-                totalDistance = zooGraph.getEdgeWeight(e);
-            }
-
-            currLocationId = nextLocationId;
-            prevStreet = currStreet;
+        List<String> directions = directionsCache.get(startId, endId, true);
+        if (directions == null) {
+            directions = directionsCache.put(startId, endId, true, generateBriefDirections(startId, endId));
         }
-        currentDirections = currentDirections + " " + totalDistance + " ft towards "
-                + exhibitInfo.get(currLocationId).name;
-        directionsList.add(currentDirections);
+        return new ArrayList<>(directions);
+    }
 
-        return directionsList;
+    /**
+     * Generates brief directions from startId to endId
+     * @param startId - starting id location in zoo
+     * @param endId - ending id location in zoo
+     * @return ArrayList of directions (brief)
+     */
+    private ArrayList<String> generateBriefDirections(String startId, String endId) {
+        return DIRECTIONS_RENDERER.renderAll(getDirectionSteps(startId, endId, true), true);
     }
 
     /**
@@ -385,25 +830,9 @@ public class Route {
      */
     public String edgeToDirection(IdentifiedWeightedEdge e, String nextLocation, String prevStreet)
     {
-        // Get street name, distance to walk, and destination vertex name
-        String street = trailInfo.get(e.getId()).street;
-        double distance = zooGraph.getEdgeWeight(e);
-        String destination = (exhibitInfo.get(nextLocation).name);
-
-        // Initialize result. If the directions is still on the same street, say "Continue..."
-        String result;
-        if ((prevStreet != null) && (prevStreet.equals(street))) {
-            result = "Continue on ";
-        }
-        else {
-            result = "Proceed on ";
-        }
-        // Add street name, distance, and destination vertex to direction result
-        result = result + street + " " + (int) distance + " ft towards " + destination;
-        if (exhibitInfo.get(nextLocation).kind.toString().equals("EXHIBIT")) {
-            result = result + " Exhibit";
-        }
-        return result;
+        return DIRECTIONS_RENDERER.render(
+                DirectionStep.fromEdge(e, nextLocation, prevStreet, zooModel.getGraph(), exhibitInfo,
+                        zooModel.getEdgeInfo()), false);
     }
 
     /**
@@ -411,32 +840,93 @@ public class Route {
      * @param startId - Id of nearest zoo location to user
      */
     public void reroute(String startId) {
-        // Unvisited exhibits array keeps track of which exhibits to find a path to
-        ArrayList<String> unvisitedExhibitIds = new ArrayList<>();
+        revision++;
+        if (cursor == 0) this.startId = startId;
+        if (!incrementalReplanning || !repairRoute(startId)) {
+            // Unvisited exhibits array keeps track of which exhibits to find a path to
+            ArrayList<String> unvisitedExhibitIds = new ArrayList<>();
+
+            // Get id's of all unvisited exhibits of interest
+            for (Waypoint unvisitedWaypoint : routeOrder.subList(cursor, routeOrder.size() - 1)) {
+                unvisitedExhibitIds.add(unvisitedWaypoint.id);
+            }
 
-        // Get id's of all unvisited exhibits of interest
-        for (Waypoint unvisitedWaypoint :
-                routeOrder.subList(getNextExhibitIndex(), routeOrder.size() - 1)) {
-            unvisitedExhibitIds.add(unvisitedWaypoint.id);
-        }
+            // Remove all unvisited exhibits from route list, to be added later in different order
+            routeOrder = new ArrayList<>(routeOrder.subList(0, cursor));
+            routeOrder.addAll(planWaypoints(startId, unvisitedExhibitIds));
 
-        // Remove all unvisited exhibits from route list, to be added later in different order
-        routeOrder = new ArrayList<>(routeOrder.subList(0, getNextExhibitIndex()));
+            // Re-add gate waypoint to end of route order
+            this.routeOrder.add(getWaypoint("entrance_exit_gate"));
+        }
 
-        String currExhibitId = startId;
+        // Only legs from the next waypoint on can have changed
+        updateLegDistances(cursor);
+    }
 
-        // Loop through all exhibits of interest until we visit all of them
-        while(unvisitedExhibitIds.size() > 0) {
-            String nextExhibitId = closestExhibitId(currExhibitId, unvisitedExhibitIds);
-            routeOrder.add(getWaypoint(nextExhibitId));
+    /**
+     * Repairs the order of remaining exhibits for a new start location, reusing the distances of
+     *  the latest full plan. The route is first entered at its best exhibit (walking the
+     *  exhibits before it in reverse), then improved by a bounded local search. Costs O(n)
+     *  distance lookups, against O(n^2) for a full replan
+     * @param startId - Id of nearest zoo location to user
+     * @return false if the route could not be repaired (e.g. exhibits missing from the latest
+     *  plan), in which case it is left unchanged
+     */
+    private boolean repairRoute(String startId) {
+        List<Waypoint> unvisited = routeOrder.subList(cursor, routeOrder.size() - 1);
+        if (unvisited.isEmpty()) return true;
+        if (plannedTable == null) return false;
+
+        // Find remaining exhibits' stops, and distances to them from the new start (stop 0)
+        int[] order = new int[unvisited.size()];
+        Map<Integer, Waypoint> waypointsByStop = new HashMap<>();
+        for (int i = 0; i < order.length; i++) {
+            Integer stop = plannedStops.get(unvisited.get(i).id);
+            if (stop == null || stop == 0 || stop == plannedTable.getRowCount() - 1
+                    || waypointsByStop.put(stop, unvisited.get(i)) != null) {
+                return false;
+            }
+            order[i] = stop;
+        }
+        int[] starts = {graphIndex.getRoutingOrdinal(startId)};
+        int[] unvisitedVertices = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            unvisitedVertices[i] = graphIndex.getRoutingOrdinal(unvisited.get(i).id);
+        }
+        DistanceTable fromStart = distanceOracle.getDistanceTable(starts, unvisitedVertices);
+        for (int i = 0; i < order.length; i++) {
+            double weight = fromStart.get(0, i);
+            plannedTable.set(0, order[i], weight);
+            plannedTable.set(order[i], 0, weight);
+        }
 
-            // Advance to next exhibit, remove from consideration
-            currExhibitId = nextExhibitId;
-            unvisitedExhibitIds.remove(nextExhibitId);
+        // Enter the route at the exhibit giving the shortest walk, reversing the exhibits before it
+        int endStop = plannedTable.getRowCount() - 1;
+        int bestEntry = 0;
+        double bestDelta = 0.0;
+        for (int i = 1; i < order.length; i++) {
+            int after = (i + 1 < order.length) ? order[i + 1] : endStop;
+            double delta = plannedTable.get(0, order[i]) + plannedTable.get(order[0], after)
+                    - plannedTable.get(0, order[0]) - plannedTable.get(order[i], after);
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                bestEntry = i;
+            }
+        }
+        for (int i = 0, j = bestEntry; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
         }
 
-        // Re-add gate waypoint to end of route order
-        this.routeOrder.add(getWaypoint("entrance_exit_gate"));
+        order = new LocalSearchPlanner(REPAIR_MILLIS, (long) REPAIR_EVALUATIONS_PER_EXHIBIT * order.length)
+                .improve(plannedTable, order);
+
+        // Reorder the remaining waypoints in place, keeping visited ones and the exit gate
+        for (int i = 0; i < order.length; i++) {
+            unvisited.set(i, waypointsByStop.get(order[i]));
+        }
+        return true;
     }
 
     /**
@@ -446,13 +936,15 @@ public class Route {
      */
     public boolean isOffTrack(String startId) {
         Waypoint nextExhibit = routeOrder.get(getNextExhibitIndex());
-        double distToNextExhibit = getPathWeight(startId, nextExhibit.id);
+        int start = graphIndex.getRoutingOrdinal(startId);
+        double distToNextExhibit = getPathWeight(start, graphIndex.getRoutingOrdinal(nextExhibit.id));
 
         // Loops through all other exhibits (excluding exit gate) and checks if they're closer
         for (int otherExhibitIndex = getNextExhibitIndex() + 1;
              otherExhibitIndex < routeOrder.size() - 1;
              otherExhibitIndex ++) {
-            if (distToNextExhibit > getPathWeight(startId, routeOrder.get(otherExhibitIndex).id)) return true;
+            int other = graphIndex.getRoutingOrdinal(routeOrder.get(otherExhibitIndex).id);
+            if (distToNextExhibit > getPathWeight(start, other)) return true;
         }
         return false;
     }
@@ -462,7 +954,7 @@ public class Route {
      * @param startId - location nearest to user
      */
     public void skipNextExhibit(String startId) {
-        routeOrder.remove(getNextExhibitIndex());
+        routeOrder.remove(cursor);
         reroute(startId);
     }
 
@@ -478,6 +970,17 @@ public class Route {
         return results;
     }
 
+    /**
+     * Finds nearest location to user location using a prebuilt spatial index
+     * @param spatialIndex - index over the zoo's locations
+     * @param userLocation - location of user as read by app
+     * @return the zoo location closest to the user
+     */
+    public static String getNearestLocationId(SpatialIndex spatialIndex, Location userLocation) {
+        int nearestLocation = spatialIndex.nearest(userLocation.getLatitude(), userLocation.getLongitude());
+        return spatialIndex.getId(nearestLocation);
+    }
+
     /**
      * Finds nearest location to user location
      * @param locationInfo - map of id's to zoo vertex info objects
@@ -21,16 +21,17 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SwitchCompat;
 
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.Locale;
 
 public class RouteActivity extends AppCompatActivity implements UserLocationTracker.LocationObserver
 {
     private UserLocationTracker tracker;
-    private DataFilesReader graphReader;
+    private ZooModel zooModel; // Null until loaded, as is the route
     private WarningUtilities warningUtilities;
-    private Map<String, ZooData.VertexInfo> vertexInfo;
+    private LocationsRepository repository;
 
     private Route route;
+    private OffTrackDetector offTrackDetector;
     private TextView directionView;
     private boolean useBriefDirections = true;
 
@@ -56,8 +57,7 @@ public class RouteActivity extends AppCompatActivity implements UserLocationTrac
                 }
         );
 
-        // Setup tracking and route
-        route = RouteSingleton.getRoute();
+        // Setup tracking, the route is set up once the zoo data is loaded
         tracker = UserLocationTrackerSingleton.getTracker();
         tracker.registerObserver(this);
 
@@ -141,16 +141,38 @@ public class RouteActivity extends AppCompatActivity implements UserLocationTrac
             builder.show();
         });
 
-        // Retrieve asset file and graph objects
+        // Load zoo data in the background, as this is the first screen if the app was killed
+        // while following a route
         Intent intent = getIntent();
-        this.graphReader = new DataFilesReader(this, intent.getExtras().getString("assets_list_file"));
-        this.vertexInfo = graphReader.getVertexInfo();
+        this.repository = new LocationsRepository(this);
+        ZooModel.getAsync(this, intent.getExtras().getString("assets_list_file"), this::onModelLoaded,
+                e -> warningUtilities.showError(this, "Could not load zoo data!"));
+    }
+
+    /**
+     * Sets up the route and directions once the zoo data is loaded
+     * @param zooModel - loaded zoo model
+     */
+    private void onModelLoaded(ZooModel zooModel) {
+        if (isFinishing()) return;
+        this.zooModel = zooModel;
+        this.offTrackDetector = new OffTrackDetector(zooModel.getGraphIndex());
 
         // Get locations
         this.userLocation = tracker.getUserLocation();
         this.nearestLocationId = getNearestLocationId();
 
-        // Set directions
+        // Set directions. If the app was killed since the route was planned, restore the saved
+        // route first
+        this.route = RouteSingleton.getRoute();
+        if (route == null) {
+            repository.loadRoute(zooModel, restored -> {
+                if (restored == null || RouteSingleton.getRoute() != null) return;
+                RouteSingleton.setRoute(restored);
+                route = restored;
+                updateDirectionsDisplay();
+            });
+        }
         updateDirectionsDisplay();
     }
 
@@ -162,14 +184,17 @@ public class RouteActivity extends AppCompatActivity implements UserLocationTrac
         // Pull user location and find nearest zoo location
         Location userLocation = this.userLocation;
         return (userLocation == null)
-                ? graphReader.getGateId() : Route.getNearestLocationId(vertexInfo, userLocation);
+                ? zooModel.getGateId() : Route.getNearestLocationId(zooModel.getSpatialIndex(), userLocation);
     }
 
     /**
      * Method handling logic to go to next exhibit in route list
      */
     private void goToNextExhibit() {
+        if (route == null) return;
         if (!route.reachedEnd()) {
+            // Pending replans were made from the route before this edit
+            RoutePlanningService.cancelPending();
             route.advanceToNextExhibit(this.nearestLocationId);
         } else {
             warningUtilities.showError(this, "Already at end of route!");
@@ -181,7 +206,9 @@ public class RouteActivity extends AppCompatActivity implements UserLocationTrac
      * Method handling logic to go to previous exhibit in route list
      */
     private void goToPrevExhibit() {
+        if (route == null) return;
         if (!route.atStart()) {
+            RoutePlanningService.cancelPending();
             route.returnToPreviousExhibit(this.nearestLocationId);
         } else {
             warningUtilities.showError(this, "No exhibit to go back to!");
@@ -190,39 +217,67 @@ public class RouteActivity extends AppCompatActivity implements UserLocationTrac
     }
 
     /**
-     * Skips the next exhibit in the route plan
+     * Skips the next exhibit in the route plan, replanning in the background
      */
     private void skipExhibit() {
+        if (route == null) return;
         if (!route.reachedEnd()) {
-            route.skipNextExhibit(this.nearestLocationId);
+            RoutePlanningService.skipNextExhibit(this.nearestLocationId, new RoutePlanningService.Callback() {
+                @Override
+                public void onRoutePlanned(Route planned) {
+                    route = planned;
+                    updateDirectionsDisplay();
+                }
+
+                @Override
+                public void onPlanningFailed(RuntimeException e) {
+                    warningUtilities.showError(RouteActivity.this, "Could not skip the exhibit, try again.");
+                    updateDirectionsDisplay();
+                }
+
+                // Superseded by a later skip (which includes this one) or by moving along the
+                // route, either way the current route is already shown
+            });
         } else {
             warningUtilities.showError(this, "Already at end of route!");
+            updateDirectionsDisplay();
         }
-        updateDirectionsDisplay();
     }
 
     /**
      * Updates the textview to have next directions, with next exhibit on top
      */
     private void updateDirectionsDisplay() {
+        // Route is still being restored
+        if (route == null) return;
+
         String directionsContent = "";
         directionsContent = directionsContent + "Next Exhibit: "
                 + route.routeOrder.get(route.getNextExhibitIndex()).name + "\n\n"
+                + formatProgress() + "\n\n"
                 + condenseDirectionsList(route.getDirectionsToNextExhibit(this.nearestLocationId, useBriefDirections));
         directionView.setText(directionsContent);
     }
 
+    /**
+     * Describes how much of the route is left, from the route's cached leg distances
+     * @return e.g. "2 of 4 stops left, 9000 ft (about 34 min)"
+     */
+    private String formatProgress() {
+        int stopsLeft = route.routeOrder.size() - route.getNextExhibitIndex();
+        double remainingDistance = route.getRemainingDistance(this.nearestLocationId);
+        return String.format(Locale.getDefault(), "%d of %d stops left, %.0f ft (about %.0f min)",
+                stopsLeft, route.routeOrder.size(), remainingDistance,
+                Route.getEstimatedMinutes(remainingDistance));
+    }
+
     /**
      * Utility function to get one string of directions
      * @param directionsList - list of strings representing direction
      * @return String representing collated directions
      */
     public static String condenseDirectionsList(ArrayList<String> directionsList) {
-        String finalString = "";
-        for (String s : directionsList) {
-            finalString = finalString + s + "\n\n";
-        }
-        return finalString;
+        return DirectionsRenderer.condense(directionsList, "\n\n");
     }
 
     /**
@@ -230,15 +285,17 @@ public class RouteActivity extends AppCompatActivity implements UserLocationTrac
      * @param location - New location of user
      */
     public void update(Location location) {
-        // Update location fields
+        // Update location fields, nearest location is found once the zoo data is loaded
         this.userLocation = location;
+        if (zooModel == null) return;
         this.nearestLocationId = getNearestLocationId();
 
-        // If user is in offtrack selection, do not request offtrack activity
-        if (in_offtrack_activity) return;
+        // If user is in offtrack selection, or route is still being restored, do not request
+        // offtrack activity
+        if (in_offtrack_activity || route == null) return;
 
         // Off-track logic: if user off-track, offer to reroute remaining exhibits
-        if (route.isOffTrack(nearestLocationId)) {
+        if (offTrackDetector.update(route, nearestLocationId)) {
             in_offtrack_activity = true;
             Intent offtrackIntent = new Intent(this, OffTrackActivity.class);
             offtrackIntent.putExtra("new_start_id", nearestLocationId);
@@ -250,9 +307,21 @@ public class RouteActivity extends AppCompatActivity implements UserLocationTrac
 
     public void onResume() {
         super.onResume();
+
+        // Route may have been replanned while away (e.g. rerouted by the off-track prompt)
+        if (zooModel == null) return;
+        Route current = RouteSingleton.getRoute();
+        if (current != null) route = current;
         updateDirectionsDisplay();
     }
 
+    public void onPause() {
+        super.onPause();
+
+        // Save progress along the route, so it can be restored if the app is killed
+        if (route != null) repository.saveRoute(route);
+    }
+
     public void onClosedClicked(View view) {
         finish();
     }
@@ -0,0 +1,30 @@
+package com.example.zooseeker;
+
+/**
+ * Strategy for ordering the exhibits of a route. Planners work on a square distance table over
+ *  the route's stops: stop 0 is the start location, stops 1..n are the exhibits to visit, and
+ *  stop n+1 is the fixed end of the route (the exit gate). Distances are assumed symmetric, as
+ *  the zoo graph is undirected.
+ */
+public interface RoutePlanner {
+    // Kinds of planning strategy, reported so the strategy behind each route can be tracked
+    enum Strategy {
+        GREEDY,
+        LOCAL_SEARCH,
+        EXACT
+    }
+
+    /**
+     * Returns the strategy this planner uses for a plan of a given size
+     * @param exhibitCount - number of exhibits in plan
+     * @return strategy used
+     */
+    Strategy getStrategy(int exhibitCount);
+
+    /**
+     * Orders the exhibits of a route
+     * @param table - (n+2) x (n+2) table of distances between stops
+     * @return permutation of stops 1..n, in order of visitation
+     */
+    int[] plan(DistanceTable table);
+}
@@ -0,0 +1,211 @@
+package com.example.zooseeker;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Plans and replans routes on a background thread, so activities never plan on the main thread.
+ *  Replanning works on a copy of the current route, which is published to RouteSingleton and
+ *  delivered on the main thread once complete. Every request or route edit supersedes the ones
+ *  before it: requests still queued are dropped, and results of requests already running are
+ *  discarded, so a stale plan never replaces a newer one. Every request ends in exactly one
+ *  callback on the main thread: planned, failed or cancelled.
+ */
+public class RoutePlanningService {
+    /**
+     * Receives the outcome of a planning request on the main thread
+     */
+    public interface Callback {
+        void onRoutePlanned(Route route);
+
+        /**
+         * Called instead of onRoutePlanned if planning threw
+         * @param e - exception thrown by the planner
+         */
+        default void onPlanningFailed(RuntimeException e) {}
+
+        /**
+         * Called instead of onRoutePlanned if the request was superseded before its route was
+         *  published
+         */
+        default void onPlanningCancelled() {}
+    }
+
+    // Single planning thread with room for one waiting request, the newest replacing older ones
+    // (the dropped request is told it was cancelled)
+    private static final ThreadPoolExecutor PLANNER = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), (task, executor) -> {
+                Runnable dropped = executor.getQueue().poll();
+                if (dropped instanceof PlanningTask) {
+                    ((PlanningTask) dropped).cancel();
+                }
+                executor.execute(task);
+            });
+
+    // Incremented by every request and edit, results are only published if still current
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    // Skips requested since the route was last published, replanned together from the route they
+    // were requested on, so each of several quick taps skips another exhibit (main thread only)
+    private static Route skipBase = null;
+    private static int skipCount = 0;
+    private static long skipGeneration = -1;
+
+    private RoutePlanningService(){};
+
+    /**
+     * Plans a new route in the background
+     * @param zooModel - parsed zoo data
+     * @param exhibitIds - List of exhibits to visit
+     * @param startId - Starting location of user
+     * @param planner - strategy ordering exhibits
+     * @param incrementalReplanning - true if reroutes should repair the route rather than replan
+     * @param onPlanned - callback receiving the route, once published
+     */
+    public static void planRoute(ZooModel zooModel, List<String> exhibitIds, String startId,
+                                 RoutePlanner planner, boolean incrementalReplanning,
+                                 Callback onPlanned) {
+        ArrayList<String> exhibitIdsCopy = new ArrayList<>(exhibitIds);
+        submit(() -> {
+            Route route = new Route(zooModel, exhibitIdsCopy, startId, planner);
+            route.setIncrementalReplanning(incrementalReplanning);
+            return route;
+        }, onPlanned);
+    }
+
+    /**
+     * Reroutes the current route from a new start location in the background
+     * @param startId - Id of nearest zoo location to user
+     * @param onPlanned - callback receiving the rerouted route, once published
+     */
+    public static void reroute(String startId, Callback onPlanned) {
+        Route route = new Route(RouteSingleton.getRoute());
+        submit(() -> {
+            route.reroute(startId);
+            return route;
+        }, onPlanned);
+    }
+
+    /**
+     * Skips the next exhibit of the current route and replans in the background
+     * @param startId - location nearest to user
+     * @param onPlanned - callback receiving the replanned route, once published
+     */
+    public static void skipNextExhibit(String startId, Callback onPlanned) {
+        // A skip requested before the previous one is published adds to it, rather than skipping
+        // the same exhibit again and cancelling the previous one
+        if (skipBase == null || GENERATION.get() != skipGeneration) {
+            skipBase = new Route(RouteSingleton.getRoute());
+            skipCount = 0;
+        }
+        skipCount++;
+        Route base = skipBase;
+        int count = skipCount;
+        skipGeneration = submit(() -> {
+            Route route = new Route(base);
+            for (int i = 0; i < count && !route.reachedEnd(); i++) {
+                route.skipNextExhibit(startId);
+            }
+            return route;
+        }, onPlanned);
+    }
+
+    /**
+     * Discards pending requests, e.g. because the current route was edited on the main thread
+     *  (advanced or moved back) and their results would undo the edit
+     */
+    public static void cancelPending() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Runs a planning task on the planning thread, publishing its result if still current
+     * @param plan - task building the route
+     * @param callback - callback receiving the outcome
+     * @return generation of the request
+     */
+    private static long submit(Supplier<Route> plan, Callback callback) {
+        long generation = GENERATION.incrementAndGet();
+        PLANNER.execute(new PlanningTask(plan, callback, generation));
+        return generation;
+    }
+
+    /**
+     * Ends the pending skips once their request has an outcome, so later skips start from the
+     *  published route. Called on the main thread
+     * @param generation - generation of the request with an outcome
+     */
+    private static void endSkips(long generation) {
+        if (generation == skipGeneration) {
+            skipBase = null;
+        }
+    }
+
+    /**
+     * Planning request, delivering exactly one outcome to its callback on the main thread
+     */
+    private static class PlanningTask implements Runnable {
+        private final Supplier<Route> plan;
+        private final Callback callback;
+        private final long generation;
+        private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+        PlanningTask(Supplier<Route> plan, Callback callback, long generation) {
+            this.plan = plan;
+            this.callback = callback;
+            this.generation = generation;
+        }
+
+        /**
+         * Tells the callback the request was dropped without running
+         */
+        void cancel() {
+            mainHandler.post(callback::onPlanningCancelled);
+        }
+
+        @Override
+        public void run() {
+            // Skip requests superseded while waiting
+            if (GENERATION.get() != generation) {
+                cancel();
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            Route route;
+            try {
+                route = plan.get();
+            } catch (RuntimeException e) {
+                Log.e("ZooSeeker", "Route planning failed", e);
+                mainHandler.post(() -> {
+                    endSkips(generation);
+                    callback.onPlanningFailed(e);
+                });
+                return;
+            }
+            Log.d("ZooSeeker", String.format("Route request %d planned in %d ms", generation,
+                    (System.nanoTime() - startTime) / 1_000_000));
+
+            // Generation is only changed on the main thread, so checking there is race-free
+            mainHandler.post(() -> {
+                if (GENERATION.get() != generation) {
+                    callback.onPlanningCancelled();
+                    return;
+                }
+                endSkips(generation);
+                RouteSingleton.setRoute(route);
+                callback.onRoutePlanned(route);
+            });
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.zooseeker;
 
 /**
- * Route singleton class, designed to allow all activities in the app to access the zoo route obj
+ * Route singleton class, designed to allow all activities in the app to access the zoo route obj.
+ *  Routes planned in the background are only published once complete, and the field is volatile,
+ *  so readers on any thread see either the previous route or the whole new one
  */
 public class RouteSingleton {
 
-    private static Route ROUTE = null;
+    private static volatile Route ROUTE = null;
 
     private RouteSingleton(){};
 
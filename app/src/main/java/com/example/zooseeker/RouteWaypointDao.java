@@ -0,0 +1,30 @@
+package com.example.zooseeker;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public interface RouteWaypointDao {
+    @Insert
+    List<Long> insertAll(List<RouteWaypointItem> routeWaypointItems);
+
+    @Query("SELECT * from `route_waypoints` ORDER BY `position`")
+    List<RouteWaypointItem> getAll();
+
+    @Query("DELETE from `route_waypoints`")
+    void deleteAll();
+
+    /**
+     * Replaces the saved route in a single transaction, so a saved route is never half written
+     * @param routeWaypointItems - waypoints of the route, in order
+     */
+    @Transaction
+    default void replaceRoute(List<RouteWaypointItem> routeWaypointItems) {
+        deleteAll();
+        insertAll(routeWaypointItems);
+    }
+}
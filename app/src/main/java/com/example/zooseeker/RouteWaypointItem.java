@@ -0,0 +1,47 @@
+package com.example.zooseeker;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import java.util.List;
+
+/**
+ * Saved waypoint of the active route, with the leg walked to reach it, so an in-progress route
+ *  can be restored after the app is killed without planning again or searching for paths
+ */
+@Entity(tableName = "route_waypoints")
+public class RouteWaypointItem {
+    @PrimaryKey
+    public int position;
+    @NonNull
+    public String waypointId;
+    @NonNull
+    public String legStartId; // Previous waypoint, or where the route started for the first one
+    public boolean visited;
+    public double legDistance; // Length of the leg, infinite if there is no path
+    @NonNull
+    public List<String> legPath; // Vertex id's along the leg, empty if there is no path
+
+    RouteWaypointItem(int position, @NonNull String waypointId, @NonNull String legStartId,
+                      boolean visited, double legDistance, @NonNull List<String> legPath) {
+        this.position = position;
+        this.waypointId = waypointId;
+        this.legStartId = legStartId;
+        this.visited = visited;
+        this.legDistance = legDistance;
+        this.legPath = legPath;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteWaypointItem{" +
+                "position=" + position +
+                ", waypointId=" + waypointId +
+                ", legStartId=" + legStartId +
+                ", visited=" + visited +
+                ", legDistance=" + legDistance +
+                ", legPath=" + legPath +
+                '}';
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.zooseeker;
+
+import java.util.Map;
+
+/**
+ * Static 2-d tree over the lat/lng of zoo locations, for finding the locations nearest to the
+ *  user on every GPS update. Coordinates are projected once onto a local plane (equirectangular,
+ *  in meters, around the zoo's mean latitude), which is accurate enough at zoo scale.
+ *  The tree is stored implicitly in an array, and queries do not allocate.
+ */
+public class SpatialIndex {
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    // Per-location data, indexed by location ordinal
+    private final String[] ids;
+    private final ZooData.VertexInfo.Kind[] kinds;
+    private final double[] xs;
+    private final double[] ys;
+
+    // Projection parameters
+    private final double metersPerDegreeLat;
+    private double metersPerDegreeLng; // Set by project()
+
+    // Location ordinals in tree order: each subarray [lo, hi) has its splitting point at the
+    // middle, split on x at even depths and y at odd depths
+    private final int[] tree;
+
+    /**
+     * Ctor for the spatial index, building the tree from every location with info
+     * @param locationInfo - map of id's to zoo vertex info objects
+     */
+    public SpatialIndex(Map<String, ZooData.VertexInfo> locationInfo) {
+        this(locationInfo.size());
+        int ordinal = 0;
+        for (ZooData.VertexInfo info : locationInfo.values()) {
+            ids[ordinal] = info.id;
+            kinds[ordinal] = info.kind;
+            xs[ordinal] = info.lng;
+            ys[ordinal] = info.lat;
+            ordinal++;
+        }
+        project();
+    }
+
+    /**
+     * Ctor for the spatial index, building the tree from every location with info in binary
+     *  zoo data, without building vertex info objects
+     * @param binary - binary zoo data
+     */
+    public SpatialIndex(ZooBinary binary) {
+        this(countLocations(binary));
+        ZooData.VertexInfo.Kind[] kindValues = ZooData.VertexInfo.Kind.values();
+        int ordinal = 0;
+        for (int v = 0; v < binary.getVertexCount(); v++) {
+            if (!binary.hasVertexInfo(v)) continue;
+            ids[ordinal] = binary.getString(binary.getVertexId(v));
+            kinds[ordinal] = kindValues[binary.getVertexKind(v)];
+            xs[ordinal] = binary.getVertexLng(v);
+            ys[ordinal] = binary.getVertexLat(v);
+            ordinal++;
+        }
+        project();
+    }
+
+    /**
+     * Allocates the per-location arrays, which the public ctors fill with lng/lat in xs/ys
+     * @param count - number of locations
+     */
+    private SpatialIndex(int count) {
+        this.ids = new String[count];
+        this.kinds = new ZooData.VertexInfo.Kind[count];
+        this.xs = new double[count];
+        this.ys = new double[count];
+        this.tree = new int[count];
+        this.metersPerDegreeLat = Math.toRadians(EARTH_RADIUS_METERS);
+    }
+
+    /**
+     * Projects the lng/lat in xs/ys onto the local plane, then builds the tree
+     */
+    private void project() {
+        // Project around the mean latitude of the zoo. Locations without coordinates (e.g. group
+        // members, which use their group's) are read as 0, 0 and would skew the mean
+        double latSum = 0.0;
+        int latCount = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ys[i] != 0 || xs[i] != 0) {
+                latSum += ys[i];
+                latCount++;
+            }
+        }
+        double meanLat = (latCount == 0) ? 0.0 : latSum / latCount;
+        this.metersPerDegreeLng = metersPerDegreeLat * Math.cos(Math.toRadians(meanLat));
+
+        for (int i = 0; i < ids.length; i++) {
+            xs[i] *= metersPerDegreeLng;
+            ys[i] *= metersPerDegreeLat;
+            tree[i] = i;
+        }
+        build(0, ids.length, 0);
+    }
+
+    /**
+     * Counts the locations with info in binary zoo data
+     */
+    private static int countLocations(ZooBinary binary) {
+        int count = 0;
+        for (int v = 0; v < binary.getVertexCount(); v++) {
+            if (binary.hasVertexInfo(v)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Arranges tree[lo, hi) so its median (by the depth's axis) is in the middle, then recurses
+     */
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 2 == 0 ? xs : ys);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Quickselect: partially sorts tree[left, right] so that position k holds its final element
+     */
+    private void select(int left, int right, int k, double[] coordinates) {
+        while (left < right) {
+            double pivot = coordinates[tree[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinates[tree[i]] < pivot) i++;
+                while (coordinates[tree[j]] > pivot) j--;
+                if (i <= j) {
+                    int swap = tree[i];
+                    tree[i] = tree[j];
+                    tree[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Getters
+    public int size() {return ids.length;}
+    public String getId(int ordinal) {return ids[ordinal];}
+    public ZooData.VertexInfo.Kind getKind(int ordinal) {return kinds[ordinal];}
+
+    /**
+     * Returns the planar distance between a point and a location
+     * @param lat - latitude of point
+     * @param lng - longitude of point
+     * @param ordinal - ordinal of location
+     * @return distance in meters
+     */
+    public double distanceTo(double lat, double lng, int ordinal) {
+        return Math.sqrt(squaredDistance(lng * metersPerDegreeLng, lat * metersPerDegreeLat, ordinal));
+    }
+
+    private double squaredDistance(double x, double y, int ordinal) {
+        double dx = x - xs[ordinal];
+        double dy = y - ys[ordinal];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Finds the location nearest to a point
+     * @param lat - latitude of point
+     * @param lng - longitude of point
+     * @return ordinal of nearest location, -1 if index is empty
+     */
+    public int nearest(double lat, double lng) {
+        return nearest(lat, lng, null);
+    }
+
+    /**
+     * Finds the location of a given kind nearest to a point
+     * @param lat - latitude of point
+     * @param lng - longitude of point
+     * @param kind - kind of location to consider, null to consider all locations
+     * @return ordinal of nearest location, -1 if there is no location of that kind
+     */
+    public int nearest(double lat, double lng, ZooData.VertexInfo.Kind kind) {
+        return nearest(0, tree.length, 0, lng * metersPerDegreeLng, lat * metersPerDegreeLat, kind, -1);
+    }
+
+    private int nearest(int lo, int hi, int depth, double x, double y,
+                        ZooData.VertexInfo.Kind kind, int best) {
+        if (lo >= hi) return best;
+        int mid = (lo + hi) >>> 1;
+        int point = tree[mid];
+
+        if ((kind == null || kinds[point] == kind)
+                && (best < 0 || squaredDistance(x, y, point) < squaredDistance(x, y, best))) {
+            best = point;
+        }
+
+        // Search the side of the split containing the point first, the other only if it could
+        // hold something closer than the best so far
+        double split = (depth % 2 == 0) ? x - xs[point] : y - ys[point];
+        if (split < 0) {
+            best = nearest(lo, mid, depth + 1, x, y, kind, best);
+            if (best < 0 || split * split < squaredDistance(x, y, best)) {
+                best = nearest(mid + 1, hi, depth + 1, x, y, kind, best);
+            }
+        } else {
+            best = nearest(mid + 1, hi, depth + 1, x, y, kind, best);
+            if (best < 0 || split * split < squaredDistance(x, y, best)) {
+                best = nearest(lo, mid, depth + 1, x, y, kind, best);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the k locations of a given kind nearest to a point, k being the length of results
+     * @param lat - latitude of point
+     * @param lng - longitude of point
+     * @param kind - kind of location to consider, null to consider all locations
+     * @param results - filled with ordinals of nearest locations, nearest first
+     * @param distances - filled with distances in meters matching results, same length as results
+     * @return number of results found, less than k if there are not enough locations
+     */
+    public int nearest(double lat, double lng, ZooData.VertexInfo.Kind kind,
+                       int[] results, double[] distances) {
+        if (results.length == 0) return 0;
+
+        // Collect squared distances, then convert once the search is done
+        int found = nearest(0, tree.length, 0, lng * metersPerDegreeLng, lat * metersPerDegreeLat,
+                kind, results, distances, 0);
+        for (int i = 0; i < found; i++) {
+            distances[i] = Math.sqrt(distances[i]);
+        }
+        return found;
+    }
+
+    private int nearest(int lo, int hi, int depth, double x, double y, ZooData.VertexInfo.Kind kind,
+                        int[] results, double[] distances, int found) {
+        if (lo >= hi) return found;
+        int mid = (lo + hi) >>> 1;
+        int point = tree[mid];
+        int k = results.length;
+
+        // Insert into the sorted results if closer than the current k-th
+        if (kind == null || kinds[point] == kind) {
+            double distance = squaredDistance(x, y, point);
+            if (found < k || distance < distances[k - 1]) {
+                int i = (found < k) ? found++ : k - 1;
+                while (i > 0 && distances[i - 1] > distance) {
+                    results[i] = results[i - 1];
+                    distances[i] = distances[i - 1];
+                    i--;
+                }
+                results[i] = point;
+                distances[i] = distance;
+            }
+        }
+
+        double split = (depth % 2 == 0) ? x - xs[point] : y - ys[point];
+        int nearLo = (split < 0) ? lo : mid + 1;
+        int nearHi = (split < 0) ? mid : hi;
+        int farLo = (split < 0) ? mid + 1 : lo;
+        int farHi = (split < 0) ? hi : mid;
+        found = nearest(nearLo, nearHi, depth + 1, x, y, kind, results, distances, found);
+        if (found < k || split * split < distances[k - 1]) {
+            found = nearest(farLo, farHi, depth + 1, x, y, kind, results, distances, found);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.zooseeker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only view over the compact binary zoo data file, written at build time by
+ *  ZooBinaryConverter from the graph, vertex and edge json files. All accessors read straight
+ *  out of the (usually memory-mapped) buffer and return primitives, so no objects are created
+ *  per vertex or edge. Strings are stored once in an interned table and referenced by index.
+ *
+ * Layout (big-endian, version 1):
+ *  header     int magic, version, stringCount, vertexCount, edgeCount, tagCount, adjacencyCount
+ *  strings    int stringOffsets[stringCount + 1], byte utf8[stringOffsets[stringCount]],
+ *             padded to 4 bytes
+ *  vertices   int id[V], name[V], kind[V], group[V], flags[V], float lat[V], lng[V],
+ *             int tagStarts[V + 1], tags[tagCount]
+ *  edges      int id[E], street[E], source[E], target[E], double weight[E]
+ *  adjacency  int adjacencyStarts[V + 1], adjacentEdges[adjacencyCount]  (CSR, both directions)
+ *
+ *  Missing strings, kinds and groups are stored as -1. Vertices that are part of the graph come
+ *  first, in graph file order, followed by vertices which only appear in the vertex info file.
+ */
+public class ZooBinary {
+    public static final int MAGIC = 0x5A4F4F42; // "ZOOB"
+    public static final int VERSION = 1;
+    public static final int FLAG_IN_GRAPH = 1;
+    private static final int HEADER_SIZE = 7 * 4;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int tagCount;
+    private final int adjacencyCount;
+
+    // Absolute byte offsets of each section/column
+    private final int stringOffsetsStart;
+    private final int stringDataStart;
+    private final int vertexIdStart;
+    private final int vertexNameStart;
+    private final int vertexKindStart;
+    private final int vertexGroupStart;
+    private final int vertexFlagsStart;
+    private final int vertexLatStart;
+    private final int vertexLngStart;
+    private final int tagStartsStart;
+    private final int tagsStart;
+    private final int edgeIdStart;
+    private final int edgeStreetStart;
+    private final int edgeSourceStart;
+    private final int edgeTargetStart;
+    private final int edgeWeightStart;
+    private final int adjacencyStartsStart;
+    private final int adjacentEdgesStart;
+
+    /**
+     * Ctor for a view over a binary zoo data file
+     * @param buffer - buffer holding the whole file, starting at position 0
+     * @throws IOException if the buffer is not a zoo data file of a supported version
+     */
+    public ZooBinary(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary zoo data file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary zoo data version " + buffer.getInt(4));
+        }
+        this.stringCount = buffer.getInt(8);
+        this.vertexCount = buffer.getInt(12);
+        this.edgeCount = buffer.getInt(16);
+        this.tagCount = buffer.getInt(20);
+        this.adjacencyCount = buffer.getInt(24);
+
+        // Strings
+        this.stringOffsetsStart = HEADER_SIZE;
+        this.stringDataStart = stringOffsetsStart + 4 * (stringCount + 1);
+        int stringDataLength = buffer.getInt(stringOffsetsStart + 4 * stringCount);
+
+        // Vertices
+        this.vertexIdStart = stringDataStart + ((stringDataLength + 3) & ~3);
+        this.vertexNameStart = vertexIdStart + 4 * vertexCount;
+        this.vertexKindStart = vertexNameStart + 4 * vertexCount;
+        this.vertexGroupStart = vertexKindStart + 4 * vertexCount;
+        this.vertexFlagsStart = vertexGroupStart + 4 * vertexCount;
+        this.vertexLatStart = vertexFlagsStart + 4 * vertexCount;
+        this.vertexLngStart = vertexLatStart + 4 * vertexCount;
+        this.tagStartsStart = vertexLngStart + 4 * vertexCount;
+        this.tagsStart = tagStartsStart + 4 * (vertexCount + 1);
+
+        // Edges
+        this.edgeIdStart = tagsStart + 4 * tagCount;
+        this.edgeStreetStart = edgeIdStart + 4 * edgeCount;
+        this.edgeSourceStart = edgeStreetStart + 4 * edgeCount;
+        this.edgeTargetStart = edgeSourceStart + 4 * edgeCount;
+        this.edgeWeightStart = edgeTargetStart + 4 * edgeCount;
+
+        // Adjacency
+        this.adjacencyStartsStart = edgeWeightStart + 8 * edgeCount;
+        this.adjacentEdgesStart = adjacencyStartsStart + 4 * (vertexCount + 1);
+
+        if (adjacentEdgesStart + 4 * adjacencyCount > buffer.capacity()) {
+            throw new IOException("Truncated binary zoo data file");
+        }
+    }
+
+    // Strings
+    public int getStringCount() {return stringCount;}
+
+    /**
+     * Decodes an entry of the string table. This allocates, so should only be used when
+     *  translating to names for display or for building id-keyed maps
+     * @param index - index into string table
+     * @return decoded string, null if index is -1
+     */
+    public String getString(int index) {
+        if (index < 0) return null;
+        int start = buffer.getInt(stringOffsetsStart + 4 * index);
+        int end = buffer.getInt(stringOffsetsStart + 4 * (index + 1));
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(stringDataStart + start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Vertices
+    public int getVertexCount() {return vertexCount;}
+    public int getVertexId(int vertex) {return buffer.getInt(vertexIdStart + 4 * vertex);}
+    public int getVertexName(int vertex) {return buffer.getInt(vertexNameStart + 4 * vertex);}
+    public int getVertexKind(int vertex) {return buffer.getInt(vertexKindStart + 4 * vertex);}
+    public int getVertexGroup(int vertex) {return buffer.getInt(vertexGroupStart + 4 * vertex);}
+    public float getVertexLat(int vertex) {return buffer.getFloat(vertexLatStart + 4 * vertex);}
+    public float getVertexLng(int vertex) {return buffer.getFloat(vertexLngStart + 4 * vertex);}
+    public int getTagStart(int vertex) {return buffer.getInt(tagStartsStart + 4 * vertex);}
+    public int getTagEnd(int vertex) {return buffer.getInt(tagStartsStart + 4 * (vertex + 1));}
+    public int getTag(int tagIndex) {return buffer.getInt(tagsStart + 4 * tagIndex);}
+
+    /**
+     * Checks whether a vertex is part of the graph, or only has vertex info (e.g. group members)
+     * @param vertex - vertex index
+     * @return true if vertex is in the graph
+     */
+    public boolean isGraphVertex(int vertex) {
+        return (buffer.getInt(vertexFlagsStart + 4 * vertex) & FLAG_IN_GRAPH) != 0;
+    }
+
+    /**
+     * Checks whether a vertex has an entry in the vertex info file
+     * @param vertex - vertex index
+     * @return true if vertex has info (a kind)
+     */
+    public boolean hasVertexInfo(int vertex) {
+        return getVertexKind(vertex) >= 0;
+    }
+
+    // Edges
+    public int getEdgeCount() {return edgeCount;}
+    public int getEdgeId(int edge) {return buffer.getInt(edgeIdStart + 4 * edge);}
+    public int getEdgeStreet(int edge) {return buffer.getInt(edgeStreetStart + 4 * edge);}
+    public int getEdgeSource(int edge) {return buffer.getInt(edgeSourceStart + 4 * edge);}
+    public int getEdgeTarget(int edge) {return buffer.getInt(edgeTargetStart + 4 * edge);}
+    public double getEdgeWeight(int edge) {return buffer.getDouble(edgeWeightStart + 8 * edge);}
+
+    // Adjacency, edges incident to vertex are getAdjacentEdge(getAdjacencyStart(v) .. end - 1)
+    public int getAdjacencyStart(int vertex) {return buffer.getInt(adjacencyStartsStart + 4 * vertex);}
+    public int getAdjacencyEnd(int vertex) {return buffer.getInt(adjacencyStartsStart + 4 * (vertex + 1));}
+    public int getAdjacentEdge(int index) {return buffer.getInt(adjacentEdgesStart + 4 * index);}
+}
@@ -1,13 +1,27 @@
 package com.example.zooseeker;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -54,28 +68,35 @@ public class ZooData {
     public static Map<String, ZooData.VertexInfo> loadVertexInfoJSON(Context context, String path) {
         try {
             InputStream inputStream = context.getAssets().open(path);
-            Reader reader = new InputStreamReader(inputStream);
-
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<ZooData.VertexInfo>>() {
-            }.getType();
-            List<ZooData.VertexInfo> zooData = gson.fromJson(reader, type);
-
-            // This code is equivalent to:
-            //
-            // Map<String, ZooData.VertexInfo> indexedZooData = new HashMap();
-            // for (ZooData.VertexInfo datum : zooData) {
-            //   indexedZooData[datum.id] = datum;
-            // }
-            //
-
-            return zooData.stream().collect(Collectors.toMap(v -> v.id, datum -> datum));
+            return loadVertexInfoJSON(new InputStreamReader(inputStream));
         } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Returns a set of vertices from json as a map from string to vertex object
+     * @param reader - reader over vertex json
+     * @return indexedZooData - map of strings to vertices
+     */
+    public static Map<String, ZooData.VertexInfo> loadVertexInfoJSON(Reader reader) {
+        Gson gson = new Gson();
+        Type type = new TypeToken<List<ZooData.VertexInfo>>() {
+        }.getType();
+        List<ZooData.VertexInfo> zooData = gson.fromJson(reader, type);
+
+        // This code is equivalent to:
+        //
+        // Map<String, ZooData.VertexInfo> indexedZooData = new HashMap();
+        // for (ZooData.VertexInfo datum : zooData) {
+        //   indexedZooData[datum.id] = datum;
+        // }
+        //
+
+        return zooData.stream().collect(Collectors.toMap(v -> v.id, datum -> datum));
+    }
+
     /**
      * Returns a set of edges from json file as Map from string to street edge
      * @param context - Android context
@@ -85,19 +106,26 @@ public class ZooData {
     public static Map<String, ZooData.EdgeInfo> loadEdgeInfoJSON(Context context, String path) {
         try {
             InputStream inputStream = context.getAssets().open(path);
-            Reader reader = new InputStreamReader(inputStream);
-
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<ZooData.EdgeInfo>>(){}.getType();
-            List<ZooData.EdgeInfo> zooData = gson.fromJson(reader, type);
-
-            return zooData.stream().collect(Collectors.toMap(v -> v.id, datum -> datum));
+            return loadEdgeInfoJSON(new InputStreamReader(inputStream));
         } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Returns a set of edges from json as Map from string to street edge
+     * @param reader - reader over edge json
+     * @return indexedZooData - Map from string to street edge
+     */
+    public static Map<String, ZooData.EdgeInfo> loadEdgeInfoJSON(Reader reader) {
+        Gson gson = new Gson();
+        Type type = new TypeToken<List<ZooData.EdgeInfo>>(){}.getType();
+        List<ZooData.EdgeInfo> zooData = gson.fromJson(reader, type);
+
+        return zooData.stream().collect(Collectors.toMap(v -> v.id, datum -> datum));
+    }
+
     /**
      * Returns a Graph read from an asset JSON file
      * @param context - Android context
@@ -105,6 +133,22 @@ public class ZooData {
      * @return g - weighted graph read from file
      */
     public static Graph<String, IdentifiedWeightedEdge> loadZooGraphJSON(Context context, String path) {
+        // Try to read graph
+        try {
+            InputStream inputStream = context.getAssets().open(path);
+            return loadZooGraphJSON(new InputStreamReader(inputStream));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new DefaultUndirectedWeightedGraph<>(IdentifiedWeightedEdge.class);
+        }
+    }
+
+    /**
+     * Returns a Graph read from JSON
+     * @param reader - reader over graph json
+     * @return g - weighted graph read from json
+     */
+    public static Graph<String, IdentifiedWeightedEdge> loadZooGraphJSON(Reader reader) {
         // Create an empty graph to populate.
         Graph<String, IdentifiedWeightedEdge> g = new DefaultUndirectedWeightedGraph<>(IdentifiedWeightedEdge.class);
 
@@ -119,16 +163,172 @@ public class ZooData {
         // definition of this in the IdentifiedWeightedEdge class for convenience.
         importer.addEdgeAttributeConsumer(IdentifiedWeightedEdge::attributeConsumer);
 
-        // Try to read graph
-        try {
-            InputStream inputStream = context.getAssets().open(path);
-            Reader reader = new InputStreamReader(inputStream);
+        // And now we just import it!
+        importer.importGraph(g, reader);
+        return g;
+    }
+
+    /**
+     * Memory-maps a binary zoo data file from assets. The asset must be stored uncompressed
+     *  (see noCompress in build.gradle) to be mapped, otherwise it is read into memory instead
+     * @param context - Android context
+     * @param path - path of binary file
+     * @return binary - view over the file, or null if the file is missing or unreadable
+     */
+    public static ZooBinary loadZooBinary(Context context, String path) {
+        // Try to map the file in place
+        try (AssetFileDescriptor fd = context.getAssets().openFd(path)) {
+            FileChannel channel = fd.createInputStream().getChannel();
+            return new ZooBinary(channel.map(
+                    FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getDeclaredLength()));
+        } catch (FileNotFoundException e) {
+            // Asset is missing, or compressed and cannot be mapped. Try reading it below
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
 
-            // And now we just import it!
-            importer.importGraph(g, reader);
+        // Read the whole file into memory
+        try (InputStream inputStream = context.getAssets().open(path)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int length;
+            while ((length = inputStream.read(chunk)) != -1) {
+                bytes.write(chunk, 0, length);
+            }
+            return new ZooBinary(ByteBuffer.wrap(bytes.toByteArray()));
+        } catch (FileNotFoundException e) {
+            return null;
         } catch (IOException e) {
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Loads a contraction hierarchy, from assets if one was shipped, otherwise from the copy saved
+     *  in the app's files directory by saveContractionHierarchy()
+     * @param context - Android context
+     * @param path - path of hierarchy file
+     * @param graphIndex - index of the graph the hierarchy must be for
+     * @return hierarchy, or null if it is missing, unreadable or built for a different graph
+     */
+    public static ContractionHierarchy loadContractionHierarchy(Context context, String path, ZooGraphIndex graphIndex) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(context.getAssets().open(path)))) {
+            ContractionHierarchy hierarchy = ContractionHierarchy.read(in, graphIndex);
+            if (hierarchy != null) return hierarchy;
+        } catch (FileNotFoundException e) {
+            // Not shipped with the app. Try the saved copy below
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        File file = new File(context.getFilesDir(), path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return ContractionHierarchy.read(in, graphIndex);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Saves a contraction hierarchy in the app's files directory (assets are read-only), replacing
+     *  any previous copy only once the new one is complete
+     * @param context - Android context
+     * @param path - path of hierarchy file
+     * @param hierarchy - hierarchy to save
+     * @return true if the hierarchy was saved
+     */
+    public static boolean saveContractionHierarchy(Context context, String path, ContractionHierarchy hierarchy) {
+        File file = new File(context.getFilesDir(), path);
+        File partial = new File(file.getPath() + ".partial");
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            return false;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(partial)))) {
+            hierarchy.write(out);
+        } catch (IOException e) {
+            e.printStackTrace();
+            partial.delete();
+            return false;
+        }
+        return partial.renameTo(file);
+    }
+
+    /**
+     * Returns a Graph built from a binary zoo data file
+     * @param binary - binary zoo data
+     * @return g - weighted graph, with vertices and edges in the same order as the json graph
+     */
+    public static Graph<String, IdentifiedWeightedEdge> loadZooGraphBinary(ZooBinary binary) {
+        Graph<String, IdentifiedWeightedEdge> g = new DefaultUndirectedWeightedGraph<>(IdentifiedWeightedEdge.class);
+
+        // Graph vertices are stored first, so edge endpoints index into this array
+        String[] vertexIds = new String[binary.getVertexCount()];
+        for (int v = 0; v < vertexIds.length && binary.isGraphVertex(v); v++) {
+            vertexIds[v] = binary.getString(binary.getVertexId(v));
+            g.addVertex(vertexIds[v]);
+        }
+
+        for (int e = 0; e < binary.getEdgeCount(); e++) {
+            IdentifiedWeightedEdge edge = new IdentifiedWeightedEdge();
+            edge.setId(binary.getString(binary.getEdgeId(e)));
+            g.addEdge(vertexIds[binary.getEdgeSource(e)], vertexIds[binary.getEdgeTarget(e)], edge);
+            g.setEdgeWeight(edge, binary.getEdgeWeight(e));
         }
         return g;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns vertex info from a binary zoo data file as a map from string to vertex object
+     * @param binary - binary zoo data
+     * @return indexedZooData - map of strings to vertices
+     */
+    public static Map<String, ZooData.VertexInfo> loadVertexInfoBinary(ZooBinary binary) {
+        Map<String, ZooData.VertexInfo> indexedZooData = new HashMap<>();
+        VertexInfo.Kind[] kinds = VertexInfo.Kind.values();
+
+        for (int v = 0; v < binary.getVertexCount(); v++) {
+            if (!binary.hasVertexInfo(v)) continue;
+
+            VertexInfo datum = new VertexInfo();
+            datum.id = binary.getString(binary.getVertexId(v));
+            datum.kind = kinds[binary.getVertexKind(v)];
+            datum.name = binary.getString(binary.getVertexName(v));
+            int group = binary.getVertexGroup(v);
+            datum.group_id = (group < 0) ? null : binary.getString(binary.getVertexId(group));
+            datum.tags = new ArrayList<>();
+            for (int t = binary.getTagStart(v); t < binary.getTagEnd(v); t++) {
+                datum.tags.add(binary.getString(binary.getTag(t)));
+            }
+            datum.lat = binary.getVertexLat(v);
+            datum.lng = binary.getVertexLng(v);
+            indexedZooData.put(datum.id, datum);
+        }
+        return indexedZooData;
+    }
+
+    /**
+     * Returns edge info from a binary zoo data file as Map from string to street edge
+     * @param binary - binary zoo data
+     * @return indexedZooData - Map from string to street edge
+     */
+    public static Map<String, ZooData.EdgeInfo> loadEdgeInfoBinary(ZooBinary binary) {
+        Map<String, ZooData.EdgeInfo> indexedZooData = new HashMap<>();
+
+        for (int e = 0; e < binary.getEdgeCount(); e++) {
+            if (binary.getEdgeStreet(e) < 0) continue;
+
+            EdgeInfo datum = new EdgeInfo();
+            datum.id = binary.getString(binary.getEdgeId(e));
+            datum.street = binary.getString(binary.getEdgeStreet(e));
+            indexedZooData.put(datum.id, datum);
+        }
+        return indexedZooData;
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.zooseeker;
+
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.graph.GraphWalk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, int-numbered copy of the zoo graph for routing. Vertices and edges are numbered by
+ *  ordinal (in the graph's iteration order), adjacency is stored in compressed (CSR) arrays in
+ *  both directions, and edge endpoints, weights and streets are kept in parallel primitive
+ *  arrays. Searches and direction building run on ordinals only; ids, names and JGraphT objects
+ *  are looked up by ordinal when results are shown or handed to callers.
+ *
+ * Streets are numbered too, so two edges are on the same street if their street ordinals match.
+ *  Edges without edge info have street -1.
+ *
+ * An index can also be read straight from the columns of a binary zoo data file, in which case
+ *  the JGraphT graph is only built the first time an edge or path is handed to a caller.
+ */
+public class ZooGraphIndex {
+    // Graph the index was built from, or supplies it on first use if the index came from binary
+    private Supplier<Graph<String, IdentifiedWeightedEdge>> graphSupplier;
+    private Graph<String, IdentifiedWeightedEdge> zooGraph;
+
+    // Vertices, indexed by vertex ordinal
+    private final String[] vertexIds;
+    private final String[] vertexNames;
+    private final ZooData.VertexInfo.Kind[] vertexKinds;
+    private final double[] vertexLats; // NaN if the vertex has no info
+    private final double[] vertexLngs;
+    private final Map<String, Integer> vertexOrdinals;
+
+    // Vertex ordinal each location is routed to (group members to their group's vertex)
+    private final Map<String, Integer> routingOrdinals;
+
+    // Edges, indexed by edge ordinal. JGraphT edges are null until the graph is resolved
+    private IdentifiedWeightedEdge[] edges;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final double[] edgeWeights;
+    private final int[] edgeStreets;
+    private final String[] streetNames;
+
+    // Adjacency of vertex v is [adjacencyStarts[v], adjacencyStarts[v + 1]) in the arrays below
+    private final int[] adjacencyStarts;
+    private final int[] adjacentEdges;
+    private final int[] adjacentVertices;
+
+    /**
+     * Ctor for an index over a graph without vertex or edge info (no names, kinds or streets)
+     * @param zooGraph - undirected weighted zoo graph
+     */
+    public ZooGraphIndex(Graph<String, IdentifiedWeightedEdge> zooGraph) {
+        this(zooGraph, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * Ctor for an index over a graph and its vertex and edge info
+     * @param zooGraph - undirected weighted zoo graph
+     * @param vertexInfo - mapping from vertex ids to vertex info
+     * @param edgeInfo - mapping from edge ids to edge info
+     */
+    public ZooGraphIndex(Graph<String, IdentifiedWeightedEdge> zooGraph,
+                         Map<String, ZooData.VertexInfo> vertexInfo,
+                         Map<String, ZooData.EdgeInfo> edgeInfo) {
+        this.graphSupplier = null;
+        this.zooGraph = zooGraph;
+
+        // Number vertices
+        int vertexCount = zooGraph.vertexSet().size();
+        this.vertexIds = new String[vertexCount];
+        this.vertexNames = new String[vertexCount];
+        this.vertexKinds = new ZooData.VertexInfo.Kind[vertexCount];
+        this.vertexLats = new double[vertexCount];
+        this.vertexLngs = new double[vertexCount];
+        this.vertexOrdinals = new HashMap<>();
+        for (String vertex : zooGraph.vertexSet()) {
+            int ordinal = vertexOrdinals.size();
+            ZooData.VertexInfo info = vertexInfo.get(vertex);
+            vertexIds[ordinal] = vertex;
+            vertexNames[ordinal] = (info == null) ? null : info.name;
+            vertexKinds[ordinal] = (info == null) ? null : info.kind;
+            vertexLats[ordinal] = (info == null) ? Double.NaN : info.lat;
+            vertexLngs[ordinal] = (info == null) ? Double.NaN : info.lng;
+            vertexOrdinals.put(vertex, ordinal);
+        }
+
+        // Locations outside the graph are routed to their group's vertex, if it is in the graph
+        this.routingOrdinals = new HashMap<>(vertexOrdinals);
+        for (ZooData.VertexInfo info : vertexInfo.values()) {
+            if (info.group_id == null) continue;
+            Integer groupOrdinal = vertexOrdinals.get(info.group_id);
+            if (groupOrdinal != null) routingOrdinals.put(info.id, groupOrdinal);
+        }
+
+        // Number edges and streets, remembering endpoints as ordinals
+        int edgeCount = zooGraph.edgeSet().size();
+        this.edges = new IdentifiedWeightedEdge[edgeCount];
+        this.edgeSources = new int[edgeCount];
+        this.edgeTargets = new int[edgeCount];
+        this.edgeWeights = new double[edgeCount];
+        this.edgeStreets = new int[edgeCount];
+        Map<String, Integer> streetOrdinals = new HashMap<>();
+        List<String> streets = new ArrayList<>();
+        int[] degrees = new int[vertexCount];
+        int edgeIndex = 0;
+        for (IdentifiedWeightedEdge e : zooGraph.edgeSet()) {
+            edges[edgeIndex] = e;
+            edgeSources[edgeIndex] = vertexOrdinals.get(zooGraph.getEdgeSource(e));
+            edgeTargets[edgeIndex] = vertexOrdinals.get(zooGraph.getEdgeTarget(e));
+            edgeWeights[edgeIndex] = zooGraph.getEdgeWeight(e);
+
+            ZooData.EdgeInfo info = edgeInfo.get(e.getId());
+            if (info == null || info.street == null) {
+                edgeStreets[edgeIndex] = -1;
+            } else {
+                Integer street = streetOrdinals.get(info.street);
+                if (street == null) {
+                    street = streets.size();
+                    streets.add(info.street);
+                    streetOrdinals.put(info.street, street);
+                }
+                edgeStreets[edgeIndex] = street;
+            }
+
+            degrees[edgeSources[edgeIndex]]++;
+            if (edgeTargets[edgeIndex] != edgeSources[edgeIndex]) degrees[edgeTargets[edgeIndex]]++;
+            edgeIndex++;
+        }
+        this.streetNames = streets.toArray(new String[0]);
+
+        // Build adjacency (both directions, graph is undirected)
+        this.adjacencyStarts = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            adjacencyStarts[v + 1] = adjacencyStarts[v] + degrees[v];
+        }
+        this.adjacentEdges = new int[adjacencyStarts[vertexCount]];
+        this.adjacentVertices = new int[adjacencyStarts[vertexCount]];
+        int[] fill = new int[vertexCount];
+        System.arraycopy(adjacencyStarts, 0, fill, 0, vertexCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int source = edgeSources[e];
+            int target = edgeTargets[e];
+            adjacentEdges[fill[source]] = e;
+            adjacentVertices[fill[source]++] = target;
+            if (target != source) {
+                adjacentEdges[fill[target]] = e;
+                adjacentVertices[fill[target]++] = source;
+            }
+        }
+    }
+
+    /**
+     * Ctor for an index read from binary zoo data, whose vertex and edge order and adjacency
+     *  already match the index's, so no graph or info objects are built
+     * @param binary - binary zoo data
+     * @param zooGraph - supplies the graph built from the same file, called on first use
+     */
+    public ZooGraphIndex(ZooBinary binary, Supplier<Graph<String, IdentifiedWeightedEdge>> zooGraph) {
+        this.graphSupplier = zooGraph;
+        this.zooGraph = null;
+        this.edges = null;
+
+        // Graph vertices are stored first, in graph order
+        int vertexCount = 0;
+        while (vertexCount < binary.getVertexCount() && binary.isGraphVertex(vertexCount)) {
+            vertexCount++;
+        }
+        ZooData.VertexInfo.Kind[] kinds = ZooData.VertexInfo.Kind.values();
+        this.vertexIds = new String[vertexCount];
+        this.vertexNames = new String[vertexCount];
+        this.vertexKinds = new ZooData.VertexInfo.Kind[vertexCount];
+        this.vertexLats = new double[vertexCount];
+        this.vertexLngs = new double[vertexCount];
+        this.vertexOrdinals = new HashMap<>();
+        for (int v = 0; v < vertexCount; v++) {
+            boolean hasInfo = binary.hasVertexInfo(v);
+            vertexIds[v] = binary.getString(binary.getVertexId(v));
+            vertexNames[v] = hasInfo ? binary.getString(binary.getVertexName(v)) : null;
+            vertexKinds[v] = (hasInfo && binary.getVertexKind(v) >= 0) ? kinds[binary.getVertexKind(v)] : null;
+            vertexLats[v] = hasInfo ? binary.getVertexLat(v) : Double.NaN;
+            vertexLngs[v] = hasInfo ? binary.getVertexLng(v) : Double.NaN;
+            vertexOrdinals.put(vertexIds[v], v);
+        }
+
+        // Group members are stored with the index of their group's vertex
+        this.routingOrdinals = new HashMap<>(vertexOrdinals);
+        for (int v = 0; v < binary.getVertexCount(); v++) {
+            int group = binary.getVertexGroup(v);
+            if (group >= 0 && group < vertexCount && binary.hasVertexInfo(v)) {
+                routingOrdinals.put(binary.getString(binary.getVertexId(v)), group);
+            }
+        }
+
+        // Edges are stored in graph order. Streets are renumbered densely, in order of first use
+        int edgeCount = binary.getEdgeCount();
+        this.edgeSources = new int[edgeCount];
+        this.edgeTargets = new int[edgeCount];
+        this.edgeWeights = new double[edgeCount];
+        this.edgeStreets = new int[edgeCount];
+        Map<Integer, Integer> streetOrdinals = new HashMap<>();
+        List<String> streets = new ArrayList<>();
+        for (int e = 0; e < edgeCount; e++) {
+            edgeSources[e] = binary.getEdgeSource(e);
+            edgeTargets[e] = binary.getEdgeTarget(e);
+            edgeWeights[e] = binary.getEdgeWeight(e);
+
+            int streetString = binary.getEdgeStreet(e);
+            if (streetString < 0) {
+                edgeStreets[e] = -1;
+            } else {
+                Integer street = streetOrdinals.get(streetString);
+                if (street == null) {
+                    street = streets.size();
+                    streets.add(binary.getString(streetString));
+                    streetOrdinals.put(streetString, street);
+                }
+                edgeStreets[e] = street;
+            }
+        }
+        this.streetNames = streets.toArray(new String[0]);
+
+        // Adjacency is stored in CSR form already, in the same order the graph ctor fills it
+        this.adjacencyStarts = new int[vertexCount + 1];
+        for (int v = 0; v <= vertexCount; v++) {
+            adjacencyStarts[v] = binary.getAdjacencyStart(v);
+        }
+        this.adjacentEdges = new int[adjacencyStarts[vertexCount]];
+        this.adjacentVertices = new int[adjacencyStarts[vertexCount]];
+        for (int v = 0; v < vertexCount; v++) {
+            for (int i = adjacencyStarts[v]; i < adjacencyStarts[v + 1]; i++) {
+                adjacentEdges[i] = binary.getAdjacentEdge(i);
+                adjacentVertices[i] = getOtherEndpoint(adjacentEdges[i], v);
+            }
+        }
+    }
+
+    /**
+     * Builds the JGraphT graph and edge objects on first use, for indexes read from binary
+     */
+    private synchronized void resolveGraph() {
+        if (edges != null) return;
+        zooGraph = graphSupplier.get();
+        graphSupplier = null;
+        edges = zooGraph.edgeSet().toArray(new IdentifiedWeightedEdge[0]);
+    }
+
+    /**
+     * Returns the ordinal of a graph vertex
+     * @param vertexId - id of vertex in graph
+     * @return ordinal of vertex
+     */
+    public int getOrdinal(String vertexId) {
+        Integer ordinal = vertexOrdinals.get(vertexId);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("Graph must contain the vertex " + vertexId);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Returns the ordinal of a vertex which may not be in the graph
+     * @param vertexId - id of vertex
+     * @return ordinal of vertex, -1 if not in the graph
+     */
+    public int findOrdinal(String vertexId) {
+        Integer ordinal = vertexOrdinals.get(vertexId);
+        return (ordinal == null) ? -1 : ordinal;
+    }
+
+    /**
+     * Returns the ordinal of the vertex a location is routed to: the location's own vertex, or
+     *  its group's vertex for exhibits within a group
+     * @param locationId - id of zoo location
+     * @return ordinal of vertex
+     */
+    public int getRoutingOrdinal(String locationId) {
+        Integer ordinal = routingOrdinals.get(locationId);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("Graph must contain the location " + locationId);
+        }
+        return ordinal;
+    }
+
+    // Vertex getters, by vertex ordinal
+    public int getVertexCount() {return vertexIds.length;}
+    public String getVertexId(int vertex) {return vertexIds[vertex];}
+    public String getVertexName(int vertex) {return vertexNames[vertex];}
+    public ZooData.VertexInfo.Kind getVertexKind(int vertex) {return vertexKinds[vertex];}
+    public double getVertexLat(int vertex) {return vertexLats[vertex];}
+    public double getVertexLng(int vertex) {return vertexLngs[vertex];}
+
+    // Edge getters, by edge ordinal
+    public int getEdgeCount() {return edgeSources.length;}
+    public int getEdgeSource(int edge) {return edgeSources[edge];}
+    public int getEdgeTarget(int edge) {return edgeTargets[edge];}
+    public double getEdgeWeight(int edge) {return edgeWeights[edge];}
+    public int getEdgeStreet(int edge) {return edgeStreets[edge];}
+
+    /**
+     * Returns the JGraphT edge with an ordinal
+     * @param edge - ordinal of edge
+     * @return edge object in the zoo graph
+     */
+    public IdentifiedWeightedEdge getEdge(int edge) {
+        resolveGraph();
+        return edges[edge];
+    }
+
+    // Street getters, by street ordinal
+    public int getStreetCount() {return streetNames.length;}
+    public String getStreetName(int street) {return (street < 0) ? null : streetNames[street];}
+
+    // Adjacency getters: neighbors of a vertex are at indices [start, end)
+    public int getAdjacencyStart(int vertex) {return adjacencyStarts[vertex];}
+    public int getAdjacencyEnd(int vertex) {return adjacencyStarts[vertex + 1];}
+    public int getAdjacentEdge(int index) {return adjacentEdges[index];}
+    public int getAdjacentVertex(int index) {return adjacentVertices[index];}
+
+    /**
+     * Returns the endpoint of an edge across from a vertex
+     * @param edge - ordinal of edge
+     * @param vertex - ordinal of one endpoint of the edge
+     * @return ordinal of the other endpoint
+     */
+    public int getOtherEndpoint(int edge, int vertex) {
+        return (edgeSources[edge] == vertex) ? edgeTargets[edge] : edgeSources[edge];
+    }
+
+    /**
+     * Finds the lightest edge between two vertices
+     * @param vertexA - ordinal of one endpoint
+     * @param vertexB - ordinal of the other endpoint
+     * @return ordinal of edge, -1 if the vertices are not adjacent
+     */
+    public int findEdge(int vertexA, int vertexB) {
+        int result = -1;
+        for (int i = adjacencyStarts[vertexA]; i < adjacencyStarts[vertexA + 1]; i++) {
+            if (adjacentVertices[i] == vertexB
+                    && (result < 0 || edgeWeights[adjacentEdges[i]] < edgeWeights[result])) {
+                result = adjacentEdges[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the edges of a walk through a list of vertices
+     * @param vertexIds - ids of vertices walked through, in order
+     * @return edge ordinals in travel order, null if a vertex is not in the graph or two
+     *  consecutive vertices are not adjacent
+     */
+    public int[] findPathEdges(List<String> vertexIds) {
+        int[] pathEdges = new int[Math.max(0, vertexIds.size() - 1)];
+        Integer previous = null;
+        for (int i = 0; i < vertexIds.size(); i++) {
+            Integer vertex = vertexOrdinals.get(vertexIds.get(i));
+            if (vertex == null) return null;
+            if (previous != null) {
+                pathEdges[i - 1] = findEdge(previous, vertex);
+                if (pathEdges[i - 1] < 0) return null;
+            }
+            previous = vertex;
+        }
+        return pathEdges;
+    }
+
+    /**
+     * Returns the total weight of a path
+     * @param pathEdges - edge ordinals of the path
+     * @return sum of edge weights, in travel order
+     */
+    public double getPathWeight(int[] pathEdges) {
+        double weight = 0.0;
+        for (int e : pathEdges) {
+            weight += edgeWeights[e];
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the end of a path
+     * @param start - ordinal of vertex the path starts from
+     * @param pathEdges - edge ordinals of the path, in travel order
+     * @return ordinal of vertex the path ends at
+     */
+    public int getPathEnd(int start, int[] pathEdges) {
+        int vertex = start;
+        for (int e : pathEdges) {
+            vertex = getOtherEndpoint(e, vertex);
+        }
+        return vertex;
+    }
+
+    /**
+     * Converts a path of edge ordinals to a JGraphT path, for callers working on the graph
+     * @param start - ordinal of vertex the path starts from
+     * @param pathEdges - edge ordinals of the path, in travel order
+     * @return GraphPath walking the edges from start
+     */
+    public GraphPath<String, IdentifiedWeightedEdge> toGraphPath(int start, int[] pathEdges) {
+        resolveGraph();
+        if (pathEdges.length == 0) {
+            return GraphWalk.singletonWalk(zooGraph, vertexIds[start], 0.0);
+        }
+        List<IdentifiedWeightedEdge> edgeList = new ArrayList<>(pathEdges.length);
+        for (int e : pathEdges) {
+            edgeList.add(edges[e]);
+        }
+        return new GraphWalk<>(zooGraph, vertexIds[start], vertexIds[getPathEnd(start, pathEdges)],
+                edgeList, getPathWeight(pathEdges));
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.zooseeker;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import org.jgrapht.Graph;
+import org.jgrapht.graph.AsUnmodifiableGraph;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Immutable model of the zoo, parsed once per process from the json files named in a data files
+ *  list (e.g. "zoo_data_files.json"). Models are built on a background thread and shared by
+ *  every DataFilesReader and activity, so screen transitions never re-parse the json assets.
+ */
+public class ZooModel {
+    // Background loader, and models (finished or in progress) keyed by data files list
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor();
+    private static final Map<String, Future<ZooModel>> MODELS = new HashMap<>();
+
+    // Contraction hierarchies take seconds to build on large graphs, so they get their own low
+    // priority thread rather than holding up the loader
+    private static final ExecutorService CONTRACTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "ZooSeeker-contractor");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Graphs up to this many vertices get all-pairs tables (12 bytes per pair of vertices), larger
+    // ones are searched per query
+    public static final int ALL_PAIRS_MAX_VERTICES = 1024;
+
+    // Object views of the zoo. Models read from binary build these on first use, since routing
+    // and location lookups only need the indexes
+    private Graph<String, IdentifiedWeightedEdge> graph;
+    private Map<String, ZooData.VertexInfo> vertexInfo;
+    private Map<String, ZooData.EdgeInfo> edgeInfo;
+    private final String gateId;
+    private final ZooGraphIndex graphIndex;
+    private final DistanceOracle distanceOracle;
+    private final SpatialIndex spatialIndex;
+    private final ZooBinary binary;
+    private final DirectionsCache directionsCache = new DirectionsCache();
+
+    /**
+     * Ctor for a zoo model, wrapping the loaded objects in unmodifiable views
+     * @param graph - zoo graph
+     * @param vertexInfo - mapping from vertex ids to vertex info
+     * @param edgeInfo - mapping from edge ids to edge info
+     */
+    ZooModel(Graph<String, IdentifiedWeightedEdge> graph,
+             Map<String, ZooData.VertexInfo> vertexInfo,
+             Map<String, ZooData.EdgeInfo> edgeInfo) {
+        this(graph, vertexInfo, edgeInfo, null);
+    }
+
+    /**
+     * Ctor for a zoo model, wrapping the loaded objects in unmodifiable views
+     * @param graph - zoo graph
+     * @param vertexInfo - mapping from vertex ids to vertex info
+     * @param edgeInfo - mapping from edge ids to edge info
+     * @param binary - binary file the model was loaded from, null if loaded from json
+     */
+    ZooModel(Graph<String, IdentifiedWeightedEdge> graph,
+             Map<String, ZooData.VertexInfo> vertexInfo,
+             Map<String, ZooData.EdgeInfo> edgeInfo,
+             ZooBinary binary) {
+        this(graph, vertexInfo, edgeInfo, binary, null);
+    }
+
+    /**
+     * Ctor for a zoo model, wrapping the loaded objects in unmodifiable views
+     * @param graph - zoo graph
+     * @param vertexInfo - mapping from vertex ids to vertex info
+     * @param edgeInfo - mapping from edge ids to edge info
+     * @param binary - binary file the model was loaded from, null if loaded from json
+     * @param oracleFactory - builds the distance oracle from the graph index, null to pick one by
+     *  graph size
+     */
+    ZooModel(Graph<String, IdentifiedWeightedEdge> graph,
+             Map<String, ZooData.VertexInfo> vertexInfo,
+             Map<String, ZooData.EdgeInfo> edgeInfo,
+             ZooBinary binary,
+             Function<ZooGraphIndex, DistanceOracle> oracleFactory) {
+        this.binary = binary;
+        this.graph = new AsUnmodifiableGraph<>(graph);
+        this.edgeInfo = Collections.unmodifiableMap(edgeInfo);
+        this.vertexInfo = sealVertexInfo(vertexInfo);
+
+        String gateId = null;
+        for (ZooData.VertexInfo info : vertexInfo.values()) {
+            if (info.kind == ZooData.VertexInfo.Kind.GATE) {
+                gateId = info.id;
+                break;
+            }
+        }
+        this.gateId = gateId;
+
+        this.graphIndex = new ZooGraphIndex(this.graph, this.vertexInfo, this.edgeInfo);
+        this.distanceOracle = createDistanceOracle(graphIndex, oracleFactory);
+        this.spatialIndex = new SpatialIndex(this.vertexInfo);
+    }
+
+    /**
+     * Ctor for a zoo model read from binary zoo data. The indexes are read straight from the
+     *  file's columns, and the graph and info maps are only built if a caller asks for them
+     * @param binary - binary zoo data
+     * @param oracleFactory - builds the distance oracle from the graph index, null to pick one by
+     *  graph size
+     */
+    ZooModel(ZooBinary binary, Function<ZooGraphIndex, DistanceOracle> oracleFactory) {
+        this.binary = binary;
+
+        String gateId = null;
+        for (int v = 0; v < binary.getVertexCount(); v++) {
+            if (binary.hasVertexInfo(v)
+                    && binary.getVertexKind(v) == ZooData.VertexInfo.Kind.GATE.ordinal()) {
+                gateId = binary.getString(binary.getVertexId(v));
+                break;
+            }
+        }
+        this.gateId = gateId;
+
+        this.graphIndex = new ZooGraphIndex(binary, this::getGraph);
+        this.distanceOracle = createDistanceOracle(graphIndex, oracleFactory);
+        this.spatialIndex = new SpatialIndex(binary);
+    }
+
+    /**
+     * Makes vertex info read-only, since shared vertices must not have their tag lists edited
+     *  by consumers
+     * @param vertexInfo - mapping from vertex ids to vertex info
+     * @return unmodifiable view of the mapping
+     */
+    private static Map<String, ZooData.VertexInfo> sealVertexInfo(Map<String, ZooData.VertexInfo> vertexInfo) {
+        for (ZooData.VertexInfo info : vertexInfo.values()) {
+            info.tags = (info.tags == null)
+                    ? Collections.emptyList() : Collections.unmodifiableList(info.tags);
+        }
+        return Collections.unmodifiableMap(vertexInfo);
+    }
+
+    /**
+     * Builds the distance oracle for a graph index
+     * @param graphIndex - index of the zoo graph
+     * @param oracleFactory - builds the oracle, null to pick one by graph size
+     * @return distance oracle
+     */
+    private static DistanceOracle createDistanceOracle(ZooGraphIndex graphIndex,
+                                                       Function<ZooGraphIndex, DistanceOracle> oracleFactory) {
+        if (oracleFactory != null) {
+            return oracleFactory.apply(graphIndex);
+        } else if (graphIndex.getVertexCount() <= ALL_PAIRS_MAX_VERTICES) {
+            return new AllPairsDistanceOracle(graphIndex);
+        } else {
+            return new AStarDistanceOracle(graphIndex);
+        }
+    }
+
+    /**
+     * Starts building the model for a data files list in the background, if not already started
+     * @param context - Android context
+     * @param dataFilesList - filename of json path list in Assets folder
+     * @return Future which completes with the model
+     */
+    public static synchronized Future<ZooModel> load(Context context, String dataFilesList) {
+        Future<ZooModel> model = MODELS.get(dataFilesList);
+        if (model == null) {
+            Context appContext = context.getApplicationContext();
+            model = LOADER.submit(() -> build(appContext, dataFilesList));
+            MODELS.put(dataFilesList, model);
+        }
+        return model;
+    }
+
+    /**
+     * Returns the model for a data files list, waiting for it if it is still being built
+     * @param context - Android context
+     * @param dataFilesList - filename of json path list in Assets folder
+     * @return model of the zoo
+     */
+    public static ZooModel get(Context context, String dataFilesList) {
+        try {
+            return load(context, dataFilesList).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not load zoo data from " + dataFilesList, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading zoo data", e);
+        }
+    }
+
+    /**
+     * Delivers the model for a data files list on the main thread once it is built, logging the
+     *  failure if it cannot be built
+     * @param context - Android context
+     * @param dataFilesList - filename of json path list in Assets folder
+     * @param onLoaded - callback receiving the model
+     */
+    public static void getAsync(Context context, String dataFilesList, Consumer<ZooModel> onLoaded) {
+        getAsync(context, dataFilesList, onLoaded, e -> {});
+    }
+
+    /**
+     * Delivers the model for a data files list on the main thread once it is built, or the reason
+     *  it could not be built. If called on the main thread once the model is built, delivers it
+     *  before returning, so screens opened after loading are laid out in their first frame
+     * @param context - Android context
+     * @param dataFilesList - filename of json path list in Assets folder
+     * @param onLoaded - callback receiving the model
+     * @param onFailed - callback receiving the exception if loading failed
+     */
+    public static void getAsync(Context context, String dataFilesList, Consumer<ZooModel> onLoaded,
+                                Consumer<RuntimeException> onFailed) {
+        Looper mainLooper = Looper.getMainLooper();
+        if (load(context, dataFilesList).isDone() && Looper.myLooper() == mainLooper) {
+            deliver(context, dataFilesList, onLoaded, onFailed);
+            return;
+        }
+
+        // The loader builds models in order, so the model is built (or failed) by the time this
+        // runs and delivering it never blocks the main thread
+        Handler mainHandler = new Handler(mainLooper);
+        LOADER.execute(() -> mainHandler.post(() -> deliver(context, dataFilesList, onLoaded, onFailed)));
+    }
+
+    /**
+     * Passes a built model, or the reason it could not be built, to the matching callback
+     * @param context - Android context
+     * @param dataFilesList - filename of json path list in Assets folder
+     * @param onLoaded - callback receiving the model
+     * @param onFailed - callback receiving the exception if loading failed
+     */
+    private static void deliver(Context context, String dataFilesList, Consumer<ZooModel> onLoaded,
+                                Consumer<RuntimeException> onFailed) {
+        ZooModel model;
+        try {
+            model = get(context, dataFilesList);
+        } catch (RuntimeException e) {
+            Log.e("ZooSeeker", "Could not load " + dataFilesList, e);
+            onFailed.accept(e);
+            return;
+        }
+        onLoaded.accept(model);
+    }
+
+    /**
+     * Reads the data files list and parses every file it names
+     * @param context - Android context
+     * @param dataFilesList - filename of json path list in Assets folder
+     * @return newly built model
+     */
+    private static ZooModel build(Context context, String dataFilesList)
+            throws IOException, JSONException {
+        long startTime = System.nanoTime();
+
+        JSONObject zooGraphFiles;
+        try (InputStream is = context.getAssets().open(dataFilesList)) {
+            byte[] bytes = new byte[is.available()];
+            is.read(bytes, 0, bytes.length);
+            zooGraphFiles = new JSONObject(new String(bytes));
+        }
+
+        // Prefer the binary file generated at build time, fall back to parsing the json files
+        ZooBinary binary = null;
+        if (zooGraphFiles.has("binary_file")) {
+            binary = ZooData.loadZooBinary(context, zooGraphFiles.getString("binary_file"));
+        }
+
+        // Optionally answer routing queries from a contraction hierarchy, loaded or built in the
+        // background on first load, with A* answering until it is ready
+        Function<ZooGraphIndex, DistanceOracle> oracleFactory = null;
+        if (zooGraphFiles.has("contraction_hierarchy")) {
+            String hierarchyFile = zooGraphFiles.getString("contraction_hierarchy");
+            oracleFactory = graphIndex -> new DeferredDistanceOracle(new AStarDistanceOracle(graphIndex),
+                    CONTRACTOR.submit(() -> contractionHierarchyOracle(context, hierarchyFile, graphIndex)));
+        }
+
+        ZooModel model;
+        if (binary != null) {
+            model = new ZooModel(binary, oracleFactory);
+        } else {
+            model = new ZooModel(
+                    ZooData.loadZooGraphJSON(context, zooGraphFiles.getString("graph_file")),
+                    ZooData.loadVertexInfoJSON(context, zooGraphFiles.getString("vertex_file")),
+                    ZooData.loadEdgeInfoJSON(context, zooGraphFiles.getString("edge_file")),
+                    null, oracleFactory);
+        }
+
+        Log.d("ZooSeeker", String.format("Loaded %s (%s) in %d ms", dataFilesList,
+                (binary != null) ? "binary" : "json", (System.nanoTime() - startTime) / 1_000_000));
+        return model;
+    }
+
+    /**
+     * Returns an oracle over the graph's contraction hierarchy, loading a saved hierarchy if there
+     *  is one for this graph, otherwise contracting the graph and saving the result for next time
+     * @param context - Android context
+     * @param hierarchyFile - path of hierarchy file, in assets or the app's files directory
+     * @param graphIndex - index of the zoo graph
+     * @return contraction hierarchy oracle
+     */
+    private static DistanceOracle contractionHierarchyOracle(Context context, String hierarchyFile,
+                                                             ZooGraphIndex graphIndex) {
+        ContractionHierarchy hierarchy = ZooData.loadContractionHierarchy(context, hierarchyFile, graphIndex);
+        if (hierarchy == null) {
+            long startTime = System.nanoTime();
+            hierarchy = ContractionHierarchy.build(graphIndex);
+            boolean saved = ZooData.saveContractionHierarchy(context, hierarchyFile, hierarchy);
+            Log.d("ZooSeeker", String.format("Contracted %s in %d ms (%s)", hierarchyFile,
+                    (System.nanoTime() - startTime) / 1_000_000, saved ? "saved" : "not saved"));
+        }
+        return new ContractionHierarchyOracle(graphIndex, hierarchy);
+    }
+
+    /**
+     * Returns the zoo graph, building it from binary zoo data on first call
+     * @return unmodifiable zoo graph
+     */
+    public synchronized Graph<String, IdentifiedWeightedEdge> getGraph() {
+        if (graph == null) {
+            graph = new AsUnmodifiableGraph<>(ZooData.loadZooGraphBinary(binary));
+        }
+        return graph;
+    }
+
+    /**
+     * Returns info for every zoo location, building it from binary zoo data on first call
+     * @return unmodifiable mapping from vertex ids to vertex info
+     */
+    public synchronized Map<String, ZooData.VertexInfo> getVertexInfo() {
+        if (vertexInfo == null) {
+            vertexInfo = sealVertexInfo(ZooData.loadVertexInfoBinary(binary));
+        }
+        return vertexInfo;
+    }
+
+    /**
+     * Returns info for every edge with a street, building it from binary zoo data on first call
+     * @return unmodifiable mapping from edge ids to edge info
+     */
+    public synchronized Map<String, ZooData.EdgeInfo> getEdgeInfo() {
+        if (edgeInfo == null) {
+            edgeInfo = Collections.unmodifiableMap(ZooData.loadEdgeInfoBinary(binary));
+        }
+        return edgeInfo;
+    }
+
+    // Getters
+    public ZooGraphIndex getGraphIndex() {return graphIndex;}
+    public DistanceOracle getDistanceOracle() {return distanceOracle;}
+    public SpatialIndex getSpatialIndex() {return spatialIndex;}
+    public DirectionsCache getDirectionsCache() {return directionsCache;}
+
+    /**
+     * Returns the binary zoo data the model was loaded from, for allocation-free column access
+     * @return binary zoo data, null if the model was parsed from json
+     */
+    public ZooBinary getBinary() {return binary;}
+
+    /**
+     * Returns the id of the first gate in the vertex info, null if there is none
+     * @return id of zoo gate
+     */
+    public String getGateId() {return gateId;}
+}
@@ -0,0 +1,71 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(AndroidJUnit4.class)
+public class DirectionsCacheTest {
+    public Context context = getApplication().getApplicationContext();
+    public DataFilesReader graphReader = new DataFilesReader(context, "zoo_data_files.json");
+
+    // Covers dropping the least recently used directions once full
+    @Test
+    public void testEviction() {
+        DirectionsCache cache = new DirectionsCache(2);
+        cache.put("a", "b", true, Arrays.asList("ab"));
+        cache.put("a", "c", true, Arrays.asList("ac"));
+        Assert.assertEquals(Arrays.asList("ab"), cache.get("a", "b", true));
+
+        // "a" to "c" is now the least recently used
+        cache.put("a", "d", true, Arrays.asList("ad"));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("a", "c", true));
+        Assert.assertNotNull(cache.get("a", "b", true));
+        Assert.assertNull(cache.get("a", "b", false));
+
+        cache.invalidate();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    // Covers cached directions being immutable copies
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        DirectionsCache cache = new DirectionsCache();
+        List<String> directions = new ArrayList<>(Arrays.asList("ab"));
+        cache.put("a", "b", true, directions);
+        directions.add("changed");
+        Assert.assertEquals(Arrays.asList("ab"), cache.get("a", "b", true));
+        cache.get("a", "b", true).add("changed");
+    }
+
+    // Covers routes generating directions once, and returning copies callers may edit
+    @Test
+    public void testRouteDirections() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("siamang");
+        exhibits.add("crocodile");
+        Route route = new Route(graphReader, exhibits, "entrance_exit_gate");
+        DirectionsCache cache = graphReader.getModel().getDirectionsCache();
+        cache.invalidate();
+
+        ArrayList<String> brief = route.getDirectionsToNextExhibit("entrance_exit_gate", true);
+        ArrayList<String> detailed = route.getDirectionsToNextExhibit("entrance_exit_gate", false);
+        Assert.assertEquals(2, cache.size());
+
+        brief.clear();
+        Assert.assertEquals(detailed, route.getDirectionsToNextExhibit("entrance_exit_gate", false));
+        Assert.assertFalse(route.getDirectionsToNextExhibit("entrance_exit_gate", true).isEmpty());
+        Assert.assertEquals(2, cache.size());
+    }
+}
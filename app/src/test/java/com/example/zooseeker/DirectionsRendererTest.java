@@ -0,0 +1,93 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+
+@RunWith(AndroidJUnit4.class)
+public class DirectionsRendererTest {
+    public Context context = getApplication().getApplicationContext();
+    public DataFilesReader graphReader = new DataFilesReader(context, "zoo_data_files.json");
+
+    // Covers the default templates, matching the directions shown before steps were structured
+    @Test
+    public void testDefaultTemplates() {
+        DirectionsRenderer renderer = new DirectionsRenderer();
+        DirectionStep proceed = new DirectionStep("Orangutan Trail", 1200.0, "siamang", "Siamangs",
+                ZooData.VertexInfo.Kind.EXHIBIT, false);
+        DirectionStep proceedAgain = new DirectionStep("Orangutan Trail", 1100.0, "orangutan", "Orangutans",
+                ZooData.VertexInfo.Kind.EXHIBIT, true);
+        DirectionStep arrived = new DirectionStep(null, 0.0, "siamang", "Siamangs",
+                ZooData.VertexInfo.Kind.EXHIBIT, false);
+
+        Assert.assertEquals("Proceed on Orangutan Trail 1200 ft towards Siamangs Exhibit",
+                renderer.render(proceed, false));
+        Assert.assertEquals("Continue on Orangutan Trail 1100 ft towards Orangutans Exhibit",
+                renderer.render(proceedAgain, false));
+        Assert.assertEquals("Proceed on Orangutan Trail 1200.0 ft towards Siamangs",
+                renderer.render(proceed, true));
+        Assert.assertEquals(" 0.0 ft towards Siamangs", renderer.render(arrived, true));
+    }
+
+    // Covers custom templates, units and locales
+    @Test
+    public void testCustomTemplates() {
+        DirectionsRenderer renderer = new DirectionsRenderer(
+                "Take {street} for {whole} m to {target}",
+                "Stay on {street} for {whole} m to {target}",
+                "{street}: {distance} m",
+                "Arrived at {target}",
+                0.3048, Locale.GERMANY);
+        DirectionStep step = new DirectionStep("Gate Path", 11000.0, "front", "Front Street",
+                ZooData.VertexInfo.Kind.INTERSECTION, false);
+
+        Assert.assertEquals("Take Gate Path for 3.352 m to Front Street", renderer.render(step, false));
+        Assert.assertEquals("Gate Path: 3.352,8 m", renderer.render(step, true));
+        Assert.assertEquals("Arrived at Front Street", renderer.render(
+                new DirectionStep(null, 0.0, "front", "Front Street", ZooData.VertexInfo.Kind.INTERSECTION, false),
+                true));
+    }
+
+    // Covers brief steps merging runs along the same street, and detailed steps one per edge
+    @Test
+    public void testRouteSteps() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("siamang");
+        Route route = new Route(graphReader, exhibits, "entrance_exit_gate");
+
+        ArrayList<DirectionStep> detailed = route.getDirectionSteps("entrance_exit_gate", "siamang", false);
+        ArrayList<DirectionStep> brief = route.getDirectionSteps("entrance_exit_gate", "siamang", true);
+        Assert.assertEquals(route.getPath("entrance_exit_gate", "siamang").getEdgeList().size(), detailed.size());
+        Assert.assertTrue(brief.size() < detailed.size());
+        Assert.assertEquals("siamang", brief.get(brief.size() - 1).targetId);
+
+        // Total distance is kept when merging
+        double detailedDistance = 0;
+        for (DirectionStep step : detailed) detailedDistance += step.distance;
+        double briefDistance = 0;
+        for (DirectionStep step : brief) briefDistance += step.distance;
+        Assert.assertEquals(detailedDistance, briefDistance, 0.001);
+
+        // Already there, brief directions still say so
+        ArrayList<DirectionStep> arrived = route.getDirectionSteps("siamang", "siamang", true);
+        Assert.assertEquals(1, arrived.size());
+        Assert.assertNull(arrived.get(0).street);
+    }
+
+    // Covers joining directions for display
+    @Test
+    public void testCondense() {
+        Assert.assertEquals("a\n\nb\n\n", DirectionsRenderer.condense(Arrays.asList("a", "b"), "\n\n"));
+        Assert.assertEquals("", DirectionsRenderer.condense(new ArrayList<>(), "\n\n"));
+    }
+}
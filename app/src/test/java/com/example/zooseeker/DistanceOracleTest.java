@@ -0,0 +1,272 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultUndirectedWeightedGraph;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+import java.util.concurrent.FutureTask;
+
+@RunWith(AndroidJUnit4.class)
+public class DistanceOracleTest {
+    public Context context = getApplication().getApplicationContext();
+
+    // Covers getPathWeight and getPath against JGraphT's Dijkstra, for every pair of vertices
+    @Test
+    public void testMatchesDijkstra() {
+        Graph<String, IdentifiedWeightedEdge> zooGraph =
+                ZooData.loadZooGraphJSON(context, "new_assets/zoo_graph.json");
+        DistanceOracle oracle = new AllPairsDistanceOracle(zooGraph);
+        DijkstraShortestPath<String, IdentifiedWeightedEdge> dijkstra =
+                new DijkstraShortestPath<>(zooGraph);
+
+        for (String start : zooGraph.vertexSet()) {
+            for (String end : zooGraph.vertexSet()) {
+                double expected = dijkstra.getPathWeight(start, end);
+                Assert.assertEquals(expected, oracle.getPathWeight(start, end), 0.001);
+
+                // Path must be a connected walk from start to end with the same weight
+                GraphPath<String, IdentifiedWeightedEdge> path = oracle.getPath(start, end);
+                Assert.assertEquals(start, path.getStartVertex());
+                Assert.assertEquals(end, path.getEndVertex());
+                Assert.assertEquals(expected, path.getWeight(), 0.001);
+                Assert.assertEquals(path.getVertexList().size(), path.getLength() + 1);
+            }
+        }
+    }
+
+    @Test
+    public void testTriGraph() {
+        Graph<String, IdentifiedWeightedEdge> zooGraph =
+                ZooData.loadZooGraphJSON(context, "triangular_graph.json");
+        DistanceOracle oracle = new AllPairsDistanceOracle(zooGraph);
+
+        Assert.assertEquals(0.0, oracle.getPathWeight("lions", "lions"), 0.001);
+        Assert.assertEquals(0, oracle.getPath("lions", "lions").getLength());
+        Assert.assertEquals(oracle.getPathWeight("lions", "gators"),
+                oracle.getPathWeight("gators", "lions"), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVertex() {
+        Graph<String, IdentifiedWeightedEdge> zooGraph =
+                ZooData.loadZooGraphJSON(context, "triangular_graph.json");
+        new AllPairsDistanceOracle(zooGraph).getPathWeight("lions", "not_a_vertex");
+    }
+
+    // Covers A* finding the same shortest paths as the all-pairs tables, for every pair of vertices
+    @Test
+    public void testAStarMatchesAllPairs() {
+        ZooModel model = new DataFilesReader(context, "zoo_data_files.json").getModel();
+        ZooGraphIndex index = model.getGraphIndex();
+        DistanceOracle expected = new AllPairsDistanceOracle(index);
+        AStarDistanceOracle oracle = new AStarDistanceOracle(index);
+        Assert.assertTrue(oracle.isGeometric());
+
+        double[] weights = new double[index.getVertexCount()];
+        for (int start = 0; start < index.getVertexCount(); start++) {
+            for (int end = 0; end < index.getVertexCount(); end++) {
+                Assert.assertEquals(expected.getPathWeight(start, end), oracle.getPathWeight(start, end), 0.001);
+                int[] pathEdges = oracle.getPathEdges(start, end);
+                Assert.assertEquals(end, index.getPathEnd(start, pathEdges));
+                Assert.assertEquals(expected.getPathWeight(start, end), index.getPathWeight(pathEdges), 0.001);
+            }
+
+            oracle.getPathWeights(start, weights);
+            for (int end = 0; end < index.getVertexCount(); end++) {
+                Assert.assertEquals(expected.getPathWeight(start, end), weights[end], 0.001);
+            }
+        }
+    }
+
+    // Covers the heuristic settling fewer vertices than Dijkstra for a query across the zoo
+    @Test
+    public void testAStarSettlesFewer() {
+        ZooGraphIndex index = new DataFilesReader(context, "zoo_data_files.json").getGraphIndex();
+        AStarDistanceOracle aStar = new AStarDistanceOracle(index);
+        AStarDistanceOracle dijkstra = new AStarDistanceOracle(index, false);
+        int start = index.getOrdinal("entrance_exit_gate");
+        int end = index.getOrdinal("siamang");
+
+        Assert.assertEquals(dijkstra.getPathWeight(start, end), aStar.getPathWeight(start, end), 0.001);
+        Assert.assertTrue(aStar.getLastSettledCount() < dijkstra.getLastSettledCount());
+    }
+
+    // Covers falling back to Dijkstra on graphs without coordinates
+    @Test
+    public void testAStarWithoutCoordinates() {
+        Graph<String, IdentifiedWeightedEdge> zooGraph =
+                ZooData.loadZooGraphJSON(context, "triangular_graph.json");
+        AStarDistanceOracle oracle = new AStarDistanceOracle(zooGraph);
+        DistanceOracle expected = new AllPairsDistanceOracle(zooGraph);
+
+        Assert.assertFalse(oracle.isGeometric());
+        Assert.assertEquals(expected.getPathWeight("lions", "gators"), oracle.getPathWeight("lions", "gators"), 0.001);
+        Assert.assertEquals(0, oracle.getPath("lions", "lions").getLength());
+    }
+
+    // Covers contraction hierarchy queries and unpacked paths matching the all-pairs tables
+    @Test
+    public void testContractionHierarchyMatchesAllPairs() {
+        ZooGraphIndex index = new DataFilesReader(context, "zoo_data_files.json").getGraphIndex();
+        DistanceOracle expected = new AllPairsDistanceOracle(index);
+        ContractionHierarchyOracle oracle = new ContractionHierarchyOracle(index);
+
+        double[] weights = new double[index.getVertexCount()];
+        for (int start = 0; start < index.getVertexCount(); start++) {
+            for (int end = 0; end < index.getVertexCount(); end++) {
+                Assert.assertEquals(expected.getPathWeight(start, end), oracle.getPathWeight(start, end), 0.001);
+
+                // Shortcuts unpack into a connected walk of original edges
+                int[] pathEdges = oracle.getPathEdges(start, end);
+                Assert.assertEquals(end, index.getPathEnd(start, pathEdges));
+                Assert.assertEquals(expected.getPathWeight(start, end), index.getPathWeight(pathEdges), 0.001);
+            }
+
+            oracle.getPathWeights(start, weights);
+            for (int end = 0; end < index.getVertexCount(); end++) {
+                Assert.assertEquals(expected.getPathWeight(start, end), weights[end], 0.001);
+            }
+        }
+    }
+
+    // Covers saving a hierarchy and loading it back, and rejecting it for a different graph
+    @Test
+    public void testContractionHierarchySaveAndLoad() {
+        ZooGraphIndex index = new DataFilesReader(context, "zoo_data_files.json").getGraphIndex();
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(index);
+        Assert.assertTrue(ZooData.saveContractionHierarchy(context, "test/zoo.ch", hierarchy));
+
+        ContractionHierarchy loaded = ZooData.loadContractionHierarchy(context, "test/zoo.ch", index);
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(hierarchy.getArcCount(), loaded.getArcCount());
+        DistanceOracle built = new ContractionHierarchyOracle(index, hierarchy);
+        DistanceOracle reloaded = new ContractionHierarchyOracle(index, loaded);
+        int start = index.getOrdinal("entrance_exit_gate");
+        int end = index.getOrdinal("siamang");
+        Assert.assertArrayEquals(built.getPathEdges(start, end), reloaded.getPathEdges(start, end));
+
+        ZooGraphIndex otherIndex = new ZooGraphIndex(ZooData.loadZooGraphJSON(context, "triangular_graph.json"));
+        Assert.assertNull(ZooData.loadContractionHierarchy(context, "test/zoo.ch", otherIndex));
+        Assert.assertNull(ZooData.loadContractionHierarchy(context, "test/missing.ch", index));
+    }
+
+    // Covers many-to-many tables matching point queries, for each kind of oracle
+    @Test
+    public void testDistanceTable() {
+        ZooGraphIndex index = new DataFilesReader(context, "zoo_data_files.json").getGraphIndex();
+        int[] sources = {index.getOrdinal("entrance_exit_gate"), index.getOrdinal("siamang"),
+                index.getOrdinal("entrance_exit_gate")};
+        int[] targets = new int[index.getVertexCount()];
+        for (int v = 0; v < targets.length; v++) {
+            targets[v] = v;
+        }
+
+        DistanceOracle expected = new AllPairsDistanceOracle(index);
+        DistanceOracle[] oracles = {expected, new AStarDistanceOracle(index), new ContractionHierarchyOracle(index)};
+        for (DistanceOracle oracle : oracles) {
+            DistanceTable table = oracle.getDistanceTable(sources, targets);
+            Assert.assertEquals(sources.length, table.getRowCount());
+            Assert.assertEquals(targets.length, table.getColumnCount());
+            for (int i = 0; i < sources.length; i++) {
+                for (int j = 0; j < targets.length; j++) {
+                    Assert.assertEquals(expected.getPathWeight(sources[i], targets[j]), table.get(i, j), 0.001);
+                }
+            }
+        }
+    }
+
+    // Covers the deferred oracle answering from its fallback until the pending oracle is built,
+    // and keeping the fallback if the build fails
+    @Test
+    public void testDeferredOracle() {
+        ZooGraphIndex index = new DataFilesReader(context, "zoo_data_files.json").getGraphIndex();
+        DistanceOracle expected = new AllPairsDistanceOracle(index);
+        FutureTask<DistanceOracle> pending = new FutureTask<>(() -> new ContractionHierarchyOracle(index));
+        FutureTask<DistanceOracle> failing = new FutureTask<>(() -> {
+            throw new IllegalStateException("build failed");
+        });
+        DeferredDistanceOracle deferred = new DeferredDistanceOracle(new AStarDistanceOracle(index), pending);
+        DeferredDistanceOracle failed = new DeferredDistanceOracle(new AStarDistanceOracle(index), failing);
+
+        Assert.assertFalse(deferred.isReady());
+        assertSameWeights(expected, deferred);
+        pending.run();
+        failing.run();
+        Assert.assertTrue(deferred.isReady());
+        Assert.assertFalse(failed.isReady());
+        assertSameWeights(expected, deferred);
+        assertSameWeights(expected, failed);
+        Assert.assertSame(index, deferred.getGraphIndex());
+    }
+
+    private static void assertSameWeights(DistanceOracle expected, DistanceOracle oracle) {
+        ZooGraphIndex index = expected.getGraphIndex();
+        for (int start = 0; start < index.getVertexCount(); start++) {
+            for (int end = 0; end < index.getVertexCount(); end++) {
+                Assert.assertEquals(expected.getPathWeight(start, end), oracle.getPathWeight(start, end), 0.001);
+                Assert.assertEquals(expected.getPathWeight(start, end),
+                        index.getPathWeight(oracle.getPathEdges(start, end)), 0.001);
+            }
+        }
+    }
+
+    // Covers shortcuts over zero-weight edges, which still need adding (e.g. a -0- b -0- c)
+    @Test
+    public void testContractionHierarchyZeroWeights() {
+        Graph<String, IdentifiedWeightedEdge> graph = new DefaultUndirectedWeightedGraph<>(IdentifiedWeightedEdge.class);
+        Random random = new Random(11);
+        int vertexCount = 40;
+        for (int v = 0; v < vertexCount; v++) {
+            graph.addVertex("v" + v);
+        }
+        for (int v = 0; v + 1 < vertexCount; v++) {
+            addEdge(graph, "path" + v, "v" + v, "v" + (v + 1), (v % 3 == 0) ? 1.0 : 0.0);
+        }
+        for (int e = 0; e < 60; e++) {
+            addEdge(graph, "extra" + e, "v" + random.nextInt(vertexCount), "v" + random.nextInt(vertexCount),
+                    (random.nextInt(3) == 0) ? 0.0 : random.nextInt(5));
+        }
+
+        ZooGraphIndex index = new ZooGraphIndex(graph);
+        DistanceOracle expected = new AllPairsDistanceOracle(index);
+        ContractionHierarchyOracle oracle = new ContractionHierarchyOracle(index);
+        int[] all = new int[index.getVertexCount()];
+        for (int v = 0; v < all.length; v++) {
+            all[v] = v;
+        }
+        DistanceTable table = oracle.getDistanceTable(all, all);
+        double[] weights = new double[index.getVertexCount()];
+        for (int start = 0; start < all.length; start++) {
+            oracle.getPathWeights(start, weights);
+            for (int end = 0; end < all.length; end++) {
+                double weight = expected.getPathWeight(start, end);
+                Assert.assertEquals(weight, oracle.getPathWeight(start, end), 0.001);
+                Assert.assertEquals(weight, weights[end], 0.001);
+                Assert.assertEquals(weight, table.get(start, end), 0.001);
+                int[] pathEdges = oracle.getPathEdges(start, end);
+                Assert.assertEquals(end, index.getPathEnd(start, pathEdges));
+                Assert.assertEquals(weight, index.getPathWeight(pathEdges), 0.001);
+            }
+        }
+    }
+
+    private static void addEdge(Graph<String, IdentifiedWeightedEdge> graph, String id, String source,
+                                String target, double weight) {
+        if (source.equals(target)) return;
+        IdentifiedWeightedEdge edge = new IdentifiedWeightedEdge();
+        edge.setId(id);
+        graph.addEdge(source, target, edge);
+        graph.setEdgeWeight(edge, weight);
+    }
+}
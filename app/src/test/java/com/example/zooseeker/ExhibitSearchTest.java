@@ -0,0 +1,122 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(AndroidJUnit4.class)
+public class ExhibitSearchTest {
+    public Context context = getApplication().getApplicationContext();
+    public List<Exhibit> exhibits = Exhibit.returnExhibits(
+            ZooData.loadVertexInfoJSON(context, "new_assets/exhibit_info.json"));
+
+    // Exhibits whose name or a tag contains the query, found by scanning
+    private Set<Exhibit> scan(String query) {
+        Set<Exhibit> results = new HashSet<>();
+        for (Exhibit exhibit : exhibits) {
+            List<String> terms = new ArrayList<>(exhibit.tags);
+            terms.add(exhibit.name);
+            for (String term : terms) {
+                if (term.toLowerCase().contains(query.toLowerCase())) {
+                    results.add(exhibit);
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    // Covers index lookups for short and long queries matching a scan of every exhibit, ahead of
+    // any misspelling matches
+    @Test
+    public void testMatchesScan() {
+        ExhibitSearch search = new ExhibitSearch(exhibits);
+        String[] queries = {"", "a", "Bi", "bird", "BIRD", "parker av", "gorilla", "ape", "zzz", "qqqq"};
+        for (String query : queries) {
+            ArrayList<Exhibit> results = search.search(query);
+            Set<Exhibit> expected = scan(query);
+            Assert.assertTrue(query, results.size() >= expected.size());
+            Assert.assertEquals(query, expected, new HashSet<>(results.subList(0, expected.size())));
+            Assert.assertEquals(query, results.size(), new HashSet<>(results).size());
+        }
+    }
+
+    // Covers ranking: exact matches, then prefixes, then other substrings
+    @Test
+    public void testRanking() {
+        ExhibitSearch search = new ExhibitSearch(exhibits);
+        ArrayList<Exhibit> results = search.search("go");
+
+        // Gorillas start with the query, flamingos only contain it
+        int gorilla = -1;
+        int flamingo = -1;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).id.equals("gorilla")) gorilla = i;
+            if (results.get(i).id.equals("flamingo")) flamingo = i;
+        }
+        Assert.assertTrue(gorilla >= 0 && flamingo >= 0);
+        Assert.assertTrue(gorilla < flamingo);
+
+        Assert.assertEquals("gorilla", search.search("Gorillas").get(0).id);
+    }
+
+    // Covers misspelled names and tags, and typos not matching unrelated exhibits
+    @Test
+    public void testFuzzyMatches() {
+        ExhibitSearch search = new ExhibitSearch(exhibits);
+        Assert.assertEquals("gorilla", search.search("gorila").get(0).id);
+        Assert.assertEquals("crocodile", search.search("Crocodle").get(0).id);
+        Assert.assertEquals("orangutan", search.search("orangatan").get(0).id);
+        Assert.assertEquals("capuchin", search.search("monkee").get(0).id);
+        Assert.assertTrue(search.search("qqqq").isEmpty());
+
+        // Short queries only match exactly
+        Assert.assertTrue(search.search("koo").isEmpty());
+    }
+
+    // Covers misspellings ranking after substring matches, by edit distance then word position
+    @Test
+    public void testFuzzyRanking() {
+        List<Exhibit> domain = Arrays.asList(
+                new Exhibit("far", "Elephan Seals", Arrays.asList("seal")),
+                new Exhibit("late", "Asian Elephants", Arrays.asList("mammal")),
+                new Exhibit("near", "Elephants", Arrays.asList("mammal")),
+                new Exhibit("substring", "Elephant Rides", Arrays.asList("elephantz")));
+        ArrayList<Exhibit> results = new ExhibitSearch(domain).search("elephantz");
+
+        List<String> ids = new ArrayList<>();
+        for (Exhibit exhibit : results) ids.add(exhibit.id);
+        Assert.assertEquals(Arrays.asList("substring", "near", "late", "far"), ids);
+    }
+
+    // Covers narrowing while typing, and falling back to the index on deletions and edits
+    @Test
+    public void testIncrementalQueries() {
+        ExhibitSearch search = new ExhibitSearch(exhibits);
+        String[] queries = {"m", "ma", "mam", "mamm", "mamma", "mammal", "mamma", "mammx", "b", "bi",
+                "bir", "bird", "birds", "", "parker", "parker a", "parker av"};
+        for (String query : queries) {
+            Assert.assertEquals(query, new ExhibitSearch(exhibits).search(query), search.search(query));
+        }
+    }
+
+    // Covers searches for the typed query not being cancelled
+    @Test
+    public void testLatestQueryNotCancelled() {
+        ExhibitSearch search = new ExhibitSearch(exhibits);
+        search.setLatestQuery("bird");
+        Assert.assertEquals(scan("bird"), new HashSet<>(search.search("bird")));
+    }
+}
@@ -4,8 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 
 import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
 
 import androidx.room.Room;
 import androidx.test.core.app.ApplicationProvider;
@@ -18,6 +20,9 @@ import org.junit.runner.RunWith;
 
 import java.io.IOError;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 @RunWith(AndroidJUnit4.class)
 public class LocationDatabaseTest {
@@ -85,4 +90,63 @@ public class LocationDatabaseTest {
         assertNull(dao.get(id));
     }
 
+    @Test
+    public void testInsertIfAbsent() {
+        long id = dao.insertIfAbsent("Pizza time", "pizza", 2.0);
+        dao.insertIfAbsent("Photos of Spider-Man", "spider", 3.0);
+
+        assertEquals(-1, dao.insertIfAbsent("Pizza time", "pizza", 5.0));
+        assertEquals(2, dao.getDataCount());
+        assertEquals(id, dao.get("pizza").id);
+        assertEquals(2.0, dao.get("pizza").distance, 0.0);
+        assertEquals(0, dao.get("pizza").order);
+        assertEquals(1, dao.get("spider").order);
+    }
+
+    @Test
+    public void testUniqueTextId() {
+        long id = dao.insert(new LocationsListItem("Pizza time", "pizza", 2.0, 0));
+
+        assertThrows(SQLiteConstraintException.class,
+                () -> dao.insert(new LocationsListItem("Pizza time", "pizza", 5.0, 1)));
+        assertEquals(1, dao.getDataCount());
+        assertEquals(id, dao.get("pizza").id);
+        assertEquals(2.0, dao.get("pizza").distance, 0.0);
+    }
+
+    @Test
+    public void testReplacePlan() {
+        long pizzaId = dao.insert(new LocationsListItem("Pizza time", "pizza", 2.0, 0));
+        dao.insert(new LocationsListItem("Photos of Spider-Man", "spider", 3.0, 1));
+
+        dao.replacePlan(Arrays.asList(
+                new LocationsListItem("Bugle office", "bugle", 1.0, 0),
+                new LocationsListItem("Pizza time", "pizza", 4.0, 1)));
+
+        List<LocationsListItem> items = dao.getAll();
+        assertEquals(2, items.size());
+        assertEquals("bugle", items.get(0).textId);
+        assertEquals("pizza", items.get(1).textId);
+        assertEquals(4.0, items.get(1).distance, 0.0);
+
+        // Locations still in the plan keep their id's, removed ones are gone
+        assertEquals(pizzaId, items.get(1).id);
+        assertNull(dao.get("spider"));
+    }
+
+    // Leg paths are stored as json arrays, so vertex id's may contain the old comma separator
+    @Test
+    public void testRouteLegPathRoundTrip() {
+        RouteWaypointDao routeDao = db.routeWaypointDao();
+        List<String> legPath = Arrays.asList("gate", "trail, north", "lions \"den\"");
+        routeDao.replaceRoute(Arrays.asList(
+                new RouteWaypointItem(0, "lions \"den\"", "gate", true, 3.0, legPath),
+                new RouteWaypointItem(1, "gate", "lions \"den\"", false, Double.POSITIVE_INFINITY,
+                        Collections.emptyList())));
+
+        List<RouteWaypointItem> items = routeDao.getAll();
+        assertEquals(2, items.size());
+        assertEquals(legPath, items.get(0).legPath);
+        assertEquals(Collections.emptyList(), items.get(1).legPath);
+    }
 }
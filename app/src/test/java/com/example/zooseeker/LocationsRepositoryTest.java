@@ -0,0 +1,90 @@
+package com.example.zooseeker;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(AndroidJUnit4.class)
+public class LocationsRepositoryTest {
+    private LocationsDatabase db;
+    private LocationsRepository repository;
+
+    @Before
+    public void createDb() {
+        // Queries are only allowed off the main thread, as in the app
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, LocationsDatabase.class).build();
+        repository = new LocationsRepository(db, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    // Reads the list once, running the main thread callback
+    private List<LocationsListItem> getAll() {
+        AtomicReference<List<LocationsListItem>> items = new AtomicReference<>();
+        repository.getAll(items::set);
+        shadowOf(Looper.getMainLooper()).idle();
+        return items.get();
+    }
+
+    @Test
+    public void testAddLocation() {
+        repository.addLocation("Pizza time", "pizza", 0);
+        repository.addLocation("Photos of Spider-Man", "spider", 0);
+        repository.addLocation("Pizza time", "pizza", 0);
+
+        List<String> ids = new ArrayList<>();
+        for (LocationsListItem item : getAll()) ids.add(item.textId);
+        assertEquals(Arrays.asList("pizza", "spider"), ids);
+
+        AtomicReference<Integer> count = new AtomicReference<>();
+        repository.getCount(count::set);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(2, (int) count.get());
+    }
+
+    @Test
+    public void testReplacePlanAndDelete() {
+        repository.addLocation("Pizza time", "pizza", 0);
+        repository.addLocation("Photos of Spider-Man", "spider", 0);
+        repository.replacePlan(Arrays.asList(
+                new LocationsListItem("Photos of Spider-Man", "spider", 1.0, 0),
+                new LocationsListItem("Pizza time", "pizza", 2.0, 1)));
+
+        List<LocationsListItem> items = getAll();
+        assertEquals("spider", items.get(0).textId);
+        assertEquals("pizza", items.get(1).textId);
+
+        repository.deleteLocation(items.get(0));
+        items = getAll();
+        assertEquals(1, items.size());
+        assertEquals("pizza", items.get(0).textId);
+    }
+}
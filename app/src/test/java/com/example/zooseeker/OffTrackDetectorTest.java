@@ -0,0 +1,64 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+@RunWith(AndroidJUnit4.class)
+public class OffTrackDetectorTest {
+
+    // Create objects needed for Route to function
+    public Context context = getApplication().getApplicationContext();
+    public DataFilesReader graphReader = new DataFilesReader(context, "zoo_data_files.json");
+
+    private Route createRoute() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("siamang");
+        exhibits.add("toucan");
+        exhibits.add("crocodile");
+        return new Route(graphReader, exhibits, "entrance_exit_gate");
+    }
+
+    // Covers detector agreeing with Route.isOffTrack when hysteresis is disabled
+    @Test
+    public void testMatchesRoute() {
+        Route route = createRoute();
+        while (!route.reachedEnd()) {
+            for (String vertex : graphReader.getGraph().vertexSet()) {
+                OffTrackDetector detector = new OffTrackDetector(graphReader.getGraphIndex(), 0.0, 1);
+                Assert.assertEquals(route.isOffTrack(vertex), detector.update(route, vertex));
+            }
+            route.advanceToNextExhibit("entrance_exit_gate");
+        }
+    }
+
+    // Covers state only changing after consecutive fixes, and resetting on reroute
+    @Test
+    public void testHysteresis() {
+        Route route = createRoute();
+        route.advanceToNextExhibit("entrance_exit_gate");
+        OffTrackDetector detector = new OffTrackDetector(graphReader.getGraphIndex(), 0.0, 2);
+
+        // Hippos are closer to crocodiles than to toucans, siamangs are closer to toucans
+        Assert.assertFalse(detector.update(route, "hippo"));
+        Assert.assertFalse(detector.update(route, "siamang"));
+        Assert.assertFalse(detector.update(route, "hippo"));
+        Assert.assertTrue(detector.update(route, "hippo"));
+        Assert.assertTrue(detector.update(route, "siamang"));
+        Assert.assertFalse(detector.update(route, "siamang"));
+
+        Assert.assertFalse(detector.update(route, "hippo"));
+        Assert.assertTrue(detector.update(route, "hippo"));
+        route.reroute("hippo");
+        Assert.assertFalse(detector.update(route, "hippo"));
+        Assert.assertFalse(detector.update(route, "hippo"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+@RunWith(AndroidJUnit4.class)
+public class RoutePlannerTest {
+
+    // Create objects needed for Route to function
+    public Context context = getApplication().getApplicationContext();
+    public DataFilesReader graphReader = new DataFilesReader(context, "zoo_data_files.json");
+
+    private ArrayList<String> allExhibits() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        for (ZooData.VertexInfo info : graphReader.getVertexInfo().values()) {
+            if (info.kind == ZooData.VertexInfo.Kind.EXHIBIT) exhibits.add(info.id);
+        }
+        return exhibits;
+    }
+
+    // Sum of the legs of a route, starting from startId
+    private double routeLength(Route route, String startId) {
+        double length = 0.0;
+        String currId = startId;
+        for (Route.Waypoint waypoint : route.routeOrder) {
+            length += route.getPathWeight(currId, waypoint.id);
+            currId = waypoint.id;
+        }
+        return length;
+    }
+
+    // Covers GreedyPlanner matching Route's original nearest-neighbor ordering
+    @Test
+    public void testGreedyMatchesClosestExhibit() {
+        ArrayList<String> exhibits = allExhibits();
+        Route route = new Route(graphReader.getModel(), exhibits, "entrance_exit_gate",
+                new GreedyPlanner());
+
+        ArrayList<String> unvisited = new ArrayList<>(exhibits);
+        String currId = "entrance_exit_gate";
+        for (int i = 0; i < exhibits.size(); i++) {
+            String nextId = route.closestExhibitId(currId, unvisited);
+            Assert.assertEquals(nextId, route.routeOrder.get(i).id);
+            unvisited.remove(nextId);
+            currId = nextId;
+        }
+    }
+
+    // Covers LocalSearchPlanner visiting every exhibit once, never longer than greedy
+    @Test
+    public void testLocalSearchImprovesOnGreedy() {
+        ArrayList<String> exhibits = allExhibits();
+        Route greedy = new Route(graphReader.getModel(), exhibits, "entrance_exit_gate",
+                new GreedyPlanner());
+        Route optimized = new Route(graphReader.getModel(), exhibits, "entrance_exit_gate",
+                new LocalSearchPlanner(1000, Long.MAX_VALUE));
+
+        Set<String> visited = new HashSet<>();
+        for (Route.Waypoint waypoint : optimized.routeOrder) visited.add(waypoint.id);
+        Assert.assertEquals(exhibits.size() + 1, optimized.routeOrder.size());
+        Assert.assertTrue(visited.containsAll(exhibits));
+        Assert.assertEquals("entrance_exit_gate",
+                optimized.routeOrder.get(optimized.routeOrder.size() - 1).id);
+
+        Assert.assertTrue(routeLength(optimized, "entrance_exit_gate")
+                <= routeLength(greedy, "entrance_exit_gate") + 0.001);
+    }
+
+    // Covers LocalSearchPlanner stopping once out of evaluations
+    @Test
+    public void testLocalSearchBudget() {
+        DistanceTable table = new DistanceTable(5, 5);
+        double[] positions = {0, 3, 1, 2, 0};
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                table.set(i, j, Math.abs(positions[i] - positions[j]));
+            }
+        }
+
+        // Greedy visits 2, 3, 1; with no evaluations allowed that order is returned as is
+        Assert.assertArrayEquals(new int[] {2, 3, 1},
+                new LocalSearchPlanner(1000, 0).plan(table));
+        Assert.assertEquals(3, new LocalSearchPlanner(1000, Long.MAX_VALUE).plan(table).length);
+    }
+
+    // Length of a planned order over a distance table, from stop 0 to the last stop
+    private double planLength(DistanceTable table, int[] order) {
+        double length = 0.0;
+        int currStop = 0;
+        for (int stop : order) {
+            length += table.get(currStop, stop);
+            currStop = stop;
+        }
+        return length + table.get(currStop, table.getRowCount() - 1);
+    }
+
+    // Shortest length over every order of stops order[k..], found by brute force
+    private double bruteForceLength(DistanceTable table, int[] order, int k) {
+        if (k == order.length) return planLength(table, order);
+        double best = Double.MAX_VALUE;
+        for (int i = k; i < order.length; i++) {
+            int swap = order[k]; order[k] = order[i]; order[i] = swap;
+            best = Math.min(best, bruteForceLength(table, order, k + 1));
+            swap = order[k]; order[k] = order[i]; order[i] = swap;
+        }
+        return best;
+    }
+
+    // Covers HeldKarpPlanner finding optimal orders on random plans
+    @Test
+    public void testHeldKarpIsOptimal() {
+        Random random = new Random(42);
+        for (int exhibitCount = 0; exhibitCount <= 7; exhibitCount++) {
+            double[] xs = new double[exhibitCount + 2];
+            double[] ys = new double[exhibitCount + 2];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = random.nextDouble();
+                ys[i] = random.nextDouble();
+            }
+            DistanceTable table = new DistanceTable(xs.length, xs.length);
+            for (int i = 0; i < xs.length; i++) {
+                for (int j = 0; j < xs.length; j++) {
+                    table.set(i, j, Math.hypot(xs[i] - xs[j], ys[i] - ys[j]));
+                }
+            }
+
+            int[] stops = new int[exhibitCount];
+            for (int i = 0; i < exhibitCount; i++) stops[i] = i + 1;
+            Assert.assertEquals(bruteForceLength(table, stops, 0),
+                    planLength(table, new HeldKarpPlanner().plan(table)), 1e-9);
+        }
+    }
+
+    // Covers HeldKarpPlanner still visiting every exhibit when one cannot be reached
+    @Test
+    public void testHeldKarpUnreachableExhibit() {
+        DistanceTable table = new DistanceTable(5, 5);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                table.set(i, j, (i == j) ? 0 : Math.abs(i - j));
+            }
+        }
+        for (int i = 0; i < 5; i++) {
+            if (i == 2) continue;
+            table.set(i, 2, Double.POSITIVE_INFINITY);
+            table.set(2, i, Double.POSITIVE_INFINITY);
+        }
+
+        int[] order = new HeldKarpPlanner().plan(table);
+        Set<Integer> stops = new HashSet<>();
+        for (int stop : order) stops.add(stop);
+        Assert.assertEquals(3, order.length);
+        Assert.assertEquals(3, stops.size());
+        Assert.assertTrue(stops.contains(1) && stops.contains(2) && stops.contains(3));
+    }
+
+    // Covers PlannerSelector choosing by plan size and budget, and Route reporting the strategy
+    @Test
+    public void testPlannerSelector() {
+        PlannerSelector selector = new PlannerSelector(50);
+        Assert.assertEquals(RoutePlanner.Strategy.EXACT, selector.getStrategy(10));
+        Assert.assertEquals(RoutePlanner.Strategy.LOCAL_SEARCH,
+                selector.getStrategy(HeldKarpPlanner.MAX_EXHIBITS + 1));
+        Assert.assertEquals(RoutePlanner.Strategy.GREEDY, new PlannerSelector(0).getStrategy(10));
+
+        ArrayList<String> exhibits = allExhibits();
+        Route greedy = new Route(graphReader.getModel(), exhibits, "entrance_exit_gate");
+        Route selected = new Route(graphReader.getModel(), exhibits, "entrance_exit_gate", selector);
+        Assert.assertEquals(RoutePlanner.Strategy.GREEDY, greedy.getPlanStrategy());
+        Assert.assertEquals(selector.getStrategy(exhibits.size()), selected.getPlanStrategy());
+        Assert.assertTrue(routeLength(selected, "entrance_exit_gate")
+                <= routeLength(greedy, "entrance_exit_gate") + 0.001);
+    }
+}
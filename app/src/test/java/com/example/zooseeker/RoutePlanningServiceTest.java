@@ -0,0 +1,217 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(AndroidJUnit4.class)
+public class RoutePlanningServiceTest {
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    public Context context = getApplication().getApplicationContext();
+    public DataFilesReader graphReader = new DataFilesReader(context, "zoo_data_files.json");
+
+    // Runs main thread tasks until a route is delivered, or the timeout passes
+    private Route awaitRoute(AtomicReference<Route> delivered) throws InterruptedException {
+        return awaitOutcome(delivered);
+    }
+
+    // Runs main thread tasks until an outcome is delivered, or the timeout passes
+    private <T> T awaitOutcome(AtomicReference<T> delivered) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (delivered.get() == null && System.currentTimeMillis() < deadline) {
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(10);
+        }
+        return delivered.get();
+    }
+
+    private ArrayList<String> exhibits() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("toucan");
+        exhibits.add("siamang");
+        exhibits.add("crocodile");
+        return exhibits;
+    }
+
+    // Covers planRoute delivering and publishing a fully planned route
+    @Test
+    public void testPlanRoute() throws InterruptedException {
+        AtomicReference<Route> delivered = new AtomicReference<>();
+        RoutePlanningService.planRoute(graphReader.getModel(), exhibits(), "entrance_exit_gate",
+                new GreedyPlanner(), false, delivered::set);
+
+        Route route = awaitRoute(delivered);
+        Assert.assertNotNull(route);
+        Assert.assertSame(route, RouteSingleton.getRoute());
+        Assert.assertEquals(new Route(graphReader, exhibits(), "entrance_exit_gate").getExhibitsInOrder(),
+                route.getExhibitsInOrder());
+    }
+
+    // Covers reroute planning on a copy, leaving the current route untouched until published
+    @Test
+    public void testRerouteCopiesRoute() throws InterruptedException {
+        Route current = new Route(graphReader, exhibits(), "entrance_exit_gate");
+        current.advanceToNextExhibit("entrance_exit_gate");
+        RouteSingleton.setRoute(current);
+        ArrayList<String> orderBefore = current.getExhibitsInOrder();
+
+        AtomicReference<Route> delivered = new AtomicReference<>();
+        RoutePlanningService.reroute("hippo", delivered::set);
+        Route rerouted = awaitRoute(delivered);
+
+        Assert.assertNotSame(current, rerouted);
+        Assert.assertEquals(orderBefore, current.getExhibitsInOrder());
+        Assert.assertEquals("crocodile", rerouted.routeOrder.get(rerouted.getNextExhibitIndex()).id);
+        Assert.assertSame(rerouted, RouteSingleton.getRoute());
+    }
+
+    // Covers newer requests and edits superseding pending requests
+    @Test
+    public void testStaleRequestsDiscarded() throws InterruptedException {
+        Route current = new Route(graphReader, exhibits(), "entrance_exit_gate");
+        current.advanceToNextExhibit("entrance_exit_gate");
+        RouteSingleton.setRoute(current);
+
+        AtomicReference<Route> stale = new AtomicReference<>();
+        AtomicReference<Route> latest = new AtomicReference<>();
+        RoutePlanningService.reroute("hippo", stale::set);
+        RoutePlanningService.skipNextExhibit("hippo", latest::set);
+        Assert.assertNotNull(awaitRoute(latest));
+        Assert.assertNull(stale.get());
+
+        // An edit after the request means its result must not be published
+        AtomicReference<Route> cancelled = new AtomicReference<>();
+        RoutePlanningService.reroute("hippo", cancelled::set);
+        RoutePlanningService.cancelPending();
+        Assert.assertSame(latest.get(), RouteSingleton.getRoute());
+
+        // Requests run in order, so once a later one is delivered the cancelled one is done
+        AtomicReference<Route> later = new AtomicReference<>();
+        RoutePlanningService.planRoute(graphReader.getModel(), exhibits(), "entrance_exit_gate",
+                new GreedyPlanner(), false, later::set);
+        Assert.assertNotNull(awaitRoute(later));
+        Assert.assertNull(cancelled.get());
+    }
+
+    // Covers a planner throwing, which must still be reported to the callback
+    @Test
+    public void testPlanningFailureDelivered() throws InterruptedException {
+        Route current = new Route(graphReader, exhibits(), "entrance_exit_gate");
+        RouteSingleton.setRoute(current);
+        RoutePlanner failingPlanner = new RoutePlanner() {
+            @Override
+            public Strategy getStrategy(int exhibitCount) {
+                return Strategy.GREEDY;
+            }
+
+            @Override
+            public int[] plan(DistanceTable table) {
+                throw new IllegalStateException("planner failed");
+            }
+        };
+
+        AtomicReference<Route> delivered = new AtomicReference<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        RoutePlanningService.planRoute(graphReader.getModel(), exhibits(), "entrance_exit_gate",
+                failingPlanner, false, new RoutePlanningService.Callback() {
+            @Override
+            public void onRoutePlanned(Route route) {
+                delivered.set(route);
+            }
+
+            @Override
+            public void onPlanningFailed(RuntimeException e) {
+                failure.set(e);
+            }
+        });
+
+        Assert.assertNotNull(awaitOutcome(failure));
+        Assert.assertEquals("planner failed", failure.get().getMessage());
+        Assert.assertNull(delivered.get());
+        Assert.assertSame(current, RouteSingleton.getRoute());
+    }
+
+    // Covers superseded requests being told they were cancelled
+    @Test
+    public void testSupersededRequestsCancelled() throws InterruptedException {
+        Route current = new Route(graphReader, exhibits(), "entrance_exit_gate");
+        current.advanceToNextExhibit("entrance_exit_gate");
+        RouteSingleton.setRoute(current);
+
+        AtomicReference<Boolean> stale = new AtomicReference<>();
+        AtomicReference<Boolean> cancelled = new AtomicReference<>();
+        AtomicReference<Route> latest = new AtomicReference<>();
+        AtomicBoolean stalePlanned = new AtomicBoolean();
+        RoutePlanningService.reroute("hippo", cancellable(stale, stalePlanned));
+        RoutePlanningService.reroute("hippo", cancellable(cancelled, stalePlanned));
+        RoutePlanningService.cancelPending();
+        RoutePlanningService.skipNextExhibit("hippo", latest::set);
+
+        Assert.assertNotNull(awaitRoute(latest));
+        Assert.assertEquals(Boolean.TRUE, awaitOutcome(stale));
+        Assert.assertEquals(Boolean.TRUE, awaitOutcome(cancelled));
+        Assert.assertFalse(stalePlanned.get());
+    }
+
+    // Covers a second skip before the first is published skipping another exhibit, rather than
+    // the same one again
+    @Test
+    public void testQuickSkipsChain() throws InterruptedException {
+        ArrayList<String> exhibits = exhibits();
+        exhibits.add("flamingo");
+        exhibits.add("koi");
+        Route current = new Route(graphReader, exhibits, "entrance_exit_gate");
+        current.advanceToNextExhibit("entrance_exit_gate");
+        RouteSingleton.setRoute(current);
+        String nextExhibitId = current.routeOrder.get(current.getNextExhibitIndex()).id;
+        int waypointCount = current.routeOrder.size();
+
+        AtomicReference<Boolean> firstCancelled = new AtomicReference<>();
+        AtomicBoolean firstPlanned = new AtomicBoolean();
+        AtomicReference<Route> latest = new AtomicReference<>();
+        RoutePlanningService.skipNextExhibit("hippo", cancellable(firstCancelled, firstPlanned));
+        RoutePlanningService.skipNextExhibit("hippo", latest::set);
+
+        Route skipped = awaitRoute(latest);
+        Assert.assertNotNull(skipped);
+        Assert.assertEquals(waypointCount - 2, skipped.routeOrder.size());
+        Assert.assertFalse(skipped.getExhibitsInOrder().contains(nextExhibitId));
+        Assert.assertSame(skipped, RouteSingleton.getRoute());
+        Assert.assertEquals(Boolean.TRUE, awaitOutcome(firstCancelled));
+        Assert.assertFalse(firstPlanned.get());
+
+        // Once published, a new skip starts from the published route
+        AtomicReference<Route> after = new AtomicReference<>();
+        RoutePlanningService.skipNextExhibit("hippo", after::set);
+        Assert.assertEquals(waypointCount - 3, awaitRoute(after).routeOrder.size());
+    }
+
+    // Callback recording cancellation, and whether a route was delivered instead
+    private RoutePlanningService.Callback cancellable(AtomicReference<Boolean> cancelled,
+                                                      AtomicBoolean planned) {
+        return new RoutePlanningService.Callback() {
+            @Override
+            public void onRoutePlanned(Route route) {
+                planned.set(true);
+            }
+
+            @Override
+            public void onPlanningCancelled() {
+                cancelled.set(true);
+            }
+        };
+    }
+}
@@ -65,6 +65,76 @@ public class RouteTest {
         Assert.assertEquals(route.getTotalDistance("crocodile", "entrance_exit_gate"), 12700, 1);
     }
 
+    // Covers getCumulativeDistances matching getTotalDistance for every waypoint
+    @Test
+    public void testGetCumulativeDistances() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("toucan");
+        exhibits.add("siamang");
+        exhibits.add("crocodile");
+        Route route = new Route(graphReader, exhibits, "entrance_exit_gate");
+
+        List<String> order = route.getExhibitsInOrder();
+        double[] distances = route.getCumulativeDistances("entrance_exit_gate");
+        Assert.assertEquals(order.size(), distances.length);
+        for (int i = 0; i < order.size(); i++) {
+            Assert.assertEquals(route.getTotalDistance(order.get(i), "entrance_exit_gate"), distances[i], 0.001);
+        }
+        Assert.assertEquals(12700, distances[order.indexOf("crocodile")], 1);
+
+        // Away from where the route was planned, only the first leg changes
+        double[] fromHippo = route.getCumulativeDistances("hippo");
+        double firstLeg = route.getPathWeight("hippo", order.get(0));
+        for (int i = 0; i < order.size(); i++) {
+            Assert.assertEquals(route.getTotalDistance(order.get(i), "hippo"), fromHippo[i], 0.001);
+            Assert.assertEquals(firstLeg + distances[i] - distances[0], fromHippo[i], 0.001);
+        }
+    }
+
+    // Covers the cursor and cached distances through advancing, going back, skipping and rerouting
+    @Test
+    public void testProgressQueries() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("toucan");
+        exhibits.add("siamang");
+        exhibits.add("crocodile");
+        Route route = new Route(graphReader, exhibits, "entrance_exit_gate");
+
+        // Route is siamang, toucan, crocodile, then back to the gate
+        Assert.assertTrue(route.atStart());
+        Assert.assertEquals(0, route.getNextExhibitIndex());
+        Assert.assertEquals(4800, route.getLegDistance(0), 1);
+        Assert.assertEquals(12700, route.getCumulativeDistance(2), 1);
+        Assert.assertEquals(21200, route.getRouteDistance(), 1);
+        Assert.assertEquals(0.0, route.getProgress(), 0.001);
+
+        route.advanceToNextExhibit("entrance_exit_gate");
+        route.advanceToNextExhibit("siamang");
+        Assert.assertEquals(2, route.getNextExhibitIndex());
+        Assert.assertEquals(7400, route.getCompletedDistance(), 1);
+        Assert.assertEquals(21200 - 7400, route.getRemainingDistance(), 1);
+        Assert.assertEquals(7400.0 / 21200, route.getProgress(), 0.001);
+        Assert.assertEquals(route.getRemainingDistance("toucan") / Route.WALKING_FEET_PER_MINUTE,
+                route.getEstimatedMinutesRemaining("toucan"), 0.001);
+        Assert.assertEquals(route.getEstimatedMinutesRemaining("toucan"),
+                Route.getEstimatedMinutes(route.getRemainingDistance("toucan")), 0.001);
+
+        route.returnToPreviousExhibit("toucan");
+        Assert.assertEquals(1, route.getNextExhibitIndex());
+        Assert.assertEquals(4800, route.getCompletedDistance(), 1);
+
+        // Skipping toucan reroutes the rest, cached legs follow the new order
+        route.skipNextExhibit("siamang");
+        Assert.assertEquals(3, route.routeOrder.size());
+        Assert.assertEquals(route.getPathWeight("siamang", "crocodile"), route.getLegDistance(1), 0.001);
+        Assert.assertEquals(route.getCumulativeDistance(1) + route.getPathWeight("crocodile", "entrance_exit_gate"),
+                route.getRouteDistance(), 0.001);
+
+        route.advanceToNextExhibit("siamang");
+        Assert.assertTrue(route.reachedEnd());
+        Assert.assertEquals(route.getPathWeight("crocodile", "entrance_exit_gate"), route.getRemainingDistance(), 0.001);
+    }
+
     // Covers advanceToNextExhibit, getDirections, edgeToDirection
     @Test
     public void testNextRouteProgression() {
@@ -125,6 +195,72 @@ public class RouteTest {
         directionsList = route.advanceToNextExhibit("crocodile"); // Should go to toucans
     }
 
+    // Covers rerouting and skipping with incremental replanning
+    @Test
+    public void testIncrementalReroute() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("siamang");
+        exhibits.add("toucan");
+        exhibits.add("crocodile");
+        Route route = new Route(graphReader, exhibits, "entrance_exit_gate");
+        route.setIncrementalReplanning(true);
+
+        route.advanceToNextExhibit("entrance_exit_gate");
+        route.reroute("hippo");
+        assertNextExhibitIdEquals(route, "crocodile");
+        Assert.assertEquals("siamang", route.routeOrder.get(0).id);
+        Assert.assertEquals("toucan", route.routeOrder.get(2).id);
+        Assert.assertEquals("entrance_exit_gate", route.routeOrder.get(3).id);
+
+        route.skipNextExhibit("hippo");
+        assertNextExhibitIdEquals(route, "toucan");
+        Assert.assertEquals(3, route.routeOrder.size());
+    }
+
+    // Covers saving a route and restoring it with the same order, progress and legs
+    @Test
+    public void testSaveAndRestore() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("siamang");
+        exhibits.add("toucan");
+        exhibits.add("crocodile");
+        exhibits.add("motmot");
+        Route route = new Route(graphReader, exhibits, "entrance_exit_gate");
+        route.advanceToNextExhibit("entrance_exit_gate");
+
+        List<RouteWaypointItem> items = route.toWaypointItems();
+        Assert.assertEquals("entrance_exit_gate", items.get(0).legStartId);
+        Assert.assertEquals(4800, items.get(0).legDistance, 1);
+
+        Route restored = new Route(graphReader.getModel(), items);
+        Assert.assertEquals(route.getExhibitsInOrder(), restored.getExhibitsInOrder());
+        for (int i = 0; i < route.routeOrder.size(); i++) {
+            Assert.assertEquals(route.routeOrder.get(i).visited, restored.routeOrder.get(i).visited);
+            Assert.assertEquals(route.getLegPath(i).getEdgeList(), restored.getLegPath(i).getEdgeList());
+        }
+        assertNextExhibitIdEquals(restored, "toucan");
+        Assert.assertEquals(route.getDirectionsToNextExhibit("siamang", false),
+                restored.getDirectionsToNextExhibit("siamang", false));
+    }
+
+    // Covers restoring leg distances as saved, and measuring legs saved without one
+    @Test
+    public void testRestoreLegDistances() {
+        ArrayList<String> exhibits = new ArrayList<>();
+        exhibits.add("siamang");
+        exhibits.add("toucan");
+        Route route = new Route(graphReader, exhibits, "entrance_exit_gate");
+
+        List<RouteWaypointItem> items = route.toWaypointItems();
+        items.get(0).legDistance = 1234;
+        items.get(1).legDistance = Double.POSITIVE_INFINITY;
+
+        Route restored = new Route(graphReader.getModel(), items);
+        Assert.assertEquals(1234, restored.getLegDistance(0), 0);
+        Assert.assertEquals(route.getLegDistance(1), restored.getLegDistance(1), 0);
+        Assert.assertEquals(route.getLegDistance(2), restored.getLegDistance(2), 0);
+    }
+
     // Covers skipping method
     @Test
     public void testSkip() {
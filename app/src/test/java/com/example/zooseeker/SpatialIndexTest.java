@@ -0,0 +1,89 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+import android.location.Location;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.Random;
+
+@RunWith(AndroidJUnit4.class)
+public class SpatialIndexTest {
+    public Context context = getApplication().getApplicationContext();
+    public Map<String, ZooData.VertexInfo> vertexInfo =
+            ZooData.loadVertexInfoJSON(context, "new_assets/exhibit_info.json");
+    public SpatialIndex index = new SpatialIndex(vertexInfo);
+
+    // Each location should be its own nearest location
+    @Test
+    public void testNearestAtLocations() {
+        for (ZooData.VertexInfo info : vertexInfo.values()) {
+            if (info.group_id != null) continue; // Group members share the group's location
+            int nearest = index.nearest(info.lat, info.lng);
+            Assert.assertEquals(0.0, index.distanceTo(info.lat, info.lng, nearest), 0.01);
+        }
+    }
+
+    // Covers nearest against a linear scan, with and without kind filter
+    @Test
+    public void testNearestMatchesScan() {
+        Random random = new Random(110);
+        for (int i = 0; i < 500; i++) {
+            double lat = 32.72 + random.nextDouble() * 0.025;
+            double lng = -117.17 + random.nextDouble() * 0.025;
+
+            String expected = Route.getNearestLocationId(vertexInfo, location(lat, lng));
+            String actual = index.getId(index.nearest(lat, lng));
+            // Planar and ellipsoid distances may disagree on near-ties
+            Assert.assertEquals(index.distanceTo(lat, lng, ordinalOf(expected)),
+                    index.distanceTo(lat, lng, ordinalOf(actual)), 5.0);
+
+            int exhibit = index.nearest(lat, lng, ZooData.VertexInfo.Kind.EXHIBIT);
+            Assert.assertEquals(ZooData.VertexInfo.Kind.EXHIBIT, index.getKind(exhibit));
+            for (int other = 0; other < index.size(); other++) {
+                if (index.getKind(other) != ZooData.VertexInfo.Kind.EXHIBIT) continue;
+                Assert.assertTrue(index.distanceTo(lat, lng, exhibit)
+                        <= index.distanceTo(lat, lng, other));
+            }
+        }
+    }
+
+    // Covers k-nearest ordering and counts
+    @Test
+    public void testKNearest() {
+        int[] results = new int[5];
+        double[] distances = new double[5];
+        ZooData.VertexInfo gate = vertexInfo.get("entrance_exit_gate");
+
+        int found = index.nearest(gate.lat, gate.lng, null, results, distances);
+        Assert.assertEquals(5, found);
+        Assert.assertEquals("entrance_exit_gate", index.getId(results[0]));
+        for (int i = 1; i < found; i++) {
+            Assert.assertTrue(distances[i - 1] <= distances[i]);
+        }
+
+        found = index.nearest(gate.lat, gate.lng, ZooData.VertexInfo.Kind.GATE, results, distances);
+        Assert.assertEquals(1, found);
+    }
+
+    private int ordinalOf(String id) {
+        for (int i = 0; i < index.size(); i++) {
+            if (index.getId(i).equals(id)) return i;
+        }
+        return -1;
+    }
+
+    private static Location location(double lat, double lng) {
+        Location location = new Location("");
+        location.setLatitude(lat);
+        location.setLongitude(lng);
+        return location;
+    }
+}
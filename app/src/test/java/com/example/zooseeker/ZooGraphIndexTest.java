@@ -0,0 +1,84 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RunWith(AndroidJUnit4.class)
+public class ZooGraphIndexTest {
+    public Context context = getApplication().getApplicationContext();
+    public DataFilesReader graphReader = new DataFilesReader(context, "zoo_data_files.json");
+
+    // Covers the compressed adjacency, weights and streets matching the graph they were built from
+    @Test
+    public void testMatchesGraph() {
+        Graph<String, IdentifiedWeightedEdge> zooGraph = graphReader.getGraph();
+        ZooGraphIndex index = graphReader.getGraphIndex();
+        Assert.assertEquals(zooGraph.vertexSet().size(), index.getVertexCount());
+        Assert.assertEquals(zooGraph.edgeSet().size(), index.getEdgeCount());
+
+        for (int v = 0; v < index.getVertexCount(); v++) {
+            String vertexId = index.getVertexId(v);
+            Assert.assertEquals(v, index.getOrdinal(vertexId));
+            Assert.assertEquals(graphReader.getVertexInfo().get(vertexId).name, index.getVertexName(v));
+
+            // Every incident edge appears once, leading to the other endpoint
+            Set<IdentifiedWeightedEdge> adjacent = new HashSet<>();
+            for (int i = index.getAdjacencyStart(v); i < index.getAdjacencyEnd(v); i++) {
+                int e = index.getAdjacentEdge(i);
+                IdentifiedWeightedEdge edge = index.getEdge(e);
+                Assert.assertTrue(adjacent.add(edge));
+                Assert.assertEquals(index.getOtherEndpoint(e, v), index.getAdjacentVertex(i));
+                Assert.assertEquals(zooGraph.getEdgeWeight(edge), index.getEdgeWeight(e), 0.0);
+                Assert.assertEquals(graphReader.getEdgeInfo().get(edge.getId()).street,
+                        index.getStreetName(index.getEdgeStreet(e)));
+            }
+            Assert.assertEquals(zooGraph.edgesOf(vertexId), adjacent);
+        }
+    }
+
+    // Covers exhibits within a group being routed to their group's vertex
+    @Test
+    public void testRoutingOrdinals() {
+        ZooGraphIndex index = graphReader.getGraphIndex();
+        Assert.assertEquals(index.getOrdinal("parker_aviary"), index.getRoutingOrdinal("toucan"));
+        Assert.assertEquals(index.getOrdinal("siamang"), index.getRoutingOrdinal("siamang"));
+        Assert.assertEquals(-1, index.findOrdinal("toucan"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownLocation() {
+        graphReader.getGraphIndex().getRoutingOrdinal("not_a_location");
+    }
+
+    // Covers converting paths between vertex lists, edge ordinals and graph paths
+    @Test
+    public void testPaths() {
+        ZooGraphIndex index = graphReader.getGraphIndex();
+        DistanceOracle oracle = graphReader.getDistanceOracle();
+        int start = index.getOrdinal("entrance_exit_gate");
+        int end = index.getOrdinal("siamang");
+
+        int[] pathEdges = oracle.getPathEdges(start, end);
+        Assert.assertEquals(end, index.getPathEnd(start, pathEdges));
+        Assert.assertEquals(oracle.getPathWeight(start, end), index.getPathWeight(pathEdges), 0.001);
+
+        GraphPath<String, IdentifiedWeightedEdge> path = index.toGraphPath(start, pathEdges);
+        Assert.assertEquals(oracle.getPath("entrance_exit_gate", "siamang").getEdgeList(), path.getEdgeList());
+        Assert.assertArrayEquals(pathEdges, index.findPathEdges(path.getVertexList()));
+
+        Assert.assertEquals(0, oracle.getPathEdges(start, start).length);
+        Assert.assertEquals(0, index.toGraphPath(start, new int[0]).getLength());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.zooseeker;
+
+import static org.robolectric.RuntimeEnvironment.getApplication;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.jgrapht.Graph;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(AndroidJUnit4.class)
+public class ZooModelTest {
+    public static final String ASSETS_LIST_FILE = "zoo_data_files.json";
+
+    public Context context = getApplication().getApplicationContext();
+
+    // Covers sharing of parsed data between readers
+    @Test
+    public void testModelIsShared() {
+        DataFilesReader readerA = new DataFilesReader(context, ASSETS_LIST_FILE);
+        DataFilesReader readerB = new DataFilesReader(context, ASSETS_LIST_FILE);
+
+        Assert.assertSame(readerA.getModel(), readerB.getModel());
+        Assert.assertSame(readerA.getGraph(), readerB.getGraph());
+        Assert.assertSame(readerA.getVertexInfo(), readerB.getVertexInfo());
+        Assert.assertSame(readerA.getDistanceOracle(), readerB.getDistanceOracle());
+    }
+
+    @Test
+    public void testGateId() {
+        ZooModel model = ZooModel.get(context, ASSETS_LIST_FILE);
+        Assert.assertEquals("entrance_exit_gate", model.getGateId());
+    }
+
+    // Covers getAsync reporting a model that cannot be built, rather than never calling back
+    @Test
+    public void testGetAsyncDeliversFailure() throws InterruptedException {
+        AtomicReference<ZooModel> loaded = new AtomicReference<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        ZooModel.getAsync(context, "missing_data_files.json", loaded::set, failure::set);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (failure.get() == null && System.currentTimeMillis() < deadline) {
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(10);
+        }
+        Assert.assertNotNull(failure.get());
+        Assert.assertNull(loaded.get());
+    }
+
+    // Building exhibit lists must not leak group names into the shared tags
+    @Test
+    public void testExhibitsDoNotModifyModel() {
+        ZooModel model = ZooModel.get(context, ASSETS_LIST_FILE);
+        int tagCount = model.getVertexInfo().get("toucan").tags.size();
+
+        List<Exhibit> exhibits = Exhibit.returnExhibits(model.getVertexInfo());
+        Exhibit.returnExhibits(model.getVertexInfo());
+
+        Assert.assertEquals(tagCount, model.getVertexInfo().get("toucan").tags.size());
+        for (Exhibit exhibit : exhibits) {
+            if (exhibit.id.equals("toucan")) {
+                Assert.assertTrue(exhibit.tags.contains("Parker Aviary"));
+            }
+        }
+    }
+
+    // Binary file generated by convertZooData must describe the same zoo as the json files
+    @Test
+    public void testBinaryMatchesJson() {
+        ZooBinary binary = ZooData.loadZooBinary(context, "new_assets/zoo_data.zoob");
+        Assume.assumeNotNull(binary);
+
+        Graph<String, IdentifiedWeightedEdge> jsonGraph =
+                ZooData.loadZooGraphJSON(context, "new_assets/zoo_graph.json");
+        Graph<String, IdentifiedWeightedEdge> binaryGraph = ZooData.loadZooGraphBinary(binary);
+        Assert.assertEquals(new ArrayList<>(jsonGraph.vertexSet()),
+                new ArrayList<>(binaryGraph.vertexSet()));
+        Assert.assertEquals(jsonGraph.edgeSet().size(), binaryGraph.edgeSet().size());
+
+        Map<String, ZooData.VertexInfo> jsonVertices =
+                ZooData.loadVertexInfoJSON(context, "new_assets/exhibit_info.json");
+        Map<String, ZooData.VertexInfo> binaryVertices = ZooData.loadVertexInfoBinary(binary);
+        Assert.assertEquals(jsonVertices.keySet(), binaryVertices.keySet());
+        for (String id : jsonVertices.keySet()) {
+            Assert.assertEquals(jsonVertices.get(id).name, binaryVertices.get(id).name);
+            Assert.assertEquals(jsonVertices.get(id).group_id, binaryVertices.get(id).group_id);
+            Assert.assertEquals(jsonVertices.get(id).tags, binaryVertices.get(id).tags);
+            Assert.assertEquals(jsonVertices.get(id).lat, binaryVertices.get(id).lat, 0);
+        }
+
+        Map<String, ZooData.EdgeInfo> binaryEdges = ZooData.loadEdgeInfoBinary(binary);
+        for (ZooData.EdgeInfo edge : ZooData.loadEdgeInfoJSON(context, "new_assets/trail_info.json").values()) {
+            Assert.assertEquals(edge.street, binaryEdges.get(edge.id).street);
+        }
+    }
+
+    // Index read from the binary columns must match the one built from the json graph, so
+    // routes and saved hierarchies agree whichever file a model was loaded from
+    @Test
+    public void testBinaryIndexMatchesJson() {
+        ZooBinary binary = ZooData.loadZooBinary(context, "new_assets/zoo_data.zoob");
+        Assume.assumeNotNull(binary);
+
+        ZooModel jsonModel = new ZooModel(
+                ZooData.loadZooGraphJSON(context, "new_assets/zoo_graph.json"),
+                ZooData.loadVertexInfoJSON(context, "new_assets/exhibit_info.json"),
+                ZooData.loadEdgeInfoJSON(context, "new_assets/trail_info.json"));
+        ZooModel binaryModel = new ZooModel(binary, null);
+        ZooGraphIndex expected = jsonModel.getGraphIndex();
+        ZooGraphIndex actual = binaryModel.getGraphIndex();
+
+        Assert.assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        for (int v = 0; v < expected.getVertexCount(); v++) {
+            Assert.assertEquals(expected.getVertexId(v), actual.getVertexId(v));
+            Assert.assertEquals(expected.getVertexName(v), actual.getVertexName(v));
+            Assert.assertEquals(expected.getVertexKind(v), actual.getVertexKind(v));
+            Assert.assertEquals(expected.getAdjacencyStart(v), actual.getAdjacencyStart(v));
+            for (int i = expected.getAdjacencyStart(v); i < expected.getAdjacencyEnd(v); i++) {
+                Assert.assertEquals(expected.getAdjacentEdge(i), actual.getAdjacentEdge(i));
+                Assert.assertEquals(expected.getAdjacentVertex(i), actual.getAdjacentVertex(i));
+            }
+        }
+        Assert.assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int e = 0; e < expected.getEdgeCount(); e++) {
+            Assert.assertEquals(expected.getEdgeWeight(e), actual.getEdgeWeight(e), 0);
+            Assert.assertEquals(expected.getEdgeStreet(e), actual.getEdgeStreet(e));
+            Assert.assertEquals(expected.getEdge(e).getId(), actual.getEdge(e).getId());
+        }
+        for (String id : jsonModel.getVertexInfo().keySet()) {
+            Assert.assertEquals(expected.getRoutingOrdinal(id), actual.getRoutingOrdinal(id));
+        }
+        Assert.assertEquals(jsonModel.getGateId(), binaryModel.getGateId());
+        Assert.assertSame(binaryModel.getGraph(), binaryModel.getGraph());
+    }
+}
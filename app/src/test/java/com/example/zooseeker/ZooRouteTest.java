@@ -132,4 +132,20 @@ public class ZooRouteTest {
         route.advanceToNextExhibit();
         assertTrue(route.reachedEnd());
     }
+
+    // Covers routes over a loaded model, sharing its distance oracle
+    @Test
+    public void testModelRouteMatchesGraphRoute() {
+        ZooModel model = ZooModel.get(context, "zoo_data_files.json");
+        targets.add("siamang");
+        targets.add("hippo");
+        targets.add("koi");
+
+        GraphRoute expected = new GraphRoute(model.getGraph(), model.getVertexInfo(), model.getEdgeInfo(),
+                targets, "entrance_exit_gate");
+        GraphRoute route = new GraphRoute(model, targets, "entrance_exit_gate");
+        Assert.assertEquals(expected.exhibitsInOrder(), route.exhibitsInOrder());
+        Assert.assertEquals(expected.getPathEdges().getWeight(), route.getPathEdges().getWeight(), 0.01);
+        Assert.assertEquals(expected.advanceToNextExhibit(), route.advanceToNextExhibit());
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.zooseeker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-to-point and one-to-all queries of the per-query oracles (A*, Dijkstra, contraction
+ *  hierarchy) on synthetic zoos too large for all-pairs tables. Each call answers the next of a
+ *  fixed sequence of random vertex pairs, so no query repeats the previous one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceOracleBenchmark {
+    private static final int PAIR_COUNT = 1024;
+
+    @Param({"1000", "10000"})
+    public int vertexCount;
+
+    private AStarDistanceOracle aStar;
+    private AStarDistanceOracle dijkstra;
+    private ContractionHierarchyOracle contractionHierarchy;
+    private final int[] starts = new int[PAIR_COUNT];
+    private final int[] ends = new int[PAIR_COUNT];
+    private double[] weights;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ZooGraphIndex graphIndex = new SyntheticZoo(vertexCount, 42).buildModel().getGraphIndex();
+        aStar = new AStarDistanceOracle(graphIndex);
+        dijkstra = new AStarDistanceOracle(graphIndex, false);
+        contractionHierarchy = new ContractionHierarchyOracle(graphIndex);
+
+        Random random = new Random(7);
+        int count = graphIndex.getVertexCount();
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            starts[i] = random.nextInt(count);
+            ends[i] = random.nextInt(count);
+        }
+        weights = new double[count];
+    }
+
+    private int nextPair() {
+        next = (next + 1) & (PAIR_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double aStarQuery() {
+        int i = nextPair();
+        return aStar.getPathWeight(starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public double dijkstraQuery() {
+        int i = nextPair();
+        return dijkstra.getPathWeight(starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public double contractionHierarchyQuery() {
+        int i = nextPair();
+        return contractionHierarchy.getPathWeight(starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public int[] contractionHierarchyPathEdges() {
+        int i = nextPair();
+        return contractionHierarchy.getPathEdges(starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public double[] dijkstraOneToAll() {
+        dijkstra.getPathWeights(starts[nextPair()], weights);
+        return weights;
+    }
+
+    @Benchmark
+    public double[] contractionHierarchyOneToAll() {
+        contractionHierarchy.getPathWeights(starts[nextPair()], weights);
+        return weights;
+    }
+}
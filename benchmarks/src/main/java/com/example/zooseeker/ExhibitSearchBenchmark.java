@@ -0,0 +1,58 @@
+package com.example.zooseeker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The search bar's filtering (ExhibitSearchAdapter delegates to ExhibitSearch) and building its
+ *  index, on synthetic zoos of increasing size, for queries from a single letter to a misspelling
+ *  and one matching nothing
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExhibitSearchBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int vertexCount;
+
+    @Param({"a", "li", "tiger", "tigre", "zzz"})
+    public String query;
+
+    private List<Exhibit> exhibits;
+    private ExhibitSearch search;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticZoo zoo = new SyntheticZoo(vertexCount, 42);
+        exhibits = Exhibit.returnExhibits(ZooData.loadVertexInfoJSON(new StringReader(zoo.vertexJson)));
+        search = new ExhibitSearch(exhibits);
+    }
+
+    @Benchmark
+    public ExhibitSearch buildIndex() {
+        return new ExhibitSearch(exhibits);
+    }
+
+    @Benchmark
+    public ArrayList<Exhibit> search() {
+        return search.search(query);
+    }
+}
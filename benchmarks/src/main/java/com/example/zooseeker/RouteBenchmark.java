@@ -0,0 +1,168 @@
+package com.example.zooseeker;
+
+import android.location.Location;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route planning, replanning, off-track checks, progress, directions and nearest-location
+ *  lookups, on synthetic zoos of increasing size. Each route has been advanced past its first
+ *  exhibit, and the user stands at a random location of the zoo. Directions are measured both
+ *  generated from scratch and looked up in the model's directions cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int vertexCount;
+
+    @Param({"10", "30"})
+    public int exhibitCount;
+
+    private ZooModel zooModel;
+    private String gateId;
+    private ArrayList<String> exhibitIds;
+    private Route route;
+    private Route incrementalRoute;
+    private OffTrackDetector offTrackDetector;
+    private String userLocationId;
+    private Location userLocation;
+    private String lastExhibitId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticZoo zoo = new SyntheticZoo(vertexCount, 42);
+        zooModel = zoo.buildModel();
+        gateId = zoo.gateId;
+        Random random = new Random(7);
+
+        // Random exhibits to visit
+        List<String> shuffled = new ArrayList<>(zoo.exhibitIds);
+        Collections.shuffle(shuffled, random);
+        exhibitIds = new ArrayList<>(shuffled.subList(0, Math.min(exhibitCount, shuffled.size())));
+
+        route = new Route(zooModel, exhibitIds, gateId);
+        route.advanceToNextExhibit(gateId);
+        incrementalRoute = new Route(zooModel, exhibitIds, gateId);
+        incrementalRoute.setIncrementalReplanning(true);
+        incrementalRoute.advanceToNextExhibit(gateId);
+        lastExhibitId = route.routeOrder.get(route.routeOrder.size() - 2).id;
+
+        // User somewhere in the zoo, slightly off the location itself
+        userLocationId = zoo.graphVertexIds.get(random.nextInt(zoo.graphVertexIds.size()));
+        ZooData.VertexInfo userVertex = zooModel.getVertexInfo().get(userLocationId);
+        userLocation = new Location("");
+        userLocation.setLatitude(userVertex.lat + 0.0001);
+        userLocation.setLongitude(userVertex.lng - 0.0001);
+
+        offTrackDetector = new OffTrackDetector(zooModel.getGraphIndex());
+        offTrackDetector.update(route, userLocationId);
+    }
+
+    @Benchmark
+    public Route constructGreedy() {
+        return new Route(zooModel, exhibitIds, gateId);
+    }
+
+    @Benchmark
+    public Route constructSelected() {
+        return new Route(zooModel, exhibitIds, gateId, new PlannerSelector(50));
+    }
+
+    @Benchmark
+    public Route reroute() {
+        Route copy = new Route(route);
+        copy.reroute(userLocationId);
+        return copy;
+    }
+
+    @Benchmark
+    public Route rerouteIncremental() {
+        Route copy = new Route(incrementalRoute);
+        copy.reroute(userLocationId);
+        return copy;
+    }
+
+    @Benchmark
+    public boolean isOffTrack() {
+        return route.isOffTrack(userLocationId);
+    }
+
+    @Benchmark
+    public boolean offTrackDetector() {
+        return offTrackDetector.update(route, userLocationId);
+    }
+
+    @Benchmark
+    public double remainingMinutes() {
+        return route.getEstimatedMinutesRemaining(userLocationId);
+    }
+
+    /**
+     * Empties the model's directions cache before every call, so directions are generated rather
+     *  than looked up
+     */
+    @State(Scope.Thread)
+    public static class EmptyDirectionsCache {
+        @Setup(Level.Invocation)
+        public void invalidate(RouteBenchmark benchmark) {
+            benchmark.zooModel.getDirectionsCache().invalidate();
+        }
+    }
+
+    @Benchmark
+    public ArrayList<String> briefDirections(EmptyDirectionsCache emptyCache) {
+        return route.getBriefDirections(gateId, lastExhibitId);
+    }
+
+    @Benchmark
+    public ArrayList<String> detailedDirections(EmptyDirectionsCache emptyCache) {
+        return route.getDetailedDirections(gateId, lastExhibitId);
+    }
+
+    @Benchmark
+    public ArrayList<String> briefDirectionsCached() {
+        return route.getBriefDirections(gateId, lastExhibitId);
+    }
+
+    @Benchmark
+    public ArrayList<String> detailedDirectionsCached() {
+        return route.getDetailedDirections(gateId, lastExhibitId);
+    }
+
+    @Benchmark
+    public ArrayList<DirectionStep> directionSteps() {
+        return route.getDirectionSteps(gateId, lastExhibitId, false);
+    }
+
+    @Benchmark
+    public String nearestLocationIndexed() {
+        return Route.getNearestLocationId(zooModel.getSpatialIndex(), userLocation);
+    }
+
+    @Benchmark
+    public String nearestLocationScan() {
+        return Route.getNearestLocationId(zooModel.getVertexInfo(), userLocation);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.zooseeker;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates zoos of a given size in the same json formats as the app's assets, for measuring how
+ *  routing, search and loading scale to bigger parks. Locations sit on a jittered grid of paths,
+ *  with every row connected and some columns removed, around a gate at the corner. About a third
+ *  of locations are exhibits, a tenth of which are exhibit groups of two exhibits.
+ */
+public class SyntheticZoo {
+    private static final double SPACING_FEET = 300.0;
+    private static final double FEET_PER_DEGREE_LAT = 364000.0;
+    private static final double GATE_LAT = 32.73459618734685;
+    private static final double GATE_LNG = -117.14936;
+    private static final String[] WORDS = {
+            "mammal", "bird", "reptile", "fish", "amphibian", "insect", "primate", "cat", "bear",
+            "monkey", "ape", "lizard", "snake", "turtle", "parrot", "owl", "eagle", "flamingo",
+            "penguin", "otter", "seal", "whale", "shark", "koi", "elephant", "hippo", "rhino",
+            "giraffe", "zebra", "lion", "tiger", "leopard", "cheetah", "wolf", "fox", "deer",
+            "antelope", "gorilla", "orangutan", "lemur", "sloth", "anteater", "kangaroo", "koala",
+            "panda", "camel", "africa", "asia", "australia", "america", "arctic", "jungle",
+            "desert", "savanna", "ocean", "river", "night", "colorful", "spotted", "striped"
+    };
+
+    public final String graphJson;
+    public final String vertexJson;
+    public final String edgeJson;
+    public final String gateId = "entrance_exit_gate";
+    public final List<String> exhibitIds = new ArrayList<>();
+    public final List<String> graphVertexIds = new ArrayList<>();
+
+    /**
+     * Generates a zoo
+     * @param vertexCount - number of locations in the zoo graph
+     * @param seed - seed for layout, weights and tags, so runs are comparable
+     */
+    public SyntheticZoo(int vertexCount, long seed) {
+        Random random = new Random(seed);
+        int side = (int) Math.ceil(Math.sqrt(vertexCount));
+        double feetPerDegreeLng = FEET_PER_DEGREE_LAT * Math.cos(Math.toRadians(GATE_LAT));
+
+        StringBuilder nodes = new StringBuilder();
+        StringBuilder edges = new StringBuilder();
+        StringBuilder vertices = new StringBuilder();
+        StringBuilder edgeInfo = new StringBuilder();
+
+        for (int i = 0; i < vertexCount; i++) {
+            int row = i / side;
+            int col = i % side;
+            String id = vertexId(i);
+            graphVertexIds.add(id);
+            appendSeparator(nodes).append("{\"id\":\"").append(id).append("\"}");
+
+            double lat = GATE_LAT + (row * SPACING_FEET + jitter(random)) / FEET_PER_DEGREE_LAT;
+            double lng = GATE_LNG - (col * SPACING_FEET + jitter(random)) / feetPerDegreeLng;
+            if (i == 0) {
+                appendVertex(vertices, id, "gate", "Entrance and Exit Gate", null, new String[0], lat, lng);
+            } else if (i % 30 == 0) {
+                // Exhibit group, whose members share its location and are not in the graph
+                appendVertex(vertices, id, "exhibit_group", "Exhibit Group " + i, null, new String[0], lat, lng);
+                for (String member : new String[] {id + "_a", id + "_b"}) {
+                    appendVertex(vertices, member, "exhibit", "Exhibit " + member, id, tags(random), Double.NaN, Double.NaN);
+                    exhibitIds.add(member);
+                }
+            } else if (i % 3 == 0) {
+                appendVertex(vertices, id, "exhibit", "Exhibit " + i, null, tags(random), lat, lng);
+                exhibitIds.add(id);
+            } else {
+                appendVertex(vertices, id, "intersection", "Row " + row + " Trail / Column " + col + " Way",
+                        null, new String[0], lat, lng);
+            }
+
+            // Paths along rows are always kept, paths along columns only at the first column and
+            // at random elsewhere, which keeps the zoo connected without being a perfect grid
+            if (col + 1 < side && i + 1 < vertexCount) {
+                appendEdge(edges, edgeInfo, random, i, i + 1, "Row " + row + " Trail");
+            }
+            if (i + side < vertexCount && (col == 0 || random.nextDouble() < 0.7)) {
+                appendEdge(edges, edgeInfo, random, i, i + side, "Column " + col + " Way");
+            }
+        }
+
+        this.graphJson = "{\"creator\":\"SyntheticZoo\",\"version\":\"1\",\"nodes\":[" + nodes
+                + "],\"edges\":[" + edges + "]}";
+        this.vertexJson = "[" + vertices + "]";
+        this.edgeJson = "[" + edgeInfo + "]";
+    }
+
+    /**
+     * Parses the generated json into a zoo model, as the app does with its assets
+     * @return newly built model
+     */
+    public ZooModel buildModel() {
+        return new ZooModel(
+                ZooData.loadZooGraphJSON(new StringReader(graphJson)),
+                ZooData.loadVertexInfoJSON(new StringReader(vertexJson)),
+                ZooData.loadEdgeInfoJSON(new StringReader(edgeJson)));
+    }
+
+    private static String vertexId(int index) {
+        return (index == 0) ? "entrance_exit_gate" : "location_" + index;
+    }
+
+    private static double jitter(Random random) {
+        return (random.nextDouble() - 0.5) * SPACING_FEET * 0.4;
+    }
+
+    private static String[] tags(Random random) {
+        String[] tags = new String[3];
+        for (int i = 0; i < tags.length; i++) {
+            tags[i] = WORDS[random.nextInt(WORDS.length)];
+        }
+        return tags;
+    }
+
+    private static StringBuilder appendSeparator(StringBuilder json) {
+        return (json.length() > 0) ? json.append(',') : json;
+    }
+
+    private static void appendVertex(StringBuilder json, String id, String kind, String name, String groupId,
+                                     String[] tags, double lat, double lng) {
+        appendSeparator(json).append("{\"id\":\"").append(id)
+                .append("\",\"kind\":\"").append(kind)
+                .append("\",\"name\":\"").append(name).append('"');
+        if (groupId != null) {
+            json.append(",\"group_id\":\"").append(groupId).append('"');
+        }
+        json.append(",\"tags\":[");
+        for (int i = 0; i < tags.length; i++) {
+            json.append(i > 0 ? ",\"" : "\"").append(tags[i]).append('"');
+        }
+        json.append(']');
+        if (!Double.isNaN(lat)) {
+            json.append(String.format(Locale.US, ",\"lat\":%.8f,\"lng\":%.8f", lat, lng));
+        }
+        json.append('}');
+    }
+
+    private static void appendEdge(StringBuilder edges, StringBuilder edgeInfo, Random random,
+                                   int source, int target, String street) {
+        String id = "path_" + source + "_" + target;
+        double weight = Math.round(SPACING_FEET * (1.0 + 0.3 * random.nextDouble()) / 10.0) * 10.0;
+        appendSeparator(edges).append("{\"id\":\"").append(id)
+                .append("\",\"source\":\"").append(vertexId(source))
+                .append("\",\"target\":\"").append(vertexId(target))
+                .append("\",\"weight\":").append(weight).append('}');
+        appendSeparator(edgeInfo).append("{\"id\":\"").append(id)
+                .append("\",\"street\":\"").append(street).append("\"}");
+    }
+}
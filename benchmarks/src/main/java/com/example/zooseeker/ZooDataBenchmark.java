@@ -0,0 +1,63 @@
+package com.example.zooseeker;
+
+import org.jgrapht.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the zoo json files, and building the whole zoo model from them (including the
+ *  precomputed distances and spatial index), on synthetic zoos of increasing size
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZooDataBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int vertexCount;
+
+    private SyntheticZoo zoo;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        zoo = new SyntheticZoo(vertexCount, 42);
+    }
+
+    @Benchmark
+    public Graph<String, IdentifiedWeightedEdge> loadZooGraphJSON() {
+        return ZooData.loadZooGraphJSON(new StringReader(zoo.graphJson));
+    }
+
+    @Benchmark
+    public Map<String, ZooData.VertexInfo> loadVertexInfoJSON() {
+        return ZooData.loadVertexInfoJSON(new StringReader(zoo.vertexJson));
+    }
+
+    @Benchmark
+    public Map<String, ZooData.EdgeInfo> loadEdgeInfoJSON() {
+        return ZooData.loadEdgeInfoJSON(new StringReader(zoo.edgeJson));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public ZooModel buildModel() {
+        return zoo.buildModel();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.zooseeker.tools;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build-time converter which packs the graph, vertex info and edge info json files named in a
+ *  data files list (e.g. "zoo_data_files.json") into the single binary file named by its
+ *  "binary_file" entry. The layout is documented in, and must match, the app's ZooBinary class.
+ */
+public class ZooBinaryConverter {
+    public static final int MAGIC = 0x5A4F4F42; // "ZOOB"
+    public static final int VERSION = 1;
+    public static final int FLAG_IN_GRAPH = 1;
+
+    // Must match the order of ZooData.VertexInfo.Kind
+    private static final List<String> KINDS = Arrays.asList("gate", "exhibit", "intersection", "exhibit_group");
+
+    // Interned string table
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+
+    // Vertex columns
+    private final List<String> vertexIds = new ArrayList<>();
+    private final Map<String, Integer> vertexIndices = new HashMap<>();
+    private final List<JsonObject> vertexInfos = new ArrayList<>();
+    private final List<Boolean> inGraph = new ArrayList<>();
+
+    // Edge columns
+    private final List<int[]> edgeEndpoints = new ArrayList<>();
+    private final List<String> edgeIds = new ArrayList<>();
+    private final List<Double> edgeWeights = new ArrayList<>();
+
+    /**
+     * Converts the files named in a data files list, if it names a binary file
+     * @param assetsDir - directory the data files list and json files are in
+     * @param dataFilesList - filename of data files list, relative to assetsDir
+     * @param outputDir - directory to write the binary file to, under its listed path
+     * @return written file, or null if the list does not name a binary file
+     */
+    public static File convert(File assetsDir, String dataFilesList, File outputDir) throws IOException {
+        JsonObject files = readJson(new File(assetsDir, dataFilesList)).getAsJsonObject();
+        if (!files.has("binary_file")) return null;
+
+        ZooBinaryConverter converter = new ZooBinaryConverter();
+        converter.addGraph(readJson(new File(assetsDir, files.get("graph_file").getAsString())).getAsJsonObject());
+        converter.addVertexInfo(readJson(new File(assetsDir, files.get("vertex_file").getAsString())).getAsJsonArray());
+        Map<String, String> streets = new HashMap<>();
+        for (JsonElement edgeInfo : readJson(new File(assetsDir, files.get("edge_file").getAsString())).getAsJsonArray()) {
+            JsonObject edge = edgeInfo.getAsJsonObject();
+            streets.put(edge.get("id").getAsString(), getString(edge, "street"));
+        }
+
+        File output = new File(outputDir, files.get("binary_file").getAsString());
+        output.getParentFile().mkdirs();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(output)))) {
+            converter.write(out, streets);
+        }
+        return output;
+    }
+
+    /**
+     * Command line entry point
+     * @param args - assets directory, data files list, output directory
+     */
+    public static void main(String[] args) throws IOException {
+        File output = convert(new File(args[0]), args[1], new File(args[2]));
+        System.out.println((output == null) ? "No binary_file listed in " + args[1] : "Wrote " + output);
+    }
+
+    private static JsonElement readJson(File file) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader);
+        }
+    }
+
+    private static String getString(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return (element == null || element.isJsonNull()) ? null : element.getAsString();
+    }
+
+    private int intern(String s) {
+        if (s == null) return -1;
+        Integer index = stringIndices.get(s);
+        if (index == null) {
+            index = strings.size();
+            strings.add(s);
+            stringIndices.put(s, index);
+        }
+        return index;
+    }
+
+    private int vertex(String id) {
+        Integer index = vertexIndices.get(id);
+        if (index == null) {
+            index = vertexIds.size();
+            vertexIds.add(id);
+            vertexIndices.put(id, index);
+            vertexInfos.add(null);
+            inGraph.add(false);
+        }
+        return index;
+    }
+
+    /**
+     * Adds nodes and edges of a JGraphT json export, keeping file order
+     */
+    private void addGraph(JsonObject graph) {
+        for (JsonElement node : graph.getAsJsonArray("nodes")) {
+            inGraph.set(vertex(node.getAsJsonObject().get("id").getAsString()), true);
+        }
+        for (JsonElement edgeElement : graph.getAsJsonArray("edges")) {
+            JsonObject edge = edgeElement.getAsJsonObject();
+            int source = vertex(edge.get("source").getAsString());
+            int target = vertex(edge.get("target").getAsString());
+            inGraph.set(source, true);
+            inGraph.set(target, true);
+            edgeEndpoints.add(new int[] {source, target});
+            edgeIds.add(getString(edge, "id"));
+            edgeWeights.add(edge.has("weight") ? edge.get("weight").getAsDouble() : 1.0);
+        }
+    }
+
+    /**
+     * Adds vertex info entries, appending vertices which are not part of the graph
+     */
+    private void addVertexInfo(JsonArray vertexInfo) {
+        for (JsonElement element : vertexInfo) {
+            JsonObject info = element.getAsJsonObject();
+            vertexInfos.set(vertex(info.get("id").getAsString()), info);
+        }
+    }
+
+    private void write(DataOutputStream out, Map<String, String> streets) throws IOException {
+        int vertexCount = vertexIds.size();
+        int edgeCount = edgeIds.size();
+
+        // Intern all strings up front, in column order
+        int[] ids = new int[vertexCount];
+        int[] names = new int[vertexCount];
+        int[] kinds = new int[vertexCount];
+        int[] groups = new int[vertexCount];
+        int[] tagStarts = new int[vertexCount + 1];
+        List<Integer> tags = new ArrayList<>();
+        for (int v = 0; v < vertexCount; v++) {
+            ids[v] = intern(vertexIds.get(v));
+            JsonObject info = vertexInfos.get(v);
+            names[v] = (info == null) ? -1 : intern(getString(info, "name"));
+            kinds[v] = (info == null) ? -1 : KINDS.indexOf(getString(info, "kind"));
+            String groupId = (info == null) ? null : getString(info, "group_id");
+            groups[v] = (groupId == null) ? -1 : vertexIndices.getOrDefault(groupId, -1);
+            tagStarts[v] = tags.size();
+            if (info != null && info.has("tags")) {
+                for (JsonElement tag : info.getAsJsonArray("tags")) {
+                    tags.add(intern(tag.getAsString()));
+                }
+            }
+        }
+        tagStarts[vertexCount] = tags.size();
+        int[] edgeIdStrings = new int[edgeCount];
+        int[] edgeStreets = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            edgeIdStrings[e] = intern(edgeIds.get(e));
+            edgeStreets[e] = intern(streets.get(edgeIds.get(e)));
+        }
+
+        // CSR adjacency, self-loops are listed once
+        int[] adjacencyStarts = new int[vertexCount + 1];
+        for (int[] endpoints : edgeEndpoints) {
+            adjacencyStarts[endpoints[0] + 1]++;
+            if (endpoints[1] != endpoints[0]) adjacencyStarts[endpoints[1] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            adjacencyStarts[v + 1] += adjacencyStarts[v];
+        }
+        int[] adjacentEdges = new int[adjacencyStarts[vertexCount]];
+        int[] fill = Arrays.copyOf(adjacencyStarts, vertexCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int[] endpoints = edgeEndpoints.get(e);
+            adjacentEdges[fill[endpoints[0]]++] = e;
+            if (endpoints[1] != endpoints[0]) adjacentEdges[fill[endpoints[1]]++] = e;
+        }
+
+        // Header
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(strings.size());
+        out.writeInt(vertexCount);
+        out.writeInt(edgeCount);
+        out.writeInt(tags.size());
+        out.writeInt(adjacentEdges.length);
+
+        // Strings
+        List<byte[]> encoded = new ArrayList<>();
+        int offset = 0;
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            out.writeInt(offset);
+            offset += bytes.length;
+        }
+        out.writeInt(offset);
+        for (byte[] bytes : encoded) {
+            out.write(bytes);
+        }
+        for (int pad = offset; (pad & 3) != 0; pad++) {
+            out.writeByte(0);
+        }
+
+        // Vertices
+        writeInts(out, ids);
+        writeInts(out, names);
+        writeInts(out, kinds);
+        writeInts(out, groups);
+        for (int v = 0; v < vertexCount; v++) {
+            out.writeInt(inGraph.get(v) ? FLAG_IN_GRAPH : 0);
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            JsonObject info = vertexInfos.get(v);
+            out.writeFloat((info != null && info.has("lat")) ? info.get("lat").getAsFloat() : 0f);
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            JsonObject info = vertexInfos.get(v);
+            out.writeFloat((info != null && info.has("lng")) ? info.get("lng").getAsFloat() : 0f);
+        }
+        writeInts(out, tagStarts);
+        for (int tag : tags) {
+            out.writeInt(tag);
+        }
+
+        // Edges
+        writeInts(out, edgeIdStrings);
+        writeInts(out, edgeStreets);
+        for (int[] endpoints : edgeEndpoints) out.writeInt(endpoints[0]);
+        for (int[] endpoints : edgeEndpoints) out.writeInt(endpoints[1]);
+        for (double weight : edgeWeights) out.writeDouble(weight);
+
+        // Adjacency
+        writeInts(out, adjacencyStarts);
+        writeInts(out, adjacentEdges);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}